@@ -0,0 +1,98 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Measures how the throughput of the thread-safe tables scales from 1 to {@link #MAX_THREADS} threads.
+ * <p>
+ * Every thread runs a mix of {@link #READ_PERCENT}% contains and equal shares of add and remove on
+ * random values, for {@link #SECONDS} seconds, on a table prefilled with half of the value range.
+ * The table starts small, so the first rounds also measure the cost of resizing under contention.
+ * Numbers above the core count of the machine show how the tables behave when threads get preempted.
+ * <p>
+ * Run with: {@code java -cp <classes> ConcurrentThroughputBenchmark}
+ */
+public class ConcurrentThroughputBenchmark {
+    private static final int MAX_THREADS = 64;
+    private static final int VALUES = 1 << 20;
+    private static final int READ_PERCENT = 90;
+    private static final double SECONDS = 2;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.printf("%d cores, %d%% reads, %d values%n",
+                Runtime.getRuntime().availableProcessors(), READ_PERCENT, VALUES);
+        run("LockFreeHashTable", LockFreeHashTable::new);
+        run("ConcurrentStripedHashTable", ConcurrentStripedHashTable::new);
+    }
+
+    private static void run(String name, Supplier<HashTable> factory) throws InterruptedException {
+        System.out.println(name);
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            double best = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                best = Math.max(best, measure(factory.get(), threads));
+            }
+            System.out.printf("  %2d threads %8.2f Mops/s%n", threads, best / 1e6);
+        }
+    }
+
+    /**
+     * @return operations per second of all threads together
+     */
+    private static double measure(HashTable table, int threads) throws InterruptedException {
+        for (int i = 0; i < VALUES; i += 2) {
+            table.add(i);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean(false);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] operations = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(worker);
+                long done = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!stop.get()) {
+                    // check the flag only every few operations, so it doesn't dominate
+                    for (int i = 0; i < 256; i++) {
+                        int value = random.nextInt(VALUES);
+                        int operation = random.nextInt(100);
+                        if (operation < READ_PERCENT) {
+                            table.contains(value);
+                        } else if ((operation & 1) == 0) {
+                            table.add(value);
+                        } else {
+                            table.remove(value);
+                        }
+                    }
+                    done += 256;
+                }
+                operations[worker] = done;
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep((long) (SECONDS * 1000));
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long total = 0;
+        for (long count : operations) {
+            total += count;
+        }
+        return total * 1e9 / elapsed;
+    }
+}
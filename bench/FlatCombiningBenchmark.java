@@ -0,0 +1,194 @@
+import java.util.Iterator;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Compares {@link FlatCombiningHashTable} with a {@code synchronized} wrapper under write-heavy
+ * contention on a few hot values.
+ * <p>
+ * Values are drawn from a Zipfian distribution over {@link #VALUES} values, so with the default
+ * exponent of 0.99 the ten most frequent values get about a third of all operations.
+ * Every thread runs equal shares of add, remove and contains for {@link #SECONDS} seconds.
+ * <p>
+ * Run with: {@code java -cp <classes> FlatCombiningBenchmark [exponent]}
+ */
+public class FlatCombiningBenchmark {
+    private static final int MAX_THREADS = 64;
+    private static final int VALUES = 10_000;
+    private static final double SECONDS = 2;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        double exponent = args.length > 0 ? Double.parseDouble(args[0]) : 0.99;
+        double[] cumulative = zipfian(VALUES, exponent);
+        System.out.printf("%d cores, zipfian exponent %.2f over %d values%n",
+                Runtime.getRuntime().availableProcessors(), exponent, VALUES);
+
+        for (String engine : new String[]{"LinearProbingHashTable", "SeparateChainingHashTable"}) {
+            Supplier<HashTable> engineFactory = engine.equals("LinearProbingHashTable")
+                    ? LinearProbingHashTable::new
+                    : SeparateChainingHashTable::new;
+            System.out.println(engine);
+            run("synchronized", () -> new SynchronizedHashTable(engineFactory.get()), cumulative);
+            run("flat combining", () -> new FlatCombiningHashTable(engineFactory.get()), cumulative);
+        }
+    }
+
+    private static void run(String name, Supplier<HashTable> factory, double[] cumulative)
+            throws InterruptedException {
+        System.out.println("  " + name);
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            double best = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                best = Math.max(best, measure(factory.get(), threads, cumulative));
+            }
+            System.out.printf("    %2d threads %8.2f Mops/s%n", threads, best / 1e6);
+        }
+    }
+
+    /**
+     * @return for every value the probability of drawing it or any value before it
+     */
+    private static double[] zipfian(int count, double exponent) {
+        double[] cumulative = new double[count];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < count; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int draw(double[] cumulative, SplittableRandom random) {
+        double u = random.nextDouble();
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] < u) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return operations per second of all threads together
+     */
+    private static double measure(HashTable table, int threads, double[] cumulative) throws InterruptedException {
+        // the values are drawn in advance, so the binary search isn't measured
+        int[] values = new int[1 << 16];
+        SplittableRandom random = new SplittableRandom(threads);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = draw(cumulative, random);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean(false);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] operations = new long[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers[t] = new Thread(() -> {
+                int index = worker * 7919;
+                long done = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (!stop.get()) {
+                    for (int i = 0; i < 256; i++) {
+                        int value = values[index++ & (values.length - 1)];
+                        switch (i % 3) {
+                            case 0 -> table.add(value);
+                            case 1 -> table.remove(value);
+                            default -> table.contains(value);
+                        }
+                    }
+                    done += 256;
+                }
+                operations[worker] = done;
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep((long) (SECONDS * 1000));
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long total = 0;
+        for (long count : operations) {
+            total += count;
+        }
+        return total * 1e9 / elapsed;
+    }
+
+    /**
+     * The baseline: every operation locks the monitor of the wrapper
+     */
+    private static final class SynchronizedHashTable implements HashTable {
+        private final HashTable engine;
+
+        SynchronizedHashTable(HashTable engine) {
+            this.engine = engine;
+        }
+
+        @Override
+        public synchronized int size() {
+            return engine.size();
+        }
+
+        @Override
+        public synchronized boolean empty() {
+            return engine.empty();
+        }
+
+        @Override
+        public synchronized void clear() {
+            engine.clear();
+        }
+
+        @Override
+        public synchronized void swap(HashTable other) {
+            engine.swap(other);
+        }
+
+        @Override
+        public synchronized boolean add(int value) {
+            return engine.add(value);
+        }
+
+        @Override
+        public synchronized boolean remove(int value) {
+            return engine.remove(value);
+        }
+
+        @Override
+        public synchronized boolean contains(int value) {
+            return engine.contains(value);
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            return engine.iterator();
+        }
+
+        @Override
+        public ReverseIterator reverseIterator() {
+            return engine.reverseIterator();
+        }
+    }
+}
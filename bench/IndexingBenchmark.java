@@ -0,0 +1,102 @@
+import java.util.Random;
+
+/**
+ * Measures the cost of reducing a hash to a table index, the step every probe of
+ * {@link LinearProbingHashTable} and {@link SeparateChainingHashTable} starts with.
+ * <p>
+ * "modulo" is the reduction the tables used before capacities were guaranteed to be
+ * powers of two, "mask" and "fibonacci" are the two {@link AbstractHashTable.IndexingMode}s.
+ * Every reduced index is used to load from a table, so the numbers include a realistic memory access.
+ * <p>
+ * Run with: {@code java -cp <classes> IndexingBenchmark}
+ */
+public class IndexingBenchmark {
+    private static final int HASHES = 1 << 22;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        int[] hashes = new int[HASHES];
+        for (int i = 0; i < HASHES; i++) {
+            hashes[i] = HashFunctions.customHash(random.nextInt());
+        }
+
+        for (int capacity : new int[]{1 << 10, 1 << 16, 1 << 22}) {
+            int[] table = new int[capacity];
+            for (int i = 0; i < capacity; i++) {
+                table[i] = i;
+            }
+            System.out.printf("capacity 2^%d%n", Integer.numberOfTrailingZeros(capacity));
+            report("modulo", measure(() -> modulo(hashes, table)));
+            report("mask", measure(() -> mask(hashes, table)));
+            report("fibonacci", measure(() -> fibonacci(hashes, table)));
+        }
+
+        System.out.println("LinearProbingHashTable.contains, 1M values, 50% hits");
+        for (AbstractHashTable.IndexingMode mode : AbstractHashTable.IndexingMode.values()) {
+            LinearProbingHashTable lp = new LinearProbingHashTable(HashFunctions::customHash, mode);
+            for (int i = 0; i < 1_000_000; i++) {
+                lp.add(hashes[i]);
+            }
+            report(mode.name().toLowerCase(), measure(() -> {
+                long found = 0;
+                for (int i = 0; i < 2_000_000; i++) {
+                    found += lp.contains(hashes[i]) ? 1 : 0;
+                }
+                return found;
+            }) * HASHES / 2_000_000);
+        }
+    }
+
+    private static long modulo(int[] hashes, int[] table) {
+        long sum = 0;
+        for (int h : hashes) {
+            sum += table[h % table.length];
+        }
+        return sum;
+    }
+
+    private static long mask(int[] hashes, int[] table) {
+        long sum = 0;
+        int mask = table.length - 1;
+        for (int h : hashes) {
+            sum += table[h & mask];
+        }
+        return sum;
+    }
+
+    private static long fibonacci(int[] hashes, int[] table) {
+        long sum = 0;
+        int shift = Integer.numberOfLeadingZeros(table.length) + 1;
+        for (int h : hashes) {
+            sum += table[(h * 0x9E3779B9) >>> shift];
+        }
+        return sum;
+    }
+
+    private interface Workload {
+        long run();
+    }
+
+    private static long sink;
+
+    /**
+     * @return the best time of all rounds in nanoseconds, after an equal number of warm-up rounds
+     */
+    private static long measure(Workload workload) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 2 * ROUNDS; round++) {
+            long start = System.nanoTime();
+            sink += workload.run();
+            long elapsed = System.nanoTime() - start;
+            if (round >= ROUNDS) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        return best;
+    }
+
+    private static void report(String name, long nanos) {
+        System.out.printf("  %-10s %6.2f ns/op%n", name, (double) nanos / HASHES);
+    }
+}
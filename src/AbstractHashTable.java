@@ -1,23 +1,57 @@
-import java.util.Collection;
 import java.util.function.Function;
 
 public abstract class AbstractHashTable implements HashTable {
     public static final int RESIZE_FACTOR = 2;
     public static final int DEFAULT_CAPACITY = 16;
     protected int size;
-    protected Function<Integer, Integer> hash;
+    protected IntHashFunction hash;
+    protected IndexingMode indexingMode;
+
+    /**
+     * Ways of reducing a hash to an index of a table whose capacity is a power of two
+     */
+    public enum IndexingMode {
+        /**
+         * Keeps the low bits of the hash. Cheapest, but relies on the hash function to mix them well.
+         */
+        MASK,
+        /**
+         * Multiplies the hash by 2^32 / phi and keeps the high bits of the product,
+         * which spreads hashes with poor low bits (e.g. {@link HashFunctions#absHash}) across the table.
+         */
+        FIBONACCI
+    }
+
+    private static final int FIBONACCI_MULTIPLIER = 0x9E3779B9;
 
     public AbstractHashTable() {
         size = 0;
         hash = HashFunctions::customHash;
+        indexingMode = IndexingMode.MASK;
     }
 
     /**
-     * @param hashFunction expects a function that returns a non-negative number
+     * @param hashFunction the function used for hashing the values, it may return any int
      */
-    public AbstractHashTable(Function<Integer, Integer> hashFunction) {
+    public AbstractHashTable(IntHashFunction hashFunction) {
+        this(hashFunction, IndexingMode.MASK);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     */
+    public AbstractHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
         size = 0;
         hash = hashFunction;
+        this.indexingMode = indexingMode;
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     */
+    public AbstractHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
     }
 
     @Override
@@ -30,4 +64,17 @@ public abstract class AbstractHashTable implements HashTable {
         return size == 0;
     }
 
+    /**
+     * @param value    the value whose index is searched
+     * @param capacity the capacity of the table, must be a power of two, not less than 2
+     * @return the index in [0, capacity) to which the value is hashed
+     */
+    protected int indexFor(int value, int capacity) {
+        int h = hash.hash(value);
+        if (indexingMode == IndexingMode.FIBONACCI) {
+            return (h * FIBONACCI_MULTIPLIER) >>> (Integer.numberOfLeadingZeros(capacity) + 1);
+        }
+        return h & (capacity - 1);
+    }
+
 }
@@ -0,0 +1,784 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Separate chaining hash table whose chains are linked by indices into int arrays instead of node objects.
+ * <p>
+ * The values are kept in a pool of nodes made of two parallel arrays: {@code keys} holds the value of a node
+ * and {@code next} the index of the following node of its chain. {@code heads} holds the first node of each
+ * bucket. Index 0 stands for "no node", so a new or cleared table is just zeroed arrays and empty buckets
+ * take no objects at all. Removed nodes are put on a free list, linked through {@code next}, and reused by
+ * the following additions. New values are put at the head of their chain.
+ * <p>
+ * A value takes 8 bytes in the pool, plus 4 bytes per bucket, against a node, a boxed value and a share of a
+ * bucket object and a list for {@link SeparateChainingHashTable}. A resize rebuilds the pool in the order of
+ * the new buckets, which also compacts it and empties the free list. Unlike {@link SeparateChainingHashTable}
+ * this table resizes all at once.
+ */
+public class CompactChainingHashTable extends AbstractHashTable {
+
+    /**
+     * Load factors used unless the table's {@link SizingPolicy} sets others
+     */
+    public static final double MAX_LOAD_FACTOR = 0.75;
+    public static final double MIN_LOAD_FACTOR = 0.25;
+
+    /**
+     * The largest power of two an array can hold
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * The largest length of the pool arrays
+     */
+    private static final int MAX_POOL = Integer.MAX_VALUE - 8;
+
+    /**
+     * First node of each bucket, 0 for an empty bucket
+     */
+    private int[] heads;
+    private int[] keys;
+    private int[] next;
+
+    /**
+     * Nodes from this index on were never used
+     */
+    private int nodeCount;
+
+    /**
+     * First node of the free list, 0 if it is empty
+     */
+    private int freeList;
+
+    private int modCount;
+    private SizingPolicy sizing;
+
+    public CompactChainingHashTable() {
+        this(SizingPolicy.DEFAULT);
+    }
+
+    public CompactChainingHashTable(SizingPolicy sizing) {
+        this(HashFunctions.Standard.FNV, IndexingMode.MASK, sizing);
+    }
+
+    public CompactChainingHashTable(IntHashFunction hashFunction) {
+        this(hashFunction, IndexingMode.MASK, SizingPolicy.DEFAULT);
+    }
+
+    public CompactChainingHashTable(IntHashFunction hashFunction, SizingPolicy sizing) {
+        this(hashFunction, IndexingMode.MASK, sizing);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     */
+    public CompactChainingHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
+        this(hashFunction, indexingMode, SizingPolicy.DEFAULT);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     * @param sizing       the initial capacity and the resizing rules of this table
+     * @throws IllegalArgumentException if the sizing policy is null
+     */
+    public CompactChainingHashTable(IntHashFunction hashFunction, IndexingMode indexingMode, SizingPolicy sizing) {
+        super(hashFunction, indexingMode);
+        if (sizing == null) {
+            throw new IllegalArgumentException("The sizing policy is null!");
+        }
+        this.sizing = sizing.withDefaults(MAX_LOAD_FACTOR, MIN_LOAD_FACTOR, Double.POSITIVE_INFINITY);
+        int capacity = this.sizing.initialCapacity();
+        heads = new int[capacity];
+        keys = new int[poolLengthFor(capacity)];
+        next = new int[keys.length];
+        nodeCount = 1;
+        freeList = 0;
+        modCount = 0;
+    }
+
+    public CompactChainingHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    /**
+     * Keeps the capacity and the pool, only the buckets are emptied
+     */
+    @Override
+    public void clear() {
+        heads = new int[heads.length];
+        nodeCount = 1;
+        freeList = 0;
+        size = 0;
+        ++modCount;
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Null argument passed.");
+        } else if (other instanceof CompactChainingHashTable otherCompact) {
+            swap(otherCompact);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(CompactChainingHashTable other) {
+        int[] tempArray = this.heads;
+        this.heads = other.heads;
+        other.heads = tempArray;
+
+        tempArray = this.keys;
+        this.keys = other.keys;
+        other.keys = tempArray;
+
+        tempArray = this.next;
+        this.next = other.next;
+        other.next = tempArray;
+
+        int temp = this.nodeCount;
+        this.nodeCount = other.nodeCount;
+        other.nodeCount = temp;
+
+        temp = this.freeList;
+        this.freeList = other.freeList;
+        other.freeList = temp;
+
+        temp = this.size;
+        this.size = other.size;
+        other.size = temp;
+
+        SizingPolicy tempSizing = this.sizing;
+        this.sizing = other.sizing;
+        other.sizing = tempSizing;
+
+        IntHashFunction tempHash = this.hash;
+        this.hash = other.hash;
+        other.hash = tempHash;
+
+        IndexingMode tempMode = this.indexingMode;
+        this.indexingMode = other.indexingMode;
+        other.indexingMode = tempMode;
+
+        ++this.modCount;
+        ++other.modCount;
+    }
+
+    private void swapContent(HashTable other) {
+        CompactChainingHashTable temp = new CompactChainingHashTable(hash, indexingMode, sizing);
+        temp.addAll(other.toArray());
+
+        other.clear();
+        other.addAll(toArray());
+
+        swap(temp);
+    }
+
+    /**
+     * @return the number of buckets of the table
+     */
+    public int capacity() {
+        return heads.length;
+    }
+
+    @Override
+    public boolean add(int value) {
+        if (!insertIfAbsent(value)) {
+            return false;
+        }
+        ++size;
+        ++modCount;
+        if (checkResize()) {
+            rehash(heads.length * sizing.growthFactor());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!unlink(value)) {
+            return false;
+        }
+        --size;
+        ++modCount;
+        if (checkShrink()) {
+            rehash(heads.length / sizing.growthFactor());
+        }
+        return true;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        for (int node = heads[indexFor(value, heads.length)]; node != 0; node = next[node]) {
+            if (keys[node] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes room for all the values first, so the table grows at most once, and shrinks at most once at the end
+     * if it grew for more values than were new
+     */
+    @Override
+    public int addAll(int[] values, int offset, int length) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int[] before = heads;
+
+        if ((long) size + length >= heads.length * sizing.maxLoadFactor()) {
+            rehash(capacityFor((long) size + length));
+        }
+        int added = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (insertIfAbsent(values[i])) {
+                ++added;
+            }
+        }
+
+        size += added;
+        if (heads != before) {
+            // repeated values may have left the grown table below its minimum load
+            shrinkToFit();
+        }
+        if (added > 0 || heads != before) {
+            ++modCount;
+        }
+        return added;
+    }
+
+    /**
+     * Removes all the values before shrinking the table, at most once
+     */
+    @Override
+    public int removeAll(int[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] before = heads;
+        int removed = 0;
+        for (int value : values) {
+            if (unlink(value)) {
+                ++removed;
+            }
+        }
+        size -= removed;
+        shrinkToFit();
+
+        if (removed > 0 || heads != before) {
+            ++modCount;
+        }
+        return removed;
+    }
+
+    /**
+     * Copies the values straight from the pool
+     */
+    @Override
+    public int[] toArray(int[] array) {
+        if (array == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] values = array.length >= size ? array : new int[size];
+        int count = 0;
+        for (int head : heads) {
+            for (int node = head; node != 0; node = next[node]) {
+                values[count++] = keys[node];
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Walks the chains directly, the modification count is checked once, after the scan
+     */
+    @Override
+    public void forEachInt(IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int expectedModCount = modCount;
+        int[] buckets = heads;
+        for (int index = 0; index < buckets.length && modCount == expectedModCount; index++) {
+            for (int node = buckets[index]; node != 0; node = next[node]) {
+                action.accept(keys[node]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException(
+                    "There have been a structural modification made that " +
+                            " might cause the current operation to give incorrect results."
+            );
+        }
+    }
+
+    /**
+     * Adds the value at the head of its chain unless it is already there, without resizing or counting it
+     *
+     * @return true if the value was added
+     */
+    private boolean insertIfAbsent(int value) {
+        int index = indexFor(value, heads.length);
+        for (int node = heads[index]; node != 0; node = next[node]) {
+            if (keys[node] == value) {
+                return false;
+            }
+        }
+        int node = allocateNode();
+        keys[node] = value;
+        next[node] = heads[index];
+        heads[index] = node;
+        return true;
+    }
+
+    /**
+     * Removes the value from its chain and frees its node, without resizing or counting it
+     *
+     * @return true if the value was in the table
+     */
+    private boolean unlink(int value) {
+        int index = indexFor(value, heads.length);
+        int previous = 0;
+        for (int node = heads[index]; node != 0; previous = node, node = next[node]) {
+            if (keys[node] == value) {
+                if (previous == 0) {
+                    heads[index] = next[node];
+                } else {
+                    next[previous] = next[node];
+                }
+                next[node] = freeList;
+                freeList = node;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a node taken from the free list, or the first node never used, growing the pool if it is full
+     */
+    private int allocateNode() {
+        if (freeList != 0) {
+            int node = freeList;
+            freeList = next[node];
+            return node;
+        }
+        if (nodeCount == keys.length) {
+            if (keys.length == MAX_POOL) {
+                throw new IllegalStateException("The table can't hold more values");
+            }
+            int length = (int) Math.min(keys.length + (keys.length >> 1) + 1L, MAX_POOL);
+            keys = Arrays.copyOf(keys, length);
+            next = Arrays.copyOf(next, length);
+        }
+        return nodeCount++;
+    }
+
+    /**
+     * @return the length of the pool arrays for a table of the given capacity. They hold the values and the
+     * expected size, or a node per bucket, but never more than the table holds before it grows. With a large
+     * maximum load factor the rest is left to {@link #allocateNode()}.
+     */
+    private int poolLengthFor(int capacity) {
+        double limit = Math.ceil(capacity * sizing.maxLoadFactor());
+        long wanted = Math.max(Math.max(size, sizing.expectedSize()), capacity);
+        long nodes = Math.max((long) Math.min(limit, wanted), size) + 1;
+        return (int) Math.min(nodes, MAX_POOL);
+    }
+
+    /**
+     * Moves the values to a table of the given capacity. The new pool holds them in the order of the new
+     * buckets, without any free nodes.
+     */
+    private void rehash(int newCapacity) {
+        int[] newHeads = new int[newCapacity];
+        int[] newKeys = new int[poolLengthFor(newCapacity)];
+        int[] newNext = new int[newKeys.length];
+        int count = 1;
+        for (int head : heads) {
+            for (int node = head; node != 0; node = next[node]) {
+                int index = indexFor(keys[node], newCapacity);
+                newKeys[count] = keys[node];
+                newNext[count] = newHeads[index];
+                newHeads[index] = count++;
+            }
+        }
+        heads = newHeads;
+        keys = newKeys;
+        next = newNext;
+        nodeCount = count;
+        freeList = 0;
+    }
+
+    /**
+     * @return the capacity, grown from the current one, at which the given number of values stays
+     * below the maximum load factor
+     */
+    private int capacityFor(long values) {
+        int capacity = heads.length;
+        while (values >= capacity * sizing.maxLoadFactor() && capacity <= MAX_CAPACITY / sizing.growthFactor()) {
+            capacity *= sizing.growthFactor();
+        }
+        return capacity;
+    }
+
+    /**
+     * Shrinks the table in one step as far as its sizing policy allows
+     */
+    private void shrinkToFit() {
+        int capacity = heads.length;
+        while (capacity / sizing.growthFactor() >= sizing.minCapacity()
+                && (double) size / capacity <= sizing.minLoadFactor()) {
+            capacity /= sizing.growthFactor();
+        }
+        if (capacity != heads.length) {
+            rehash(capacity);
+        }
+    }
+
+    private boolean checkResize() {
+        return (double) size / heads.length >= sizing.maxLoadFactor() && heads.length <= MAX_CAPACITY / sizing.growthFactor();
+    }
+
+    /**
+     * The table is never shrunk below the minimum capacity of its sizing policy
+     */
+    private boolean checkShrink() {
+        return heads.length / sizing.growthFactor() >= sizing.minCapacity()
+                && ((double) size / heads.length) <= sizing.minLoadFactor();
+    }
+
+    /**
+     * Removes the value of a node returned by an iterator. The table isn't shrunk, so the iteration
+     * can continue from the same position.
+     */
+    private void removeIterated(int node) {
+        unlink(keys[node]);
+        --size;
+        ++modCount;
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new ChainIterator();
+    }
+
+    @Override
+    public IntIterator intIterator() {
+        return new ChainIterator();
+    }
+
+    /**
+     * @return Returns a reverse iterator, iterating the elements of the hashmap in reverse order.
+     */
+    @Override
+    public ReverseIterator reverseIterator() {
+        return new ChainReverseIterator();
+    }
+
+    @Override
+    public PrimitiveReverseIterator primitiveReverseIterator() {
+        return new ChainReverseIterator();
+    }
+
+    /**
+     * @return a late-binding, fail-fast spliterator which splits the buckets into halves. Only a spliterator
+     * which wasn't split knows its exact size, the others estimate it from their share of the buckets.
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return new BucketSpliterator(0, -1, 0, 0);
+    }
+
+    private class BucketSpliterator implements Spliterator.OfInt {
+        private int index;
+        private int fence;
+        private int estimate;
+        private int expectedModCount;
+        private int current;
+
+        /**
+         * @param fence the bucket after the last one, -1 to bind to the table on first use
+         */
+        BucketSpliterator(int origin, int fence, int estimate, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+            this.current = 0;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                fence = heads.length;
+                estimate = size;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int high = getFence();
+            int low = index;
+            int middle = (low + high) >>> 1;
+            if (low >= middle || current != 0) {
+                return null;
+            }
+            index = middle;
+            estimate >>>= 1;
+            return new BucketSpliterator(low, middle, estimate, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int high = getFence();
+            checkWhetherModCountHasNotChanged();
+            while (current == 0 && index < high) {
+                current = heads[index++];
+            }
+            if (current == 0) {
+                return false;
+            }
+            int value = keys[current];
+            current = next[current];
+            action.accept(value);
+            checkWhetherModCountHasNotChanged();
+            return true;
+        }
+
+        /**
+         * Walks the remaining chains, the modification count is checked once, after the scan
+         */
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int high = getFence();
+            checkWhetherModCountHasNotChanged();
+            int[] buckets = heads;
+            for (int node = current; node != 0; node = next[node]) {
+                action.accept(keys[node]);
+            }
+            for (int i = index; i < high && modCount == expectedModCount; i++) {
+                for (int node = buckets[i]; node != 0; node = next[node]) {
+                    action.accept(keys[node]);
+                }
+            }
+            current = 0;
+            index = high;
+            checkWhetherModCountHasNotChanged();
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence();
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return (fence < 0 || estimate == size ? Spliterator.SIZED : 0) | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        private void checkWhetherModCountHasNotChanged() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+    }
+
+    /**
+     * Walks the buckets in ascending order and each chain from its head
+     */
+    private class ChainIterator implements IntIterator {
+        private int visited;
+        private int bucket;
+        private int node;
+        private int lastReturned;
+        private int lastModCount;
+
+        ChainIterator() {
+            visited = 0;
+            bucket = -1;
+            node = 0;
+            lastReturned = 0;
+            lastModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkWhetherModCountHasNotChanged();
+            return visited < size;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            while (node == 0) {
+                node = heads[++bucket];
+            }
+            lastReturned = node;
+            node = next[node];
+            ++visited;
+            return keys[lastReturned];
+        }
+
+        /**
+         * @throws IllegalStateException if the {@code next} method has not yet been called,
+         *                               or the remove method has already been called after the last call to the next method.
+         */
+        @Override
+        public void remove() {
+            checkWhetherModCountHasNotChanged();
+            if (lastReturned == 0) {
+                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+            }
+            removeIterated(lastReturned);
+            --visited;
+            lastReturned = 0;
+            lastModCount = modCount;
+        }
+
+        /**
+         * Walks the remaining chains, the modification count is checked once, after the scan
+         */
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            checkWhetherModCountHasNotChanged();
+            int[] buckets = heads;
+            while (visited < size && lastModCount == modCount) {
+                while (node == 0 && bucket + 1 < buckets.length) {
+                    node = buckets[++bucket];
+                }
+                if (node == 0) {
+                    break;
+                }
+                lastReturned = node;
+                node = next[node];
+                ++visited;
+                action.accept(keys[lastReturned]);
+            }
+            checkWhetherModCountHasNotChanged();
+        }
+
+        private void checkWhetherModCountHasNotChanged() {
+            if (modCount != lastModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+    }
+
+    /**
+     * Walks the buckets in descending order and each chain from its head
+     */
+    private class ChainReverseIterator implements PrimitiveReverseIterator {
+        private int visited;
+        private int bucket;
+        private int node;
+        private int lastReturned;
+        private int lastModCount;
+
+        ChainReverseIterator() {
+            visited = 0;
+            bucket = heads.length;
+            node = 0;
+            lastReturned = 0;
+            lastModCount = modCount;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            checkWhetherModCountHasNotChanged();
+            return visited < size;
+        }
+
+        @Override
+        public int previousInt() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no previous element");
+            }
+            while (node == 0) {
+                node = heads[--bucket];
+            }
+            lastReturned = node;
+            node = next[node];
+            ++visited;
+            return keys[lastReturned];
+        }
+
+        /**
+         * @throws IllegalStateException if the {@code previous} method has not yet been called,
+         *                               or the remove method has already been called after the last call to the previous method.
+         */
+        @Override
+        public void remove() {
+            checkWhetherModCountHasNotChanged();
+            if (lastReturned == 0) {
+                throw new IllegalStateException("Previous wasn't called or remove was already called after the last previous");
+            }
+            removeIterated(lastReturned);
+            --visited;
+            lastReturned = 0;
+            lastModCount = modCount;
+        }
+
+        /**
+         * Walks the remaining chains, the modification count is checked once, after the scan
+         */
+        @Override
+        public void forEachRemainingInt(IntConsumer action) {
+            Objects.requireNonNull(action);
+            checkWhetherModCountHasNotChanged();
+            int[] buckets = heads;
+            while (visited < size && lastModCount == modCount) {
+                while (node == 0 && bucket > 0) {
+                    node = buckets[--bucket];
+                }
+                if (node == 0) {
+                    break;
+                }
+                lastReturned = node;
+                node = next[node];
+                ++visited;
+                action.accept(keys[lastReturned]);
+            }
+            checkWhetherModCountHasNotChanged();
+        }
+
+        private void checkWhetherModCountHasNotChanged() {
+            if (modCount != lastModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,398 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Thread-safe hash table splitting the values between independently locked segments.
+ * <p>
+ * Every segment is a regular (not thread-safe) engine, {@link LinearProbingHashTable} by default,
+ * guarded by its own {@link StampedLock}. The segment of a value is chosen by the high bits of its
+ * Fibonacci-mixed hash, while the engines index their slots by the hash itself, so both choices stay
+ * independent. Writers lock only their segment, so threads working on different segments don't
+ * wait for each other.
+ * <p>
+ * {@link #contains} first runs as an optimistic read, without locking. If a writer changed the segment
+ * in the meantime, or the read failed because it saw the engine in the middle of a change, it is repeated
+ * under the read lock. Engines used as segments must therefore finish (or throw) a lookup even if their
+ * arrays change during it. The probing engines of this project publish resized arrays only once they are
+ * initialized and stop a probe at an empty slot or after a bounded number of steps, the chaining engines
+ * follow links which always end when no writer is running.
+ * <p>
+ * Iterators are weakly consistent: they never throw {@link java.util.ConcurrentModificationException}.
+ * Each segment is copied under its read lock when the iterator reaches it, so the iterator returns every
+ * value present during the whole iteration, and may or may not return values added or removed meanwhile.
+ */
+public class ConcurrentStripedHashTable extends AbstractHashTable {
+    public static final int DEFAULT_SEGMENTS = 64;
+
+    private volatile Segment[] segments;
+    private Function<IntHashFunction, ? extends HashTable> engineFactory;
+
+    public ConcurrentStripedHashTable() {
+        this(HashFunctions::customHash, DEFAULT_SEGMENTS, LinearProbingHashTable::new);
+    }
+
+    public ConcurrentStripedHashTable(IntHashFunction hashFunction) {
+        this(hashFunction, DEFAULT_SEGMENTS, LinearProbingHashTable::new);
+    }
+
+    public ConcurrentStripedHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    /**
+     * @param hashFunction  the function used for hashing the values, it may return any int
+     * @param segmentCount  the number of segments, rounded up to a power of two, not less than 2.
+     *                      About the number of threads expected to modify the table at the same time.
+     * @param engineFactory creates the table backing a segment from the hash function
+     * @throws IllegalArgumentException if the segment count is not positive or the factory is null
+     */
+    public ConcurrentStripedHashTable(IntHashFunction hashFunction, int segmentCount,
+                                      Function<IntHashFunction, ? extends HashTable> engineFactory) {
+        super(hashFunction, IndexingMode.FIBONACCI);
+        if (segmentCount <= 0 || segmentCount > 1 << 30) {
+            throw new IllegalArgumentException("The segment count must be between 1 and 2^30: " + segmentCount);
+        }
+        if (engineFactory == null) {
+            throw new IllegalArgumentException("The engine factory is null!");
+        }
+        this.engineFactory = engineFactory;
+        segments = createSegments(Math.max(2, Integer.highestOneBit(segmentCount - 1) << 1));
+    }
+
+    private Segment[] createSegments(int count) {
+        Segment[] created = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            created[i] = new Segment(engineFactory.apply(hash));
+        }
+        return created;
+    }
+
+    /**
+     * The counts of the segments are summed without locking, so while the table is modified
+     * the result may not match any state the table was in
+     */
+    @Override
+    public int size() {
+        int sum = 0;
+        for (Segment segment : segments) {
+            sum += segment.count;
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean empty() {
+        for (Segment segment : segments) {
+            if (segment.count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears the segments one by one, values added to already cleared segments meanwhile are kept
+     */
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            long stamp = segment.lock.writeLock();
+            try {
+                segment.table.clear();
+                segment.count = 0;
+            } finally {
+                segment.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Not atomic: operations running on either table during the swap may apply to any of them
+     */
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof ConcurrentStripedHashTable stripedOther) {
+            swap(stripedOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(ConcurrentStripedHashTable other) {
+        Segment[] tempSegments = segments;
+        segments = other.segments;
+        other.segments = tempSegments;
+
+        Function<IntHashFunction, ? extends HashTable> tempFactory = engineFactory;
+        engineFactory = other.engineFactory;
+        other.engineFactory = tempFactory;
+
+        IntHashFunction tempFunc = hash;
+        hash = other.hash;
+        other.hash = tempFunc;
+    }
+
+    private void swapContent(HashTable other) {
+        ConcurrentStripedHashTable temp = new ConcurrentStripedHashTable(hash, segments.length, engineFactory);
+
+        for (Integer integer : other) {
+            temp.add(integer);
+        }
+
+        other.clear();
+        for (Integer integer : this) {
+            other.add(integer);
+        }
+
+        swap(temp);
+    }
+
+    @Override
+    public boolean add(int value) {
+        Segment segment = segmentFor(value);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (!segment.table.add(value)) {
+                return false;
+            }
+            ++segment.count;
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(int value) {
+        Segment segment = segmentFor(value);
+        long stamp = segment.lock.writeLock();
+        try {
+            if (!segment.table.remove(value)) {
+                return false;
+            }
+            --segment.count;
+            return true;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean contains(int value) {
+        Segment segment = segmentFor(value);
+        StampedLock lock = segment.lock;
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                boolean found = segment.table.contains(value);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            } catch (RuntimeException e) {
+                // the engine was read in the middle of a change, the read is repeated under the lock
+            }
+        }
+
+        stamp = lock.readLock();
+        try {
+            return segment.table.contains(value);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Segment segmentFor(int value) {
+        Segment[] current = segments;
+        return current[indexFor(value, current.length)];
+    }
+
+    /**
+     * @return a spliterator of unknown size over the iterator, which is weakly consistent, so the size of
+     * the table when the stream starts isn't reported as exact
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliteratorUnknownSize(intIterator(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /**
+     * @return a weakly consistent iterator, it never throws {@link java.util.ConcurrentModificationException}
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new SegmentIterator();
+    }
+
+    /**
+     * @return a weakly consistent reverse iterator, it never throws {@link java.util.ConcurrentModificationException}
+     */
+    @Override
+    public ReverseIterator reverseIterator() {
+        return new SegmentReverseIterator();
+    }
+
+    private static final class Segment {
+        final StampedLock lock = new StampedLock();
+        final HashTable table;
+
+        /**
+         * Number of values in the segment, written under the write lock and read without locking
+         */
+        volatile int count;
+
+        Segment(HashTable table) {
+            this.table = table;
+        }
+
+        /**
+         * @return the values of the segment, copied under the read lock
+         */
+        int[] snapshot() {
+            long stamp = lock.readLock();
+            try {
+                int[] values = new int[table.size()];
+                int index = 0;
+                for (Integer value : table) {
+                    values[index++] = value;
+                }
+                return values;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    private class SegmentIterator implements Iterator<Integer> {
+        private final Segment[] iterated;
+        private int segment;
+        private int[] values;
+        private int index;
+        private Integer lastReturned;
+
+        SegmentIterator() {
+            iterated = segments;
+            segment = -1;
+            values = new int[0];
+            index = 0;
+            lastReturned = null;
+        }
+
+        /**
+         * Returns {@code true} if the iteration has more elements.
+         * (In other words, returns {@code true} if {@link #next} would
+         * return an element rather than throwing an exception.)
+         *
+         * @return {@code true} if the iteration has more elements
+         */
+        @Override
+        public boolean hasNext() {
+            while (index == values.length && segment + 1 < iterated.length) {
+                values = iterated[++segment].snapshot();
+                index = 0;
+            }
+            return index < values.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            lastReturned = values[index++];
+            return lastReturned;
+        }
+
+        /**
+         * Removes from the table the last element returned by this iterator.
+         * This method can be called only once per call to {@link #next}.
+         *
+         * @throws IllegalStateException if the {@code next} method has not
+         *                               yet been called, or the {@code remove} method has already
+         *                               been called after the last call to the {@code next}
+         *                               method
+         */
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+            }
+            ConcurrentStripedHashTable.this.remove(lastReturned);
+            lastReturned = null;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                action.accept(next());
+            }
+        }
+    }
+
+    private class SegmentReverseIterator implements ReverseIterator {
+        private final Segment[] iterated;
+        private int segment;
+        private int[] values;
+        private int index;
+        private Integer lastReturned;
+
+        SegmentReverseIterator() {
+            iterated = segments;
+            segment = iterated.length;
+            values = new int[0];
+            index = 0;
+            lastReturned = null;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            while (index == 0 && segment > 0) {
+                values = iterated[--segment].snapshot();
+                index = values.length;
+            }
+            return index > 0;
+        }
+
+        @Override
+        public Integer previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            lastReturned = values[--index];
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("Previous wasn't called or remove was already called after the last previous");
+            }
+            ConcurrentStripedHashTable.this.remove(lastReturned);
+            lastReturned = null;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Objects.requireNonNull(action);
+            while (hasPrevious()) {
+                action.accept(previous());
+            }
+        }
+    }
+}
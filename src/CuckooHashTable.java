@@ -0,0 +1,396 @@
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Hash table using bucketized cuckoo hashing.
+ * <p>
+ * Every value may live in one of two buckets, chosen by two seeded hashes
+ * ({@link HashFunctions#seededHash}) of its hash. A bucket holds {@link #SLOTS_PER_BUCKET} values,
+ * filling one 64 byte cache line, and keeps them packed at its beginning. When both buckets of a new
+ * value are full, a random value is evicted from one of them and moved to its other bucket, possibly
+ * evicting another one, and so on. A value that can't be placed this way goes to a small stash.
+ * When the stash is full as well, the table is rebuilt with new seeds.
+ * <p>
+ * As a result {@link #contains} inspects at most two buckets and the stash.
+ */
+public class CuckooHashTable extends OpenAddressingHashTable {
+    public static final int SLOTS_PER_BUCKET = 16;
+    public static final double MAX_LOAD_FACTOR = 0.9;
+    public static final double MIN_LOAD_FACTOR = 0.2;
+    public static final int STASH_SIZE = 4;
+
+    /**
+     * Evictions tried before a value is put in the stash
+     */
+    private static final int MAX_KICKS = 256;
+
+    /**
+     * Rebuilds with new seeds tried before the table grows
+     */
+    private static final int MAX_REHASHES = 4;
+    private static final int DEFAULT_BUCKETS = 2;
+
+    private int[] table;
+
+    /**
+     * Number of values in each bucket, they occupy its first slots
+     */
+    private byte[] counts;
+    private int[] stash;
+    private int stashSize;
+    private int seed1;
+    private int seed2;
+    private final SplittableRandom random;
+
+    /**
+     * The value left without a slot by the last failed {@link #place}
+     */
+    private int homeless;
+
+    public CuckooHashTable() {
+        random = new SplittableRandom();
+        init(DEFAULT_BUCKETS, STASH_SIZE);
+    }
+
+    public CuckooHashTable(IntHashFunction hashFunction) {
+        super(hashFunction);
+        random = new SplittableRandom();
+        init(DEFAULT_BUCKETS, STASH_SIZE);
+    }
+
+    public CuckooHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    private void init(int buckets, int stashCapacity) {
+        table = new int[buckets * SLOTS_PER_BUCKET];
+        counts = new byte[buckets];
+        stash = new int[stashCapacity];
+        stashSize = 0;
+        seed1 = random.nextInt();
+        seed2 = random.nextInt();
+    }
+
+    @Override
+    public void clear() {
+        init(DEFAULT_BUCKETS, STASH_SIZE);
+        modCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof CuckooHashTable cuckooOther) {
+            swap(cuckooOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(CuckooHashTable other) {
+        int[] tempArray = table;
+        table = other.table;
+        other.table = tempArray;
+
+        byte[] tempCounts = counts;
+        counts = other.counts;
+        other.counts = tempCounts;
+
+        tempArray = stash;
+        stash = other.stash;
+        other.stash = tempArray;
+
+        IntHashFunction tempFunc = hash;
+        hash = other.hash;
+        other.hash = tempFunc;
+
+        int temp = stashSize;
+        stashSize = other.stashSize;
+        other.stashSize = temp;
+
+        temp = seed1;
+        seed1 = other.seed1;
+        other.seed1 = temp;
+
+        temp = seed2;
+        seed2 = other.seed2;
+        other.seed2 = temp;
+
+        temp = size;
+        size = other.size;
+        other.size = temp;
+
+        temp = modCount;
+        modCount = other.modCount;
+        other.modCount = temp;
+    }
+
+    private void swapContent(HashTable other) {
+        CuckooHashTable temp = new CuckooHashTable();
+
+        for (Integer integer : other) {
+            temp.add(integer);
+        }
+
+        other.clear();
+        for (Integer integer : this) {
+            other.add(integer);
+        }
+
+        swap(temp);
+    }
+
+    @Override
+    public boolean add(int value) {
+        if (contains(value)) {
+            return false;
+        }
+
+        if (!place(value)) {
+            rehash(counts.length, homeless);
+        }
+        ++size;
+
+        if (checkResize()) {
+            rehash(counts.length * RESIZE_FACTOR);
+        }
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Puts the value in one of its buckets, evicting other values if needed, or in the stash.
+     *
+     * @return true if every value got a slot, otherwise the value left without one is in {@link #homeless}
+     */
+    private boolean place(int value) {
+        int bucket = firstBucket(value);
+        int secondBucket = secondBucket(value);
+        if (putInBucket(bucket, value) || putInBucket(secondBucket, value)) {
+            return true;
+        }
+
+        if (random.nextBoolean()) {
+            bucket = secondBucket;
+        }
+        for (int kick = 0; kick < MAX_KICKS; ++kick) {
+            int slot = bucket * SLOTS_PER_BUCKET + random.nextInt(SLOTS_PER_BUCKET);
+            int evicted = table[slot];
+            table[slot] = value;
+            value = evicted;
+
+            int alternative = firstBucket(value);
+            if (alternative == bucket) {
+                alternative = secondBucket(value);
+            }
+            if (putInBucket(alternative, value)) {
+                return true;
+            }
+            bucket = alternative;
+        }
+
+        if (stashSize < stash.length) {
+            stash[stashSize++] = value;
+            return true;
+        }
+        homeless = value;
+        return false;
+    }
+
+    private boolean putInBucket(int bucket, int value) {
+        int count = counts[bucket];
+        if (count == SLOTS_PER_BUCKET) {
+            return false;
+        }
+        table[bucket * SLOTS_PER_BUCKET + count] = value;
+        counts[bucket] = (byte) (count + 1);
+        return true;
+    }
+
+    private boolean checkResize() {
+        return ((double) size / table.length) >= MAX_LOAD_FACTOR;
+    }
+
+    /**
+     * The table is never shrunk below its default capacity
+     */
+    private boolean checkShrink() {
+        return counts.length > DEFAULT_BUCKETS && ((double) size / table.length) <= MIN_LOAD_FACTOR;
+    }
+
+    private void rehash(int buckets) {
+        rehash(buckets, toArray(0), size);
+    }
+
+    private void rehash(int buckets, int extraValue) {
+        int[] values = toArray(1);
+        values[size] = extraValue;
+        rehash(buckets, values, size + 1);
+    }
+
+    /**
+     * Rebuilds the table with new seeds until all values fit. After {@link #MAX_REHASHES} failed attempts
+     * the table grows, unless it is mostly empty - then the values must share their hashes and
+     * growing wouldn't help, so the stash grows instead.
+     */
+    private void rehash(int buckets, int[] values, int count) {
+        int stashCapacity = stash.length;
+        for (int attempt = 1; ; ++attempt) {
+            init(buckets, stashCapacity);
+            if (placeAll(values, count)) {
+                return;
+            }
+            if (attempt % MAX_REHASHES == 0) {
+                if (count >= buckets * SLOTS_PER_BUCKET * MIN_LOAD_FACTOR) {
+                    buckets *= RESIZE_FACTOR;
+                } else {
+                    stashCapacity *= 2;
+                }
+            }
+        }
+    }
+
+    private boolean placeAll(int[] values, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!place(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param extraSlots number of free slots left at the end of the array
+     * @return array starting with all values of the table
+     */
+    private int[] toArray(int extraSlots) {
+        int[] values = new int[size + extraSlots];
+        int index = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            int start = bucket * SLOTS_PER_BUCKET;
+            for (int slot = start; slot < start + counts[bucket]; slot++) {
+                values[index++] = table[slot];
+            }
+        }
+        for (int i = 0; i < stashSize; i++) {
+            values[index++] = stash[i];
+        }
+        return values;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!removeWithoutResizing(value)) {
+            return false;
+        }
+        if (checkShrink()) {
+            rehash(counts.length / RESIZE_FACTOR);
+        }
+        return true;
+    }
+
+    /**
+     * Removing through an iterator doesn't shrink the table, so the iterator can continue over the same slots
+     */
+    @Override
+    protected boolean removeIterated(int value) {
+        removeWithoutResizing(value);
+        return false;
+    }
+
+    private boolean removeWithoutResizing(int value) {
+        if (!removeFromBucket(firstBucket(value), value)
+                && !removeFromBucket(secondBucket(value), value)
+                && !removeFromStash(value)) {
+            return false;
+        }
+        --size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Removes the value by moving the last value of the bucket in its place
+     */
+    private boolean removeFromBucket(int bucket, int value) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        int last = start + counts[bucket] - 1;
+        for (int slot = start; slot <= last; slot++) {
+            if (table[slot] == value) {
+                table[slot] = table[last];
+                --counts[bucket];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeFromStash(int value) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stash[i] == value) {
+                stash[i] = stash[--stashSize];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        return bucketContains(firstBucket(value), value)
+                || bucketContains(secondBucket(value), value)
+                || (stashSize > 0 && stashContains(value));
+    }
+
+    private boolean bucketContains(int bucket, int value) {
+        int start = bucket * SLOTS_PER_BUCKET;
+        int end = start + counts[bucket];
+        for (int slot = start; slot < end; slot++) {
+            if (table[slot] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean stashContains(int value) {
+        for (int i = 0; i < stashSize; i++) {
+            if (stash[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int firstBucket(int value) {
+        return HashFunctions.seededHash(hash.hash(value), seed1) & (counts.length - 1);
+    }
+
+    private int secondBucket(int value) {
+        return HashFunctions.seededHash(hash.hash(value), seed2) & (counts.length - 1);
+    }
+
+    /**
+     * The slots of the buckets are followed by the slots of the stash
+     */
+    @Override
+    protected int slotCount() {
+        return table.length + stashSize;
+    }
+
+    @Override
+    protected boolean isOccupied(int slot) {
+        if (slot >= table.length) {
+            return slot - table.length < stashSize;
+        }
+        return slot % SLOTS_PER_BUCKET < counts[slot / SLOTS_PER_BUCKET];
+    }
+
+    @Override
+    protected int valueAt(int slot) {
+        return slot < table.length ? table[slot] : stash[slot - table.length];
+    }
+}
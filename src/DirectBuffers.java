@@ -0,0 +1,44 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Releases direct and mapped byte buffers right away instead of waiting for the garbage collector.
+ * Uses {@code sun.misc.Unsafe.invokeCleaner} when the running JVM offers it, otherwise the buffers
+ * are left to the garbage collector. A freed buffer must never be accessed again.
+ */
+final class DirectBuffers {
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private DirectBuffers() {
+    }
+
+    static void free(ByteBuffer... buffers) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        for (ByteBuffer buffer : buffers) {
+            try {
+                INVOKE_CLEANER.invokeExact(buffer);
+            } catch (Throwable e) {
+                // the buffer is left to the garbage collector
+                return;
+            }
+        }
+    }
+
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,421 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Thread-safe wrapper applying the operations of all threads to a single (not thread-safe) engine
+ * by flat combining.
+ * <p>
+ * A thread finding the combiner lock free applies its operation right away. Otherwise it writes the
+ * operation to its publication record, kept in a list shared by all threads, and retries taking the lock.
+ * The thread holding the lock walks the list and applies all posted operations in one batch, writing each
+ * result back to its record, while the other threads spin on their own record until it is served.
+ * When many threads hammer the same few values, a single thread works on the engine with hot caches
+ * instead of the lock moving between cores for every operation.
+ * <p>
+ * Records of threads that haven't posted anything for {@link #RECORD_MAX_AGE} combining passes are unlinked
+ * from the list, and linked again when their thread comes back. Operations other than add, remove and
+ * contains run under the combiner lock directly. Iterators are weakly consistent: they walk a copy
+ * of the values taken under the lock and never throw {@link java.util.ConcurrentModificationException}.
+ */
+public class FlatCombiningHashTable extends AbstractHashTable {
+    /**
+     * Number of combining passes a record may stay unused before it is unlinked
+     */
+    public static final int RECORD_MAX_AGE = 1000;
+
+    /**
+     * Passes over the records a combiner makes at most before releasing the lock
+     */
+    private static final int COMBINING_PASSES = 4;
+
+    private static final int ADD = 1;
+    private static final int REMOVE = 2;
+    private static final int CONTAINS = 3;
+
+    private HashTable engine;
+    private final ReentrantLock combinerLock = new ReentrantLock();
+    private final AtomicReference<Record> records = new AtomicReference<>();
+    private final ThreadLocal<Record> ownRecord = ThreadLocal.withInitial(Record::new);
+
+    /**
+     * Number of combining passes made, used to age the records
+     */
+    private int passes;
+
+    public FlatCombiningHashTable() {
+        this(new LinearProbingHashTable());
+    }
+
+    public FlatCombiningHashTable(IntHashFunction hashFunction) {
+        this(new LinearProbingHashTable(hashFunction));
+    }
+
+    public FlatCombiningHashTable(Function<Integer, Integer> hashFunction) {
+        this(new LinearProbingHashTable(hashFunction));
+    }
+
+    /**
+     * @param engine the table the operations are applied to, it must not be used directly afterwards
+     * @throws IllegalArgumentException if the engine is null
+     */
+    public FlatCombiningHashTable(HashTable engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("The engine is null!");
+        }
+        this.engine = engine;
+    }
+
+    @Override
+    public int size() {
+        combinerLock.lock();
+        try {
+            return engine.size();
+        } finally {
+            combinerLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean empty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        combinerLock.lock();
+        try {
+            engine.clear();
+        } finally {
+            combinerLock.unlock();
+        }
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof FlatCombiningHashTable combiningOther) {
+            swap(combiningOther);
+        } else {
+            combinerLock.lock();
+            try {
+                engine.swap(other);
+            } finally {
+                combinerLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The locks of both tables are taken in the same order whichever table the method is called on,
+     * so two threads swapping the same tables can't deadlock
+     */
+    private void swap(FlatCombiningHashTable other) {
+        if (other == this) {
+            return;
+        }
+        boolean thisFirst = System.identityHashCode(this) <= System.identityHashCode(other);
+        ReentrantLock first = thisFirst ? combinerLock : other.combinerLock;
+        ReentrantLock second = thisFirst ? other.combinerLock : combinerLock;
+        first.lock();
+        second.lock();
+        try {
+            HashTable tempEngine = engine;
+            engine = other.engine;
+            other.engine = tempEngine;
+        } finally {
+            second.unlock();
+            first.unlock();
+        }
+    }
+
+    @Override
+    public boolean add(int value) {
+        return execute(ADD, value);
+    }
+
+    @Override
+    public boolean remove(int value) {
+        return execute(REMOVE, value);
+    }
+
+    @Override
+    public boolean contains(int value) {
+        return execute(CONTAINS, value);
+    }
+
+    /**
+     * Applies the operation right away if the combiner lock is free, otherwise posts it to the record
+     * of the current thread and waits until some combiner, possibly this thread, has applied it
+     */
+    private boolean execute(int operation, int value) {
+        if (combinerLock.tryLock()) {
+            try {
+                boolean result = apply(operation, value);
+                combine();
+                return result;
+            } finally {
+                combinerLock.unlock();
+            }
+        }
+
+        Record record = ownRecord.get();
+        record.operation = operation;
+        record.value = value;
+        record.pending = true;
+
+        for (int attempt = 0; ; ++attempt) {
+            if (!record.linked) {
+                link(record);
+            }
+            for (int spins = 0; spins < 64 && record.pending; spins++) {
+                Thread.onSpinWait();
+            }
+            if (!record.pending) {
+                return record.result;
+            }
+            if (combinerLock.tryLock()) {
+                try {
+                    // the record might have been unlinked right after the check above
+                    if (record.pending) {
+                        serve(record);
+                    }
+                    combine();
+                } finally {
+                    combinerLock.unlock();
+                }
+                return record.result;
+            }
+            if (attempt >= 16) {
+                // the combiner may be waiting for a core
+                Thread.yield();
+            }
+        }
+    }
+
+    private void link(Record record) {
+        record.linked = true;
+        Record head;
+        do {
+            head = records.get();
+            record.next = head;
+        } while (!records.compareAndSet(head, record));
+    }
+
+    /**
+     * Applies the posted operations, called under the combiner lock
+     */
+    private void combine() {
+        for (int pass = 0; pass < COMBINING_PASSES; pass++) {
+            ++passes;
+            boolean served = false;
+            Record previous = null;
+            for (Record record = records.get(); record != null; ) {
+                // read before unlinking, the owner may link the record again at the head right after
+                Record following = record.next;
+                if (record.pending) {
+                    serve(record);
+                    served = true;
+                } else if (previous != null && passes - record.lastUsed > RECORD_MAX_AGE) {
+                    // only records after the head are unlinked, new records are pushed concurrently at the head
+                    previous.next = following;
+                    record.linked = false;
+                    record = following;
+                    continue;
+                }
+                previous = record;
+                record = following;
+            }
+            if (!served) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Record record) {
+        record.result = apply(record.operation, record.value);
+        record.lastUsed = passes;
+        record.pending = false;
+    }
+
+    private boolean apply(int operation, int value) {
+        return switch (operation) {
+            case ADD -> engine.add(value);
+            case REMOVE -> engine.remove(value);
+            default -> engine.contains(value);
+        };
+    }
+
+    /**
+     * @return the values of the table, copied under the combiner lock
+     */
+    private int[] snapshot() {
+        combinerLock.lock();
+        try {
+            int[] values = new int[engine.size()];
+            int index = 0;
+            for (Integer value : engine) {
+                values[index++] = value;
+            }
+            return values;
+        } finally {
+            combinerLock.unlock();
+        }
+    }
+
+    /**
+     * @return a spliterator over a copy of the values, like the iterators, which splits it into exactly sized halves
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(snapshot(), Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new SnapshotIterator();
+    }
+
+    @Override
+    public ReverseIterator reverseIterator() {
+        return new SnapshotReverseIterator();
+    }
+
+    /**
+     * The operation posted by a thread and its result. The operation and the value are written
+     * before {@link #pending} is set, the result before it is cleared, so reading it publishes them.
+     */
+    private static final class Record {
+        int operation;
+        int value;
+        boolean result;
+        volatile boolean pending;
+
+        /**
+         * Whether the record is in the list, cleared by the combiner only after unlinking it
+         */
+        volatile boolean linked;
+        volatile Record next;
+
+        /**
+         * The combining pass that last served the record
+         */
+        int lastUsed;
+    }
+
+    private class SnapshotIterator implements Iterator<Integer> {
+        private final int[] values;
+        private int index;
+        private boolean canRemove;
+
+        SnapshotIterator() {
+            values = snapshot();
+            index = 0;
+            canRemove = false;
+        }
+
+        /**
+         * Returns {@code true} if the iteration has more elements.
+         * (In other words, returns {@code true} if {@link #next} would
+         * return an element rather than throwing an exception.)
+         *
+         * @return {@code true} if the iteration has more elements
+         */
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            canRemove = true;
+            return values[index++];
+        }
+
+        /**
+         * Removes from the table the last element returned by this iterator.
+         * This method can be called only once per call to {@link #next}.
+         *
+         * @throws IllegalStateException if the {@code next} method has not
+         *                               yet been called, or the {@code remove} method has already
+         *                               been called after the last call to the {@code next}
+         *                               method
+         */
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+            }
+            FlatCombiningHashTable.this.remove(values[index - 1]);
+            canRemove = false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                action.accept(next());
+            }
+        }
+    }
+
+    private class SnapshotReverseIterator implements ReverseIterator {
+        private final int[] values;
+        private int index;
+        private boolean canRemove;
+
+        SnapshotReverseIterator() {
+            values = snapshot();
+            index = values.length;
+            canRemove = false;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        @Override
+        public Integer previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            canRemove = true;
+            return values[--index];
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException("Previous wasn't called or remove was already called after the last previous");
+            }
+            FlatCombiningHashTable.this.remove(values[index]);
+            canRemove = false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Objects.requireNonNull(action);
+            while (hasPrevious()) {
+                action.accept(previous());
+            }
+        }
+    }
+}
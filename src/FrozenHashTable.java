@@ -0,0 +1,273 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable hash table built once from the values of another table, for tables that are only queried.
+ * <p>
+ * The values are packed into a single int array without any gaps, states, tombstones or node objects.
+ * They are grouped by bucket, and a second array holds where each bucket starts, so a lookup reads the
+ * start and the end of its bucket, then compares the few values between them. With {@link #BUCKET_SIZE}
+ * values per bucket on average the table takes about one byte per value on top of the values themselves.
+ * The bucket of a value is its mixed hash reduced by a multiplication ("fastrange"), so the number of
+ * buckets doesn't have to be a power of two.
+ * <p>
+ * All fields are final and the arrays are never changed after construction, so a frozen table can be
+ * shared between threads without any synchronization. Mutators throw {@link UnsupportedOperationException}.
+ */
+public final class FrozenHashTable implements HashTable {
+    /**
+     * Average number of values per bucket
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * The values, ordered by bucket
+     */
+    private final int[] values;
+
+    /**
+     * The values of bucket b are values[bucketStarts[b]] to values[bucketStarts[b + 1] - 1]
+     */
+    private final int[] bucketStarts;
+
+    private FrozenHashTable(int[] values, int[] bucketStarts) {
+        this.values = values;
+        this.bucketStarts = bucketStarts;
+    }
+
+    /**
+     * The source must not be modified while the frozen table is built.
+     *
+     * @param source the table whose values are copied
+     * @return an immutable table holding the values of the source
+     * @throws IllegalArgumentException if the source is null
+     */
+    public static FrozenHashTable from(HashTable source) {
+        if (source == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (source instanceof FrozenHashTable frozen) {
+            return frozen;
+        }
+
+        int size = source.size();
+        int buckets = Math.max(1, size / BUCKET_SIZE);
+        int[] values = new int[size];
+        int[] bucketStarts = new int[buckets + 1];
+
+        // counting sort by bucket: count the values of each bucket, turn the counts into ends, fill backwards
+        int[] bucketOfValue = new int[size];
+        int count = 0;
+        for (Integer value : source) {
+            values[count] = value;
+            bucketOfValue[count] = bucketOf(value, buckets);
+            ++bucketStarts[bucketOfValue[count] + 1];
+            ++count;
+        }
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+        int[] sorted = new int[size];
+        int[] next = Arrays.copyOf(bucketStarts, buckets);
+        for (int i = 0; i < size; i++) {
+            sorted[next[bucketOfValue[i]]++] = values[i];
+        }
+        return new FrozenHashTable(sorted, bucketStarts);
+    }
+
+    /**
+     * @return the bucket of the value, in [0, buckets)
+     */
+    private static int bucketOf(int value, int buckets) {
+        return (int) ((Integer.toUnsignedLong(HashFunctions.seededHash(value, 0)) * buckets) >>> 32);
+    }
+
+    /**
+     * @return this table, it is already frozen
+     */
+    @Override
+    public FrozenHashTable freeze() {
+        return this;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean empty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        int bucket = bucketOf(value, bucketStarts.length - 1);
+        int end = bucketStarts[bucket + 1];
+        for (int i = bucketStarts[bucket]; i < end; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a frozen table can't be modified
+     */
+    @Override
+    public void clear() {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a frozen table can't be modified
+     */
+    @Override
+    public void swap(HashTable other) {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a frozen table can't be modified
+     */
+    @Override
+    public boolean add(int value) {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, a frozen table can't be modified
+     */
+    @Override
+    public boolean remove(int value) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("A frozen hash table can't be modified");
+    }
+
+    @Override
+    public void forEachInt(IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        for (int value : values) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * @return a spliterator over the array of values, which splits it into exactly sized halves
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(values, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new FrozenIterator();
+    }
+
+    @Override
+    public IntIterator intIterator() {
+        return new FrozenIterator();
+    }
+
+    @Override
+    public ReverseIterator reverseIterator() {
+        return new FrozenReverseIterator();
+    }
+
+    @Override
+    public PrimitiveReverseIterator primitiveReverseIterator() {
+        return new FrozenReverseIterator();
+    }
+
+    private class FrozenIterator implements IntIterator {
+        private int index;
+
+        FrozenIterator() {
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            return values[index++];
+        }
+
+        /**
+         * @throws UnsupportedOperationException always, a frozen table can't be modified
+         */
+        @Override
+        public void remove() {
+            throw unsupported();
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            while (index < values.length) {
+                action.accept(values[index++]);
+            }
+        }
+    }
+
+    private class FrozenReverseIterator implements PrimitiveReverseIterator {
+        private int index;
+
+        FrozenReverseIterator() {
+            index = values.length;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        @Override
+        public int previousInt() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            return values[--index];
+        }
+
+        /**
+         * @throws UnsupportedOperationException always, a frozen table can't be modified
+         */
+        @Override
+        public void remove() {
+            throw unsupported();
+        }
+
+        @Override
+        public void forEachRemainingInt(IntConsumer action) {
+            Objects.requireNonNull(action);
+            while (index > 0) {
+                action.accept(values[--index]);
+            }
+        }
+    }
+}
@@ -28,4 +28,88 @@ public class HashFunctions {
     public static int absHash(int x) {
         return Math.abs(x);
     }
+
+    /**
+     * A family of hash functions, each seed selects a different member. Useful when a table needs
+     * several independent hashes of the same value or new hashes after a failed insertion.
+     * Uses the finalizer of MurmurHash3, so the result may be any int.
+     */
+    public static int seededHash(int x, int seed) {
+        x ^= seed * 0x9E3779B9;
+        x = ((x >>> 16) ^ x) * 0x85ebca6b;
+        x = ((x >>> 13) ^ x) * 0xc2b2ae35;
+        return (x >>> 16) ^ x;
+    }
+
+    /**
+     * Generates a minimal perfect hash function of the values of the table: each of them gets its own hash
+     * in [0, size). Other values get -1 or the hash of some value of the table.
+     *
+     * @param source the table whose values get the hashes, it must not be modified during the call
+     * @return the generated function
+     * @throws IllegalArgumentException if the source is null
+     */
+    public static MinimalPerfectHashFunction minimalPerfect(HashTable source) {
+        return MinimalPerfectHashFunction.of(source);
+    }
+
+    /**
+     * The hash functions above with stable ids, so that files written by a table can record
+     * the function they were hashed with and be read back with the same one
+     */
+    public enum Standard implements IntHashFunction {
+        CUSTOM(1) {
+            @Override
+            public int hash(int value) {
+                return customHash(value);
+            }
+        },
+        FNV(2) {
+            @Override
+            public int hash(int value) {
+                return FNVhash(value);
+            }
+        },
+        ABS(3) {
+            @Override
+            public int hash(int value) {
+                return absHash(value);
+            }
+        };
+
+        private final int id;
+
+        Standard(int id) {
+            this.id = id;
+        }
+
+        /**
+         * @return the id written to files, never 0
+         */
+        public int id() {
+            return id;
+        }
+
+        /**
+         * @param id the id of a function
+         * @return the function with the given id
+         * @throws IllegalArgumentException if no function has the id
+         */
+        public static Standard byId(int id) {
+            for (Standard function : values()) {
+                if (function.id == id) {
+                    return function;
+                }
+            }
+            throw new IllegalArgumentException("Unknown hash function id: " + id);
+        }
+
+        /**
+         * @param hashFunction any hash function
+         * @return the id of the function if it is one of these, 0 otherwise
+         */
+        public static int idOf(IntHashFunction hashFunction) {
+            return hashFunction instanceof Standard standard ? standard.id : 0;
+        }
+    }
 }
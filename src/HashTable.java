@@ -1,4 +1,12 @@
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 public interface HashTable extends Iterable<Integer> {
     /**
@@ -57,4 +65,298 @@ public interface HashTable extends Iterable<Integer> {
      * @return Returns a reverse iterator, iterating the elements of the hashmap in reverse order
      */
     ReverseIterator reverseIterator();
+
+    /**
+     * @return an iterator over the elements of this hash table which doesn't box them
+     * @implSpec Unboxes the elements returned by {@link #iterator()}
+     */
+    default IntIterator intIterator() {
+        Iterator<Integer> iterator = iterator();
+        return new IntIterator() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                return iterator.next();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
+
+    /**
+     * @return a reverse iterator over the elements of this hash table which doesn't box them
+     * @implSpec Unboxes the elements returned by {@link #reverseIterator()}
+     */
+    default PrimitiveReverseIterator primitiveReverseIterator() {
+        ReverseIterator iterator = reverseIterator();
+        return new PrimitiveReverseIterator() {
+            @Override
+            public boolean hasPrevious() {
+                return iterator.hasPrevious();
+            }
+
+            @Override
+            public int previousInt() {
+                return iterator.previous();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
+
+    /**
+     * @return a spliterator over the elements of this hash table which doesn't box them
+     * @implSpec Wraps {@link #intIterator()} and reports {@link #size()} as the exact size, so it splits
+     * by copying batches of values to arrays. Tables override it to split their storage by index ranges.
+     */
+    @Override
+    default Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(intIterator(), size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * @return a sequential stream of the elements of this hash table
+     */
+    default IntStream intStream() {
+        return StreamSupport.intStream(spliterator(), false);
+    }
+
+    /**
+     * @return a parallel stream of the elements of this hash table, split as the {@link #spliterator()} allows
+     */
+    default IntStream parallelIntStream() {
+        return StreamSupport.intStream(spliterator(), true);
+    }
+
+    /**
+     * Performs the action for each element of this hash table, in the order of {@link #iterator()}.
+     * Tables override it to scan their storage directly and check for concurrent modifications
+     * only once, after the scan. The action must not modify the table.
+     * <p>
+     * It isn't an overload of {@link #forEach(java.util.function.Consumer)}, with both of them
+     * a call with an implicitly typed lambda would be ambiguous.
+     *
+     * @param action the action to be performed for each element
+     * @throws IllegalArgumentException                   if the argument is null
+     * @throws java.util.ConcurrentModificationException if the table was modified during the scan
+     */
+    default void forEachInt(IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        intIterator().forEachRemaining(action);
+    }
+
+    /**
+     * Adds the values of a range of the array. Tables override it to make room for all of them at once
+     * instead of growing step by step.
+     *
+     * @param values the array holding the values
+     * @param offset index of the first value to be added
+     * @param length number of values to be added
+     * @return the number of values that weren't in this hash table before
+     * @throws IllegalArgumentException  if the array is null
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+     */
+    default int addAll(int[] values, int offset, int length) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int added = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (add(values[i])) {
+                ++added;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * @param values the values to be added
+     * @return the number of values that weren't in this hash table before
+     * @throws IllegalArgumentException if the array is null
+     */
+    default int addAll(int[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        return addAll(values, 0, values.length);
+    }
+
+    /**
+     * Removes the values of the array. Tables override it to shrink at most once, after all removals.
+     *
+     * @param values the values to be removed
+     * @return the number of values that were removed
+     * @throws IllegalArgumentException if the array is null
+     */
+    default int removeAll(int[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int removed = 0;
+        for (int value : values) {
+            if (remove(value)) {
+                ++removed;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @param values the values whose presence is tested
+     * @param out    if not null, bit i is set when values[i] is in this hash table and cleared otherwise
+     * @return the number of the values (counting repeated ones each time) which are in this hash table
+     * @throws IllegalArgumentException if the array is null
+     */
+    default int containsAll(int[] values, BitSet out) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int contained = 0;
+        for (int i = 0; i < values.length; i++) {
+            boolean found = contains(values[i]);
+            if (found) {
+                ++contained;
+            }
+            if (out != null) {
+                out.set(i, found);
+            }
+        }
+        return contained;
+    }
+
+    /**
+     * Adds the values of the other hash table to this one.
+     *
+     * @param other the hash table whose values are added
+     * @return the number of values that weren't in this hash table before
+     * @throws IllegalArgumentException if the argument is null
+     */
+    default int unionWith(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        return other == this ? 0 : addAll(other.toArray());
+    }
+
+    /**
+     * Removes the values which aren't in the other hash table. The values of the smaller table are looked up
+     * in the larger one.
+     *
+     * @param other the hash table whose values are kept
+     * @return the number of values that were removed
+     * @throws IllegalArgumentException if the argument is null
+     */
+    default int retainAll(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other == this) {
+            return 0;
+        }
+        if (other.size() < size()) {
+            int[] common = other.toArray();
+            int count = 0;
+            for (int value : common) {
+                if (contains(value)) {
+                    common[count++] = value;
+                }
+            }
+            int removed = size() - count;
+            if (removed > 0) {
+                clear();
+                addAll(common, 0, count);
+            }
+            return removed;
+        }
+        int[] missing = toArray();
+        int count = 0;
+        for (int value : missing) {
+            if (!other.contains(value)) {
+                missing[count++] = value;
+            }
+        }
+        return removeAll(Arrays.copyOf(missing, count));
+    }
+
+    /**
+     * Removes the values which are in the other hash table. The values of the smaller table are looked up
+     * in the larger one.
+     *
+     * @param other the hash table whose values are removed
+     * @return the number of values that were removed
+     * @throws IllegalArgumentException if the argument is null
+     */
+    default int removeAll(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other == this) {
+            int removed = size();
+            clear();
+            return removed;
+        }
+        if (other.size() <= size()) {
+            return removeAll(other.toArray());
+        }
+        int[] common = toArray();
+        int count = 0;
+        for (int value : common) {
+            if (other.contains(value)) {
+                common[count++] = value;
+            }
+        }
+        return removeAll(Arrays.copyOf(common, count));
+    }
+
+    /**
+     * @return a new array holding the values of this hash table, in the order of iteration
+     */
+    default int[] toArray() {
+        return toArray(new int[size()]);
+    }
+
+    /**
+     * @param array the array the values are stored in, if it is large enough. The elements after the values
+     *              are left as they are.
+     * @return the passed array if it is large enough, otherwise a new array holding exactly the values
+     * @throws IllegalArgumentException if the array is null
+     */
+    default int[] toArray(int[] array) {
+        if (array == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] values = array.length >= size() ? array : new int[size()];
+        int count = 0;
+        for (Integer value : this) {
+            // a table modified concurrently may iterate more values than its size was
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.max(16, count * 2));
+            }
+            values[count++] = value;
+        }
+        return values == array || count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    /**
+     * Builds an immutable copy of this hash table, faster to query and safe to share between threads.
+     * This hash table must not be modified while the copy is built.
+     *
+     * @return a frozen hash table containing the elements of this hash table
+     */
+    default FrozenHashTable freeze() {
+        return FrozenHashTable.from(this);
+    }
 }
@@ -0,0 +1,248 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * The binary snapshot format shared by the tables' {@code writeTo} and {@code readFrom} methods.
+ * <p>
+ * A snapshot starts with a header: magic number, format version, id of the hash function
+ * (see {@link HashFunctions.Standard}, 0 for any other function), ordinal of the indexing mode and
+ * number of values, followed by a CRC32C of these fields. The values follow sorted, in chunks of at most
+ * {@link #CHUNK_VALUES}. A chunk holds its number of values, the length of its payload and the payload,
+ * followed by a CRC32C of all three. The payload is the first value of the chunk, xored with
+ * {@link Integer#MIN_VALUE}, and then the gaps to the following values, all as unsigned varints
+ * (7 bits per byte, lowest bits first). Dense sets of values take about a byte per value.
+ * Chunks don't depend on each other, so a corrupted chunk is detected by its own checksum.
+ * All ints are big-endian.
+ */
+final class HashTableSnapshots {
+    static final int MAGIC = 0x48545353;
+    static final int VERSION = 1;
+
+    /**
+     * Most values of a chunk
+     */
+    static final int CHUNK_VALUES = 4096;
+
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+    private static final int CHUNK_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final int MAX_PAYLOAD = CHUNK_VALUES * MAX_VARINT_BYTES;
+
+    private HashTableSnapshots() {
+    }
+
+    /**
+     * The content of a snapshot
+     */
+    record Snapshot(int hashFunctionId, AbstractHashTable.IndexingMode indexingMode, int[] values) {
+    }
+
+    /**
+     * Creates the table a snapshot is read into, usually a constructor reference
+     */
+    @FunctionalInterface
+    interface TableFactory<T extends HashTable> {
+        T create(IntHashFunction hashFunction, AbstractHashTable.IndexingMode indexingMode, SizingPolicy sizing);
+    }
+
+    /**
+     * Writes a snapshot of the table. The stream is neither flushed nor closed.
+     */
+    static void write(AbstractHashTable table, OutputStream out) throws IOException {
+        write(table, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes a snapshot of the table. The channel isn't closed.
+     */
+    static void write(AbstractHashTable table, WritableByteChannel channel) throws IOException {
+        write(table.toArray(), table.hash, table.indexingMode, channel);
+    }
+
+    /**
+     * Reads a snapshot into a new table. The stream isn't closed.
+     */
+    static <T extends HashTable> T read(InputStream in, IntHashFunction hashFunction, TableFactory<T> factory)
+            throws IOException {
+        return read(Channels.newChannel(in), hashFunction, factory);
+    }
+
+    /**
+     * Reads a snapshot into a new table. The channel isn't closed.
+     *
+     * @param hashFunction the function of the written table, null to take the one recorded in the snapshot
+     * @param factory      creates the table, presized for the values of the snapshot
+     */
+    static <T extends HashTable> T read(ReadableByteChannel channel, IntHashFunction hashFunction,
+                                        TableFactory<T> factory) throws IOException {
+        Snapshot snapshot = read(channel);
+        T table = factory.create(hashFunction(snapshot, hashFunction), snapshot.indexingMode(),
+                SizingPolicy.forExpectedSize(snapshot.values().length));
+        table.addAll(snapshot.values());
+        return table;
+    }
+
+    /**
+     * @param values       the values of the table, sorted in place
+     * @param hashFunction the hash function of the table
+     * @param indexingMode the indexing mode of the table
+     * @param channel      the channel the snapshot is written to, it isn't closed
+     */
+    static void write(int[] values, IntHashFunction hashFunction, AbstractHashTable.IndexingMode indexingMode,
+                      WritableByteChannel channel) throws IOException {
+        Arrays.sort(values);
+        CRC32C crc = new CRC32C();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putInt(HashFunctions.Standard.idOf(hashFunction))
+                .putInt(indexingMode.ordinal()).putInt(values.length);
+        crc.update(header.array(), 0, header.position());
+        header.putInt((int) crc.getValue());
+        writeFully(channel, header.flip());
+
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_HEADER_SIZE + MAX_PAYLOAD + Integer.BYTES);
+        for (int start = 0; start < values.length; start += CHUNK_VALUES) {
+            int end = Math.min(start + CHUNK_VALUES, values.length);
+            chunk.clear();
+            chunk.position(CHUNK_HEADER_SIZE);
+            putVarint(chunk, values[start] ^ Integer.MIN_VALUE);
+            for (int i = start + 1; i < end; i++) {
+                putVarint(chunk, values[i] - values[i - 1]);
+            }
+            chunk.putInt(0, end - start);
+            chunk.putInt(Integer.BYTES, chunk.position() - CHUNK_HEADER_SIZE);
+            crc.reset();
+            crc.update(chunk.array(), 0, chunk.position());
+            chunk.putInt((int) crc.getValue());
+            writeFully(channel, chunk.flip());
+        }
+    }
+
+    /**
+     * @param channel the channel the snapshot is read from, it isn't closed
+     * @return the content of the snapshot, the values are sorted
+     * @throws IOException if the snapshot ends early or is corrupted
+     */
+    static Snapshot read(ReadableByteChannel channel) throws IOException {
+        CRC32C crc = new CRC32C();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header);
+        crc.update(header.array(), 0, HEADER_SIZE - Integer.BYTES);
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException("Not a hash table snapshot");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported hash table snapshot version " + header.getInt(4));
+        }
+        if (header.getInt(HEADER_SIZE - Integer.BYTES) != (int) crc.getValue()) {
+            throw new IOException("Corrupted hash table snapshot: wrong header checksum");
+        }
+        int indexingMode = header.getInt(12);
+        int count = header.getInt(16);
+        if (indexingMode < 0 || indexingMode >= AbstractHashTable.IndexingMode.values().length || count < 0) {
+            throw new IOException("Corrupted hash table snapshot: invalid header");
+        }
+
+        int[] values = new int[count];
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_HEADER_SIZE + MAX_PAYLOAD + Integer.BYTES);
+        for (int start = 0; start < count; ) {
+            chunk.clear().limit(CHUNK_HEADER_SIZE);
+            readFully(channel, chunk);
+            int chunkValues = chunk.getInt(0);
+            int payload = chunk.getInt(Integer.BYTES);
+            if (chunkValues <= 0 || chunkValues > Math.min(CHUNK_VALUES, count - start)
+                    || payload < chunkValues || payload > MAX_PAYLOAD) {
+                throw new IOException("Corrupted hash table snapshot: invalid chunk header");
+            }
+            chunk.limit(CHUNK_HEADER_SIZE + payload + Integer.BYTES);
+            readFully(channel, chunk);
+            crc.reset();
+            crc.update(chunk.array(), 0, CHUNK_HEADER_SIZE + payload);
+            if (chunk.getInt(CHUNK_HEADER_SIZE + payload) != (int) crc.getValue()) {
+                throw new IOException("Corrupted hash table snapshot: wrong chunk checksum");
+            }
+
+            chunk.position(CHUNK_HEADER_SIZE).limit(CHUNK_HEADER_SIZE + payload);
+            values[start] = getVarint(chunk) ^ Integer.MIN_VALUE;
+            for (int i = start + 1; i < start + chunkValues; i++) {
+                values[i] = values[i - 1] + getVarint(chunk);
+            }
+            if (chunk.hasRemaining()) {
+                throw new IOException("Corrupted hash table snapshot: chunk longer than its values");
+            }
+            start += chunkValues;
+        }
+        return new Snapshot(header.getInt(8), AbstractHashTable.IndexingMode.values()[indexingMode], values);
+    }
+
+    /**
+     * @param snapshot     a snapshot read from a channel
+     * @param hashFunction the function the table was written with, null to take the one recorded in the snapshot
+     * @return the hash function to build the table with
+     * @throws IOException if the function can't be determined or differs from the recorded one
+     */
+    static IntHashFunction hashFunction(Snapshot snapshot, IntHashFunction hashFunction) throws IOException {
+        int id = snapshot.hashFunctionId();
+        if (hashFunction == null) {
+            if (id == 0) {
+                throw new IOException("The snapshot was written with an unregistered hash function, "
+                        + "it has to be read with the same function");
+            }
+            try {
+                return HashFunctions.Standard.byId(id);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupted hash table snapshot: " + e.getMessage());
+            }
+        }
+        if (HashFunctions.Standard.idOf(hashFunction) != id) {
+            throw new IOException("The snapshot was written with another hash function");
+        }
+        return hashFunction;
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new IOException("Corrupted hash table snapshot: chunk shorter than its values");
+            }
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted hash table snapshot: invalid varint");
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The hash table snapshot ends early");
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * Set operations building a new hash table from two others, which are left as they are.
+ * <p>
+ * The values of the smaller table are looked up in the larger one wherever the result allows it, and
+ * the result is allocated once for the number of values it gets. It is a {@link SeparateChainingHashTable}
+ * or a {@link CompactChainingHashTable} if the first table is one, otherwise a {@link LinearProbingHashTable}.
+ * When the first table is one of these three, the result takes its hash function and indexing mode.
+ */
+public final class HashTables {
+    private HashTables() {
+    }
+
+    /**
+     * @param first  a hash table
+     * @param second another hash table
+     * @return a new hash table holding the values which are in both tables
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static HashTable intersect(HashTable first, HashTable second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        HashTable smaller = first.size() <= second.size() ? first : second;
+        HashTable larger = smaller == first ? second : first;
+        int[] common = smaller.toArray();
+        int count = 0;
+        for (int value : common) {
+            if (larger.contains(value)) {
+                common[count++] = value;
+            }
+        }
+        return tableOf(first, common, count);
+    }
+
+    /**
+     * @param first  a hash table
+     * @param second another hash table
+     * @return a new hash table holding the values of the first table which aren't in the second one
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static HashTable difference(HashTable first, HashTable second) {
+        if (first == null || second == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] remaining = first.toArray();
+        int count = 0;
+        for (int value : remaining) {
+            if (!second.contains(value)) {
+                remaining[count++] = value;
+            }
+        }
+        return tableOf(first, remaining, count);
+    }
+
+    /**
+     * @return a table like the template, presized for and holding the first count values
+     */
+    private static HashTable tableOf(HashTable template, int[] values, int count) {
+        SizingPolicy sizing = SizingPolicy.forExpectedSize(count);
+        HashTable result;
+        if (template instanceof SeparateChainingHashTable chaining) {
+            result = new SeparateChainingHashTable(chaining.hash, chaining.indexingMode, sizing);
+        } else if (template instanceof CompactChainingHashTable compact) {
+            result = new CompactChainingHashTable(compact.hash, compact.indexingMode, sizing);
+        } else if (template instanceof LinearProbingHashTable linear) {
+            result = new LinearProbingHashTable(linear.hash, linear.indexingMode, sizing);
+        } else {
+            result = new LinearProbingHashTable(sizing);
+        }
+        result.addAll(values, 0, count);
+        return result;
+    }
+}
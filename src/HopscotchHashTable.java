@@ -0,0 +1,353 @@
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Open addressing hash table using hopscotch hashing.
+ * <p>
+ * Every value is kept within {@link #NEIGHBOURHOOD_SIZE} slots of its home slot. Each home slot has a
+ * bitmap of the neighbourhood slots holding its values, so {@link #contains} compares only those.
+ * When the free slot found for a new value is too far from its home, values between them are moved
+ * ("hopped") towards the free slot, each staying in its own neighbourhood, until the free slot gets
+ * close enough. That keeps lookups short and cache friendly even at high load factors.
+ * <p>
+ * The displacement steps ({@link #findFreeSlot}, {@link #moveFreeSlotCloser}) only touch the arrays
+ * of the table, so a variant guarding them differently, e.g. with per-segment locks, can reuse them.
+ */
+public class HopscotchHashTable extends OpenAddressingHashTable {
+    public static final int NEIGHBOURHOOD_SIZE = 32;
+    public static final double MAX_LOAD_FACTOR = 0.9;
+    public static final double MIN_LOAD_FACTOR = 0.2;
+
+    /**
+     * Below this load factor a value that can't be placed in its neighbourhood goes to the
+     * overflow array instead of growing the table, as it only happens when many values share a hash
+     */
+    private static final double MIN_GROWTH_LOAD_FACTOR = 0.5;
+    private static final int MIN_CAPACITY = NEIGHBOURHOOD_SIZE;
+
+    private int[] table;
+    private boolean[] occupied;
+
+    /**
+     * Bit i of hops[h] is set when slot h + i holds a value whose home slot is h
+     */
+    private int[] hops;
+    private int[] overflow;
+    private int overflowSize;
+
+    public HopscotchHashTable() {
+        init(MIN_CAPACITY);
+    }
+
+    public HopscotchHashTable(IntHashFunction hashFunction) {
+        super(hashFunction);
+        init(MIN_CAPACITY);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     */
+    public HopscotchHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
+        super(hashFunction, indexingMode);
+        init(MIN_CAPACITY);
+    }
+
+    public HopscotchHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    private void init(int capacity) {
+        table = new int[capacity];
+        occupied = new boolean[capacity];
+        hops = new int[capacity];
+        overflow = new int[0];
+        overflowSize = 0;
+    }
+
+    @Override
+    public void clear() {
+        init(MIN_CAPACITY);
+        modCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof HopscotchHashTable hopscotchOther) {
+            swap(hopscotchOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(HopscotchHashTable other) {
+        int[] tempArray = table;
+        table = other.table;
+        other.table = tempArray;
+
+        boolean[] tempOccupied = occupied;
+        occupied = other.occupied;
+        other.occupied = tempOccupied;
+
+        tempArray = hops;
+        hops = other.hops;
+        other.hops = tempArray;
+
+        tempArray = overflow;
+        overflow = other.overflow;
+        other.overflow = tempArray;
+
+        IntHashFunction tempFunc = hash;
+        hash = other.hash;
+        other.hash = tempFunc;
+
+        IndexingMode tempMode = indexingMode;
+        indexingMode = other.indexingMode;
+        other.indexingMode = tempMode;
+
+        int temp = overflowSize;
+        overflowSize = other.overflowSize;
+        other.overflowSize = temp;
+
+        temp = size;
+        size = other.size;
+        other.size = temp;
+
+        temp = modCount;
+        modCount = other.modCount;
+        other.modCount = temp;
+    }
+
+    private void swapContent(HashTable other) {
+        HopscotchHashTable temp = new HopscotchHashTable();
+
+        for (Integer integer : other) {
+            temp.add(integer);
+        }
+
+        other.clear();
+        for (Integer integer : this) {
+            other.add(integer);
+        }
+
+        swap(temp);
+    }
+
+    @Override
+    public boolean add(int value) {
+        if (contains(value)) {
+            return false;
+        }
+
+        while (!place(value)) {
+            if ((double) size / table.length < MIN_GROWTH_LOAD_FACTOR) {
+                addToOverflow(value);
+                break;
+            }
+            resize(table.length * RESIZE_FACTOR);
+        }
+        ++size;
+
+        if (checkResize()) {
+            resize(table.length * RESIZE_FACTOR);
+        }
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Stores the value in the neighbourhood of its home slot.
+     * The caller is responsible for checking that the value is not already present.
+     *
+     * @return false if no free slot could be brought into the neighbourhood
+     */
+    protected boolean place(int value) {
+        int home = getIndex(value);
+        int free = findFreeSlot(home);
+        while (free >= 0 && distance(home, free) >= NEIGHBOURHOOD_SIZE) {
+            free = moveFreeSlotCloser(free);
+        }
+        if (free < 0) {
+            return false;
+        }
+
+        table[free] = value;
+        occupied[free] = true;
+        hops[home] |= 1 << distance(home, free);
+        return true;
+    }
+
+    /**
+     * @return the first free slot at or after the home slot, or -1 if the table is full
+     */
+    protected int findFreeSlot(int home) {
+        for (int i = 0, slot = home; i < table.length; i++, slot = nextIndex(slot)) {
+            if (!occupied[slot]) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Looks for a value in the slots before the free one which can be moved to the free slot
+     * without leaving the neighbourhood of its home. The earliest such value is moved.
+     *
+     * @return the slot freed by the move, or -1 if no value could be moved
+     */
+    protected int moveFreeSlotCloser(int free) {
+        int mask = table.length - 1;
+        for (int distanceToFree = NEIGHBOURHOOD_SIZE - 1; distanceToFree > 0; --distanceToFree) {
+            int home = (free - distanceToFree) & mask;
+            // only values hashed to home that are before the free slot can be moved there
+            int candidates = hops[home] & ((1 << distanceToFree) - 1);
+            if (candidates != 0) {
+                int offset = Integer.numberOfTrailingZeros(candidates);
+                int slot = (home + offset) & mask;
+                table[free] = table[slot];
+                occupied[free] = true;
+                occupied[slot] = false;
+                hops[home] = (hops[home] | (1 << distanceToFree)) & ~(1 << offset);
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void addToOverflow(int value) {
+        if (overflowSize == overflow.length) {
+            overflow = Arrays.copyOf(overflow, Math.max(4, overflow.length * 2));
+        }
+        overflow[overflowSize++] = value;
+    }
+
+    private boolean checkResize() {
+        return ((double) size / table.length) >= MAX_LOAD_FACTOR;
+    }
+
+    /**
+     * The table is never shrunk below the size of a neighbourhood
+     */
+    private boolean checkShrink() {
+        return table.length > MIN_CAPACITY && ((double) size / table.length) <= MIN_LOAD_FACTOR;
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldTable = table;
+        boolean[] oldOccupied = occupied;
+        int[] oldOverflow = overflow;
+        int oldOverflowSize = overflowSize;
+        init(newCapacity);
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldOccupied[i] && !place(oldTable[i])) {
+                addToOverflow(oldTable[i]);
+            }
+        }
+        for (int i = 0; i < oldOverflowSize; i++) {
+            if (!place(oldOverflow[i])) {
+                addToOverflow(oldOverflow[i]);
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!removeWithoutResizing(value)) {
+            return false;
+        }
+        if (checkShrink()) {
+            resize(table.length / RESIZE_FACTOR);
+        }
+        return true;
+    }
+
+    /**
+     * Removing through an iterator doesn't shrink the table, so the iterator can continue over the same slots
+     */
+    @Override
+    protected boolean removeIterated(int value) {
+        removeWithoutResizing(value);
+        return false;
+    }
+
+    private boolean removeWithoutResizing(int value) {
+        int home = getIndex(value);
+        for (int bits = hops[home]; bits != 0; bits &= bits - 1) {
+            int offset = Integer.numberOfTrailingZeros(bits);
+            int slot = (home + offset) & (table.length - 1);
+            if (table[slot] == value) {
+                occupied[slot] = false;
+                hops[home] &= ~(1 << offset);
+                afterRemoval();
+                return true;
+            }
+        }
+        for (int i = 0; i < overflowSize; i++) {
+            if (overflow[i] == value) {
+                overflow[i] = overflow[--overflowSize];
+                afterRemoval();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void afterRemoval() {
+        --size;
+        ++modCount;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        int home = getIndex(value);
+        for (int bits = hops[home]; bits != 0; bits &= bits - 1) {
+            if (table[(home + Integer.numberOfTrailingZeros(bits)) & (table.length - 1)] == value) {
+                return true;
+            }
+        }
+        return overflowSize > 0 && overflowContains(value);
+    }
+
+    private boolean overflowContains(int value) {
+        for (int i = 0; i < overflowSize; i++) {
+            if (overflow[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int getIndex(int value) {
+        return indexFor(value, table.length);
+    }
+
+    private int nextIndex(int index) {
+        return (index + 1) & (table.length - 1);
+    }
+
+    private int distance(int from, int to) {
+        return (to - from) & (table.length - 1);
+    }
+
+    /**
+     * The slots of the table are followed by the slots of the overflow array
+     */
+    @Override
+    protected int slotCount() {
+        return table.length + overflowSize;
+    }
+
+    @Override
+    protected boolean isOccupied(int slot) {
+        return slot < table.length ? occupied[slot] : slot - table.length < overflowSize;
+    }
+
+    @Override
+    protected int valueAt(int slot) {
+        return slot < table.length ? table[slot] : overflow[slot - table.length];
+    }
+}
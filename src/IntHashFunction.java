@@ -0,0 +1,40 @@
+import java.util.function.Function;
+
+/**
+ * A hash function over primitive ints. Unlike {@code Function<Integer, Integer>},
+ * hashing through it neither boxes the argument nor unboxes the result.
+ * <p>
+ * It is a {@code Function<Integer, Integer>} itself, so a constructor taking an {@code IntHashFunction}
+ * is more specific than its overload taking a {@code Function<Integer, Integer>}, and a call like
+ * {@code new LinearProbingHashTable(x -> x)} picks the unboxed one instead of being ambiguous.
+ */
+@FunctionalInterface
+public interface IntHashFunction extends Function<Integer, Integer> {
+    /**
+     * @param value the value to be hashed
+     * @return the hash code of the value
+     */
+    int hash(int value);
+
+    /**
+     * @implSpec Boxes the result of {@link #hash(int)}
+     */
+    @Override
+    default Integer apply(Integer value) {
+        return hash(value);
+    }
+
+    /**
+     * Adapts a boxed hash function to an {@code IntHashFunction}.
+     *
+     * @param hashFunction the function to be adapted
+     * @return a function returning the same hashes as the passed one, the passed one itself
+     * if it is an {@code IntHashFunction} already
+     */
+    static IntHashFunction of(Function<Integer, Integer> hashFunction) {
+        if (hashFunction instanceof IntHashFunction intHashFunction) {
+            return intHashFunction;
+        }
+        return hashFunction::apply;
+    }
+}
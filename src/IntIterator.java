@@ -0,0 +1,11 @@
+import java.util.PrimitiveIterator;
+
+/**
+ * An iterator over the values of a hash table which hands them out as {@code int}s.
+ * <p>
+ * {@link #nextInt()} and {@link #forEachRemaining(java.util.function.IntConsumer)} don't box the values,
+ * {@link #next()} and {@link #forEachRemaining(java.util.function.Consumer)} are kept for
+ * {@link java.util.Iterator} callers and box every value.
+ */
+public interface IntIterator extends PrimitiveIterator.OfInt {
+}
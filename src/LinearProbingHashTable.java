@@ -1,33 +1,113 @@
-import java.util.ConcurrentModificationException;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
-import java.util.function.Consumer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
 import java.util.function.Function;
 
-public class LinearProbingHashTable extends AbstractHashTable {
+public class LinearProbingHashTable extends OpenAddressingHashTable {
     /**
      * When an instance is created it has the following default capacity
      */
-    public static int DEFAULT_CAPACITY = 16;
-    public static double MAX_LOAD_FACTOR = 0.5;
-    public static double MIN_LOAD_FACTOR = 0.125;
-    private Node[] table;
-    private int modCount;
+    public static final int DEFAULT_CAPACITY = 16;
+    /**
+     * Load factors used unless the table's {@link SizingPolicy} sets others
+     */
+    public static final double MAX_LOAD_FACTOR = 0.5;
+    public static final double MIN_LOAD_FACTOR = 0.125;
+
+    /**
+     * Number of slots migrated by each add and remove while an incremental resize is in progress
+     */
+    public static final int INCREMENTAL_RESIZE_STEP = 16;
+
+    /**
+     * The largest power of two an array can hold
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * Slot states, kept in a parallel byte array next to the values
+     */
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte REMOVED = 2;
+
+    private int[] table;
+    private byte[] states;
+    private SizingPolicy sizing;
+
+    /**
+     * Number of slots in state {@link #REMOVED}
+     */
+    private int tombstones;
+
+    private boolean incrementalResize;
+
+    /**
+     * The table being emptied by an incremental resize, null when no resize is in progress.
+     * Migrated slots are marked {@link #REMOVED}, so lookups of the values not migrated yet still reach them.
+     */
+    private int[] oldTable;
+    private byte[] oldStates;
+
+    /**
+     * Slots of the old table before this index have been migrated
+     */
+    private int migrated;
 
     public LinearProbingHashTable() {
-        table = new Node[DEFAULT_CAPACITY];
-        modCount = 0;
+        this(SizingPolicy.DEFAULT);
+    }
+
+    public LinearProbingHashTable(SizingPolicy sizing) {
+        this(HashFunctions.Standard.CUSTOM, IndexingMode.MASK, sizing);
+    }
+
+    public LinearProbingHashTable(IntHashFunction hashFunction) {
+        this(hashFunction, IndexingMode.MASK, SizingPolicy.DEFAULT);
+    }
+
+    public LinearProbingHashTable(IntHashFunction hashFunction, SizingPolicy sizing) {
+        this(hashFunction, IndexingMode.MASK, sizing);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     */
+    public LinearProbingHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
+        this(hashFunction, indexingMode, SizingPolicy.DEFAULT);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     * @param sizing       the initial capacity and the resizing rules of this table
+     * @throws IllegalArgumentException if the sizing policy is null or its maximum load factor isn't less than 1
+     */
+    public LinearProbingHashTable(IntHashFunction hashFunction, IndexingMode indexingMode, SizingPolicy sizing) {
+        super(hashFunction, indexingMode);
+        if (sizing == null) {
+            throw new IllegalArgumentException("The sizing policy is null!");
+        }
+        this.sizing = sizing.withDefaults(MAX_LOAD_FACTOR, MIN_LOAD_FACTOR, 1);
+        table = new int[this.sizing.initialCapacity()];
+        states = new byte[table.length];
     }
 
     public LinearProbingHashTable(Function<Integer, Integer> hashFunction) {
-        super(hashFunction);
-        table = new Node[DEFAULT_CAPACITY];
-        modCount = 0;
+        this(IntHashFunction.of(hashFunction));
     }
 
     @Override
     public void clear() {
-        table = new Node[DEFAULT_CAPACITY];
+        table = new int[sizing.initialCapacity()];
+        states = new byte[table.length];
+        tombstones = 0;
+        oldTable = null;
+        oldStates = null;
         modCount = 0;
         size = 0;
     }
@@ -45,26 +125,57 @@ public class LinearProbingHashTable extends AbstractHashTable {
     }
 
     private void swap(LinearProbingHashTable other) {
-        Node[] tempArray = table;
-        Function<Integer, Integer> tempFunc = hash;
-        int temp = size;
-
+        int[] tempArray = table;
         table = other.table;
         other.table = tempArray;
 
+        byte[] tempStates = states;
+        states = other.states;
+        other.states = tempStates;
+
+        tempArray = oldTable;
+        oldTable = other.oldTable;
+        other.oldTable = tempArray;
+
+        tempStates = oldStates;
+        oldStates = other.oldStates;
+        other.oldStates = tempStates;
+
+        SizingPolicy tempSizing = sizing;
+        sizing = other.sizing;
+        other.sizing = tempSizing;
+
+        boolean tempIncremental = incrementalResize;
+        incrementalResize = other.incrementalResize;
+        other.incrementalResize = tempIncremental;
+
+        IntHashFunction tempFunc = hash;
         hash = other.hash;
         other.hash = tempFunc;
 
+        IndexingMode tempMode = indexingMode;
+        indexingMode = other.indexingMode;
+        other.indexingMode = tempMode;
+
+        int temp = size;
         size = other.size;
         other.size = temp;
 
+        temp = tombstones;
+        tombstones = other.tombstones;
+        other.tombstones = temp;
+
+        temp = migrated;
+        migrated = other.migrated;
+        other.migrated = temp;
+
         temp = modCount;
         modCount = other.modCount;
         other.modCount = temp;
     }
 
     private void swapContent(HashTable other) {
-        LinearProbingHashTable temp = new LinearProbingHashTable();
+        LinearProbingHashTable temp = new LinearProbingHashTable(hash, indexingMode, sizing);
 
         for (Integer integer : other) {
             temp.add(integer);
@@ -78,397 +189,535 @@ public class LinearProbingHashTable extends AbstractHashTable {
         swap(temp);
     }
 
-    @Override
-    public boolean add(int value) {
-        if (contains(value)) {
-            return false;
+    /**
+     * @return the number of slots left behind by removed values, which are still walked through
+     * by lookups. They are reused by insertions and dropped when the table is rehashed.
+     */
+    public int tombstones() {
+        return tombstones;
+    }
+
+    /**
+     * @return the number of slots of the table
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * Writes a snapshot of the table in the format of {@link HashTableSnapshots}. The stream is neither
+     * flushed nor closed.
+     *
+     * @param out the stream the snapshot is written to
+     * @throws IOException if the stream can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        HashTableSnapshots.write(this, out);
+    }
+
+    /**
+     * Writes a snapshot of the table in the format of {@link HashTableSnapshots}. The channel isn't closed.
+     *
+     * @param channel the channel the snapshot is written to
+     * @throws IOException if the channel can't be written
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        HashTableSnapshots.write(this, channel);
+    }
+
+    /**
+     * @param in           the stream the snapshot is read from, it isn't closed
+     * @param hashFunction the function of the written table, null to take the one recorded in the snapshot,
+     *                     which works for the {@link HashFunctions.Standard} functions
+     * @return a table presized for the values of the snapshot, with the default sizing policy otherwise
+     * @throws IOException if the stream can't be read, ends early, the snapshot is corrupted
+     *                     or was written with another hash function
+     */
+    public static LinearProbingHashTable readFrom(InputStream in, IntHashFunction hashFunction) throws IOException {
+        return HashTableSnapshots.read(in, hashFunction, LinearProbingHashTable::new);
+    }
+
+    /**
+     * @param channel      the channel the snapshot is read from, it isn't closed
+     * @param hashFunction the function of the written table, null to take the one recorded in the snapshot,
+     *                     which works for the {@link HashFunctions.Standard} functions
+     * @return a table presized for the values of the snapshot, with the default sizing policy otherwise
+     * @throws IOException if the channel can't be read, ends early, the snapshot is corrupted
+     *                     or was written with another hash function
+     */
+    public static LinearProbingHashTable readFrom(ReadableByteChannel channel, IntHashFunction hashFunction)
+            throws IOException {
+        return HashTableSnapshots.read(channel, hashFunction, LinearProbingHashTable::new);
+    }
+
+    /**
+     * In incremental mode a resize doesn't rehash all values at once. The old slots are kept next
+     * to the new ones and every following add and remove migrates {@link #INCREMENTAL_RESIZE_STEP}
+     * of them, while lookups search both. That spreads the cost of a resize over many operations
+     * instead of stalling the one which triggered it.
+     *
+     * @param incremental whether to resize incrementally, turning it off completes a resize in progress
+     */
+    public void setIncrementalResize(boolean incremental) {
+        incrementalResize = incremental;
+        if (!incremental && oldTable != null) {
+            finishMigration();
+            ++modCount;
         }
+    }
 
+    @Override
+    public boolean add(int value) {
         int index = getIndex(value);
-        while (isNodeValid(table[index])) {
+        int firstRemoved = -1;
+        while (states[index] != EMPTY) {
+            if (states[index] == OCCUPIED) {
+                if (table[index] == value) {
+                    return false;
+                }
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
             index = nextIndex(index);
         }
-        table[index] = new Node(value);
+
+        if (oldTable != null) {
+            if (indexOf(oldTable, oldStates, value) >= 0) {
+                return false;
+            }
+            migrateStep();
+            insert(value);
+        } else {
+            if (firstRemoved >= 0) {
+                index = firstRemoved;
+                --tombstones;
+            }
+            table[index] = value;
+            states[index] = OCCUPIED;
+        }
         ++size;
 
         if (checkResize()) {
-            resize(table.length * 2);
+            if (oldTable == null && tombstones >= size) {
+                purgeTombstones();
+            } else {
+                resize(table.length * sizing.growthFactor());
+            }
         }
         ++modCount;
         return true;
     }
 
-    private boolean checkResize() {
-        return ((double) size / table.length) >= MAX_LOAD_FACTOR;
+    /**
+     * Makes room for all the values first, so the table grows at most once, and shrinks at most once at the end
+     * if it grew for more values than were new
+     */
+    @Override
+    public int addAll(int[] values, int offset, int length) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        Objects.checkFromIndexSize(offset, length, values.length);
+        int[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        reserve((long) size + length);
+        int added = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (insertIfAbsent(values[i])) {
+                ++added;
+            }
+        }
+        return completeBulkAdd(added, before, migrating);
     }
 
-    private void resize(int newCapacity) {
-        Node[] oldTable = table;
-        table = new Node[newCapacity];
-        size = 0;
-        for (Node node : oldTable) {
-            if (isNodeValid(node)) {
-                add(node.getValue());
+    /**
+     * Scans the slots of another linear probing table directly, without copying its values to an array first
+     */
+    @Override
+    public int unionWith(HashTable other) {
+        if (!(other instanceof LinearProbingHashTable linearOther) || other == this) {
+            return super.unionWith(other);
+        }
+        int[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        reserve((long) size + linearOther.size);
+        int added = 0;
+        for (int slot = 0; slot < linearOther.slotCount(); slot++) {
+            if (linearOther.isOccupied(slot) && insertIfAbsent(linearOther.valueAt(slot))) {
+                ++added;
             }
         }
+        return completeBulkAdd(added, before, migrating);
+    }
+
+    /**
+     * Unless the other table is smaller, scans the slots of this table and removes the missing values in place
+     */
+    @Override
+    public int retainAll(HashTable other) {
+        if (other == null || other == this || other.size() < size) {
+            return super.retainAll(other);
+        }
+        return removeWhere(other, false);
     }
 
+    /**
+     * Unless the other table is smaller, scans the slots of this table and removes the common values in place
+     */
     @Override
-    public boolean remove(int value) {
-        int index = getIndex(value);
-        while (table[index] != null) {
-            if (table[index].getValue() == value) {
-                removeValue(index);
-                ++modCount;
-                return true;
+    public int removeAll(HashTable other) {
+        if (other == null || other == this || other.size() <= size) {
+            return super.removeAll(other);
+        }
+        return removeWhere(other, true);
+    }
+
+    /**
+     * Removes the values whose presence in the other table is the given one, then shrinks at most once
+     */
+    private int removeWhere(HashTable other, boolean inOther) {
+        int[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        int removed = 0;
+        for (int slot = 0; slot < table.length; slot++) {
+            // removing a value never moves the others, so the scan continues with the next slot
+            if (states[slot] == OCCUPIED && other.contains(table[slot]) == inOther) {
+                removeValue(slot);
+                ++removed;
             }
-            index = nextIndex(index);
         }
+        size -= removed;
+        shrinkToFit();
 
-        return false;
+        if (removed > 0 || table != before || migrating) {
+            ++modCount;
+        }
+        return removed;
     }
 
-    private boolean checkShrink() {
-        return ((double) size / table.length) <= MIN_LOAD_FACTOR;
+    /**
+     * Grows the table at once, if needed, so that the given number of values fits. No incremental resize
+     * may be in progress.
+     */
+    private void reserve(long values) {
+        if (isOverloaded(values + tombstones, table.length)) {
+            rehash(capacityFor(values));
+        }
     }
 
-    private void removeValue(int index) {
-        table[index].remove();
-        --size;
-        if (checkShrink()) {
-            resize(table.length / 2);
+    /**
+     * Counts the values stored by a bulk operation
+     *
+     * @param before    the table before the operation
+     * @param migrating whether an incremental resize was in progress before the operation
+     * @return the number of added values
+     */
+    private int completeBulkAdd(int added, int[] before, boolean migrating) {
+        size += added;
+        if (table != before) {
+            // repeated values may have left the grown table below its minimum load
+            shrinkToFit();
+        }
+        if (added > 0 || table != before || migrating) {
+            ++modCount;
         }
+        return added;
     }
 
+    /**
+     * Removes all the values before shrinking the table, at most once
+     */
     @Override
-    public boolean contains(int value) {
+    public int removeAll(int[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        int removed = 0;
+        for (int value : values) {
+            if (removeWithoutResizing(value)) {
+                ++removed;
+            }
+        }
+        shrinkToFit();
+
+        if (table != before || migrating) {
+            ++modCount;
+        }
+        return removed;
+    }
+
+    /**
+     * Stores the value unless it is already present, without resizing or counting it.
+     * No incremental resize may be in progress.
+     *
+     * @return true if the value was stored
+     */
+    private boolean insertIfAbsent(int value) {
         int index = getIndex(value);
-        while (table[index] != null) {
-            if (!table[index].isRemoved() && table[index].getValue() == value) {
-                return true;
+        int firstRemoved = -1;
+        while (states[index] != EMPTY) {
+            if (states[index] == OCCUPIED) {
+                if (table[index] == value) {
+                    return false;
+                }
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
             }
             index = nextIndex(index);
         }
-        return false;
+        if (firstRemoved >= 0) {
+            index = firstRemoved;
+            --tombstones;
+        }
+        table[index] = value;
+        states[index] = OCCUPIED;
+        return true;
     }
 
-    private int getIndex(int value) {
-        return hash.apply(value) % table.length;
+    /**
+     * @return the capacity, grown from the current one, at which the given number of values doesn't
+     * overload the table
+     */
+    private int capacityFor(long values) {
+        int capacity = table.length;
+        while (isOverloaded(values, capacity) && capacity <= MAX_CAPACITY / sizing.growthFactor()) {
+            capacity *= sizing.growthFactor();
+        }
+        return capacity;
     }
 
-    private int nextIndex(int index) {
-        return (index + 1) % table.length;
+    /**
+     * Shrinks the table in one step as far as its sizing policy allows
+     */
+    private void shrinkToFit() {
+        int capacity = table.length;
+        while (capacity / sizing.growthFactor() >= sizing.minCapacity()
+                && (double) size / capacity <= sizing.minLoadFactor()) {
+            capacity /= sizing.growthFactor();
+        }
+        if (capacity != table.length) {
+            rehash(capacity);
+        }
     }
 
-    @Override
-    public Iterator<Integer> iterator() {
-        return new LPHashIterator();
+    /**
+     * Moves all values to a table of the given capacity at once, even in incremental mode
+     */
+    private void rehash(int newCapacity) {
+        resize(newCapacity);
+        finishMigration();
     }
 
     /**
-     * @return Returns a reverse iterator, iterating the elements of the hashmap in reverse order
+     * Stores the value in the first free (empty or removed) slot of its probe sequence.
+     * The caller is responsible for checking that the value is not already present.
      */
-    @Override
-    public ReverseIterator reverseIterator() {
-        return new LPHashReverseIterator();
+    private void insert(int value) {
+        int index = getIndex(value);
+        while (states[index] == OCCUPIED) {
+            index = nextIndex(index);
+        }
+        if (states[index] == REMOVED) {
+            --tombstones;
+        }
+        table[index] = value;
+        states[index] = OCCUPIED;
     }
 
-    private boolean isNodeValid(Node node) {
-        return !(node == null || node.isRemoved);
+    /**
+     * Tombstones count towards the load, as lookups have to walk through them just like through values.
+     * With a maximum load factor close to 1 the table is also resized before its last empty slot is taken,
+     * as probes and {@link #purgeTombstones()} stop only at empty slots.
+     */
+    private boolean checkResize() {
+        return isOverloaded(size + tombstones, table.length);
     }
 
-    private class Node {
-        private int value;
-
-        /**
-         * Flag is true when the int value was removed from the hashTable and false otherwise
-         */
-        private boolean isRemoved;
+    /**
+     * @param usedSlots the number of values and tombstones
+     * @return whether a table of the given capacity holding that many used slots has to grow, see {@link #checkResize()}
+     */
+    private boolean isOverloaded(long usedSlots, int capacity) {
+        return usedSlots >= capacity * sizing.maxLoadFactor() || usedSlots >= capacity - 1;
+    }
 
-        public Node(int value) {
-            reset(value);
+    /**
+     * Rehashes the table in place, turning all tombstones into empty slots.
+     * <p>
+     * The slots are visited once, starting after an empty one. Every visited value is taken out and
+     * inserted again. Its home slot lies between the starting empty slot and the value, so its probe
+     * only walks through slots that were already cleaned, and it ends at the latest in its old slot.
+     */
+    private void purgeTombstones() {
+        int start = 0;
+        while (states[start] != EMPTY) {
+            ++start;
         }
-
-        /**
-         * @return the value stored in the node
-         */
-        public int getValue() {
-            return value;
+        for (int i = nextIndex(start); i != start; i = nextIndex(i)) {
+            if (states[i] == REMOVED) {
+                states[i] = EMPTY;
+            } else if (states[i] == OCCUPIED) {
+                states[i] = EMPTY;
+                insert(table[i]);
+            }
         }
+        tombstones = 0;
+    }
 
-        /**
-         * Sets the held value to the passed one
-         * Sets isDeleted to false
-         *
-         * @param value the value to which the node is set
-         */
-        public void reset(int value) {
-            this.value = value;
-            isRemoved = false;
+    private void resize(int newCapacity) {
+        finishMigration();
+        oldTable = table;
+        oldStates = states;
+        migrated = 0;
+        table = new int[newCapacity];
+        states = new byte[newCapacity];
+        tombstones = 0;
+        if (!incrementalResize) {
+            finishMigration();
         }
+    }
 
-        /**
-         * @return true if the int value was removed from the hashTable and false otherwise
-         */
-        public boolean isRemoved() {
-            return isRemoved;
+    private void migrateStep() {
+        int end = Math.min(migrated + INCREMENTAL_RESIZE_STEP, oldTable.length);
+        for (; migrated < end; ++migrated) {
+            if (oldStates[migrated] == OCCUPIED) {
+                insert(oldTable[migrated]);
+                oldStates[migrated] = REMOVED;
+            }
         }
-
-        /**
-         * sets isRemoved to true
-         */
-        public void remove() {
-            isRemoved = true;
+        if (migrated == oldTable.length) {
+            oldTable = null;
+            oldStates = null;
         }
     }
 
-    private class LPHashIterator implements Iterator<Integer> {
-        int elementsBeforeIndex;
-        int index;
-        int lastReturned;
-        int lastModCount;
+    private void finishMigration() {
+        while (oldTable != null) {
+            migrateStep();
+        }
+    }
 
-        public LPHashIterator() {
-            lastModCount = LinearProbingHashTable.this.modCount;
-            elementsBeforeIndex = 0;
-            index = -1;
-            lastReturned = -1;
+    @Override
+    public boolean remove(int value) {
+        if (!removeWithoutResizing(value)) {
+            return false;
         }
 
-        /**
-         * Returns {@code true} if the iteration has more elements.
-         * (In other words, returns {@code true} if {@link #next} would
-         * return an element rather than throwing an exception.)
-         *
-         * @return {@code true} if the iteration has more elements
-         */
-        @Override
-        public boolean hasNext() {
-            checkWhetherModCountHasNotChanged();
-            return elementsBeforeIndex < size;
+        if (oldTable != null) {
+            migrateStep();
+        } else if (checkShrink()) {
+            resize(table.length / sizing.growthFactor());
         }
+        return true;
+    }
 
-        /**
-         * Returns the next element in the iteration.
-         *
-         * @return the next element in the iteration
-         * @throws NoSuchElementException if the iteration has no more elements
-         */
-        @Override
-        public Integer next() {
-            checkWhetherModCountHasNotChanged();
+    /**
+     * Removing through an iterator neither shrinks the table nor migrates slots,
+     * so the iterator can continue from the same position
+     */
+    @Override
+    protected boolean removeIterated(int value) {
+        removeWithoutResizing(value);
+        return false;
+    }
 
-            if (!hasNext()) {
-                throw new NoSuchElementException("The iteration has no more elements");
-            }
+    private boolean removeWithoutResizing(int value) {
+        int index = indexOf(table, states, value);
+        if (index >= 0) {
+            removeValue(index);
+        } else if (oldTable != null && (index = indexOf(oldTable, oldStates, value)) >= 0) {
+            oldStates[index] = REMOVED;
+        } else {
+            return false;
+        }
+        --size;
+        ++modCount;
+        return true;
+    }
 
-            moveIndexToNextElement();
-            lastReturned = index;
-            return LinearProbingHashTable.this.table[index].getValue();
-        }
-
-        /**
-         * Removes from the underlying collection the last element returned
-         * by this iterator (optional operation).  This method can be called
-         * only once per call to {@link #next}.
-         * <p>
-         * The behavior of an iterator is unspecified if the underlying collection
-         * is modified while the iteration is in progress in any way other than by
-         * calling this method, unless an overriding class has specified a
-         * concurrent modification policy.
-         * <p>
-         * The behavior of an iterator is unspecified if this method is called
-         * after a call to the {@link #forEachRemaining forEachRemaining} method.
-         *
-         * @throws IllegalStateException if the {@code next} method has not yet been called,
-         *                               or the remove method has already been called after the last call to the next method.
-         */
-        @Override
-        public void remove() {
-            checkWhetherModCountHasNotChanged();
-
-            if (lastReturned < 0) {
-                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
-            }
+    /**
+     * The table is never shrunk below the minimum capacity of its sizing policy
+     */
+    private boolean checkShrink() {
+        return table.length / sizing.growthFactor() >= sizing.minCapacity()
+                && ((double) size / table.length) <= sizing.minLoadFactor();
+    }
 
-            LinearProbingHashTable.this.remove(LinearProbingHashTable.this.table[lastReturned].getValue());
-            --elementsBeforeIndex;
-
-            lastModCount = LinearProbingHashTable.this.modCount;
-            lastReturned = -1;
-        }
-
-        /**
-         * Performs the given action for each remaining element until all elements
-         * have been processed or the action throws an exception.  Actions are
-         * performed in the order of iteration, if that order is specified.
-         * Exceptions thrown by the action are relayed to the caller.
-         * <p>
-         * The behavior of an iterator is unspecified if the action modifies the
-         * collection in any way (even by calling the {@link #remove remove} method
-         * or other mutator methods of {@code Iterator} subtypes),
-         * unless an overriding class has specified a concurrent modification policy.
-         * <p>
-         * Subsequent behavior of an iterator is unspecified if the action throws an
-         * exception.
-         *
-         * @param action The action to be performed for each element
-         * @throws NullPointerException            if the specified action is null
-         * @throws ConcurrentModificationException There have been a structural modification made that
-         *                                         might cause the current operation to give incorrect results.
-         */
-        @Override
-        public void forEachRemaining(Consumer<? super Integer> action) {
-            checkWhetherModCountHasNotChanged();
-
-            while (hasNext()) {
-                action.accept(next());
+    /**
+     * A removed value leaves a tombstone, so that lookups continue past its slot. If the next slot
+     * is empty, no lookup needs to continue past it, so the slot and the tombstones before it are emptied.
+     */
+    private void removeValue(int index) {
+        if (states[nextIndex(index)] == EMPTY) {
+            states[index] = EMPTY;
+            for (int i = previousIndex(index); states[i] == REMOVED; i = previousIndex(i)) {
+                states[i] = EMPTY;
+                --tombstones;
             }
+        } else {
+            states[index] = REMOVED;
+            ++tombstones;
         }
+    }
 
-        private void checkWhetherModCountHasNotChanged() {
-            if (LinearProbingHashTable.this.modCount != lastModCount) {
-                throw new ConcurrentModificationException(
-                        "There have been a structural modification made that " +
-                                " might cause the current operation to give incorrect results."
-                );
-            }
-        }
+    @Override
+    public boolean contains(int value) {
+        return indexOf(table, states, value) >= 0
+                || (oldTable != null && indexOf(oldTable, oldStates, value) >= 0);
+    }
 
-        private void moveIndexToNextElement() {
-            for (int i = index + 1; i < table.length; i++) {
-                if (isNodeValid(LinearProbingHashTable.this.table[i])) {
-                    index = i;
-                    ++elementsBeforeIndex;
-                    return;
-                }
+    /**
+     * @return the slot of the given arrays holding the value or -1 if the value is not there
+     */
+    private int indexOf(int[] values, byte[] slotStates, int value) {
+        int mask = values.length - 1;
+        int index = indexFor(value, values.length);
+        while (slotStates[index] != EMPTY) {
+            if (slotStates[index] == OCCUPIED && values[index] == value) {
+                return index;
             }
+            index = (index + 1) & mask;
         }
+        return -1;
     }
 
-    private class LPHashReverseIterator implements ReverseIterator {
-        int elementsAfterIndex;
-        int index;
-        int lastReturned;
-        int lastModCount;
-
-        public LPHashReverseIterator() {
-            lastModCount = LinearProbingHashTable.this.modCount;
-            elementsAfterIndex = 0;
-            index = LinearProbingHashTable.this.table.length;
-            lastReturned = -1;
-        }
-
-        /**
-         * Returns {@code true} if the iteration has more elements.
-         * (In other words, returns {@code true} if {@link #previous} would
-         * return an element rather than throwing an exception.)
-         *
-         * @return {@code true} if the iteration has more elements
-         */
-        @Override
-        public boolean hasPrevious() {
-            checkWhetherModCountHasNotChanged();
-            return elementsAfterIndex < size;
-        }
-
-        /**
-         * Returns the previous element in the iteration.
-         *
-         * @return the previous element in the iteration
-         * @throws NoSuchElementException if the iteration has no more elements
-         */
-        @Override
-        public Integer previous() {
-            if (!hasPrevious()) {
-                throw new NoSuchElementException("The iteration has no previous element");
-            }
-            checkWhetherModCountHasNotChanged();
-
-
-            moveIndexToPreviousElement();
-            ++elementsAfterIndex;
-            lastReturned = index;
-            return LinearProbingHashTable.this.table[index].getValue();
-        }
-
-        /**
-         * Removes from the underlying collection the last element returned
-         * by this iterator (optional operation).  This method can be called
-         * only once per call to {@link #previous()}.
-         * <p>
-         * The behavior of an iterator is unspecified if the underlying collection
-         * is modified while the iteration is in progress in any way other than by
-         * calling this method, unless an overriding class has specified a
-         * concurrent modification policy.
-         * <p>
-         * The behavior of an iterator is unspecified if this method is called
-         * after a call to the {@link #forEachRemaining forEachRemaining} method.
-         *
-         * @throws IllegalStateException if the {@code previous} method has not yet been called,
-         *                               or the remove method has already been called after the last call to the next method.
-         */
-        @Override
-        public void remove() {
-            checkWhetherModCountHasNotChanged();
-
-            if (lastReturned < 0) {
-                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
-            }
+    private int getIndex(int value) {
+        return indexFor(value, table.length);
+    }
 
-            LinearProbingHashTable.this.remove(LinearProbingHashTable.this.table[lastReturned].getValue());
-            --elementsAfterIndex;
-
-            lastModCount = LinearProbingHashTable.this.modCount;
-            lastReturned = -1;
-        }
-
-        /**
-         * Performs the given action for each remaining element until all elements
-         * have been processed or the action throws an exception. Actions are
-         * performed in the order of iteration, if that order is specified.
-         * Exceptions thrown by the action are relayed to the caller.
-         * <p>
-         * The behavior of an iterator is unspecified if the action modifies the
-         * collection in any way (even by calling the {@link #remove()} method
-         * or other mutator methods of {@code Iterator} subtypes),
-         * unless an overriding class has specified a concurrent modification policy.
-         * <p>
-         * Subsequent behavior of an iterator is unspecified if the action throws an
-         * exception.
-         *
-         * @param action The action to be performed for each element
-         * @throws NullPointerException            if the specified action is null
-         * @throws ConcurrentModificationException There have been a structural modification made that
-         *                                         might cause the current operation to give incorrect results.
-         */
-        @Override
-        public void forEachRemaining(Consumer<? super Integer> action) {
-            checkWhetherModCountHasNotChanged();
-
-            while (hasPrevious()) {
-                action.accept(previous());
-            }
-        }
+    private int nextIndex(int index) {
+        return (index + 1) & (table.length - 1);
+    }
 
-        private void checkWhetherModCountHasNotChanged() {
-            if (LinearProbingHashTable.this.modCount != lastModCount) {
-                throw new ConcurrentModificationException(
-                        "There have been a structural modification made that " +
-                                " might cause the current operation to give incorrect results."
-                );
-            }
-        }
+    private int previousIndex(int index) {
+        return (index - 1) & (table.length - 1);
+    }
 
-        private void moveIndexToPreviousElement() {
-            for (int i = index - 1; i >= 0; --i) {
-                if (isNodeValid(LinearProbingHashTable.this.table[i])) {
-                    index = i;
-                    return;
-                }
-            }
-        }
+    /**
+     * While an incremental resize is in progress, the slots of the table are followed by the old slots
+     */
+    @Override
+    protected int slotCount() {
+        return oldTable == null ? table.length : table.length + oldTable.length;
     }
-}
 
+    @Override
+    protected boolean isOccupied(int slot) {
+        return slot < table.length ? states[slot] == OCCUPIED : oldStates[slot - table.length] == OCCUPIED;
+    }
 
+    @Override
+    protected int valueAt(int slot) {
+        return slot < table.length ? table[slot] : oldTable[slot - table.length];
+    }
+}
@@ -0,0 +1,587 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Non-blocking hash table using linear probing over an {@link AtomicLongArray}.
+ * <p>
+ * Every slot is a long holding a state in its high half and a value in its low half, so both change
+ * together with a single compare-and-set. A slot starts {@link #EMPTY}, gets a value once and keeps it
+ * forever: removing the value only turns the slot into a {@link #TOMBSTONE} and adding it again turns
+ * it back to {@link #FULL}. As slots never return to empty, there is at most one slot of a table a value
+ * may be in - the first slot of its probe sequence that was empty when it was first added - and every
+ * thread adding or removing the value meets in that slot.
+ * <p>
+ * Resizing is cooperative, like in {@link java.util.concurrent.ConcurrentHashMap}. The thread filling a
+ * table beyond {@link #MAX_LOAD_FACTOR} links a new table to it and starts moving the slots there in chunks
+ * of {@link #TRANSFER_CHUNK}. Every add meeting a table being moved takes over one chunk. A slot is
+ * {@link #FROZEN} before its value is copied, so it can't change anymore, and an operation meeting a frozen
+ * slot first freezes and copies the rest of its own probe sequence, then continues in the new table.
+ * Copying only fills empty slots, so a value removed from the new table is never brought back by a late copy.
+ * <p>
+ * The table never shrinks. Tombstones count towards the load, and a table holding mostly tombstones is moved
+ * to a new table of the same capacity, which drops them.
+ */
+public class LockFreeHashTable extends AbstractHashTable {
+    public static final double MAX_LOAD_FACTOR = 0.5;
+
+    /**
+     * Number of slots moved by a thread at once while resizing
+     */
+    public static final int TRANSFER_CHUNK = 64;
+
+    /**
+     * Slot states, kept in the high half of each slot
+     */
+    private static final int EMPTY = 0;
+    private static final int FULL = 1;
+    private static final int TOMBSTONE = 2;
+
+    /**
+     * Added to the state of a slot whose table is being moved, it can't change anymore
+     */
+    private static final int FROZEN = 4;
+
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            HEAD = MethodHandles.lookup().findVarHandle(LockFreeHashTable.class, "head", Table.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * The oldest table still in use. Tables being resized link to their successors.
+     */
+    private volatile Table head;
+
+    public LockFreeHashTable() {
+        head = new Table(DEFAULT_CAPACITY, new LongAdder());
+    }
+
+    public LockFreeHashTable(IntHashFunction hashFunction) {
+        super(hashFunction);
+        head = new Table(DEFAULT_CAPACITY, new LongAdder());
+    }
+
+    public LockFreeHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    @Override
+    public int size() {
+        return (int) head.size.sum();
+    }
+
+    @Override
+    public boolean empty() {
+        return size() == 0;
+    }
+
+    /**
+     * Replaces all tables by an empty one. Not atomic: operations running during the call
+     * may apply to the old tables and be lost.
+     */
+    @Override
+    public void clear() {
+        head = new Table(DEFAULT_CAPACITY, new LongAdder());
+    }
+
+    /**
+     * Not atomic: operations running on either table during the swap may apply to any of them
+     */
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof LockFreeHashTable lockFreeOther) {
+            swap(lockFreeOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(LockFreeHashTable other) {
+        Table tempTable = head;
+        head = other.head;
+        other.head = tempTable;
+
+        IntHashFunction tempFunc = hash;
+        hash = other.hash;
+        other.hash = tempFunc;
+    }
+
+    private void swapContent(HashTable other) {
+        LockFreeHashTable temp = new LockFreeHashTable(hash);
+
+        for (Integer integer : other) {
+            temp.add(integer);
+        }
+
+        other.clear();
+        for (Integer integer : this) {
+            other.add(integer);
+        }
+
+        swap(temp);
+    }
+
+    @Override
+    public boolean add(int value) {
+        Table t = head;
+        if (t.next.get() != null) {
+            transferChunk(t);
+        }
+        retry:
+        for (; ; ) {
+            int mask = t.slots.length() - 1;
+            int index = indexFor(value, t.slots.length());
+            for (int probes = 0; probes <= mask; ) {
+                long slot = t.slots.get(index);
+                int state = state(slot);
+                if (state == EMPTY) {
+                    if (t.slots.compareAndSet(index, slot, pack(FULL, value))) {
+                        t.size.increment();
+                        t.used.increment();
+                        if (t.used.sum() >= t.threshold) {
+                            resize(t);
+                        }
+                        return true;
+                    }
+                    // lost the slot to another thread, look at it again
+                    continue;
+                }
+                if ((state & FROZEN) != 0) {
+                    t = moveProbeSequence(t, value);
+                    continue retry;
+                }
+                if ((int) slot == value) {
+                    if (state == FULL) {
+                        return false;
+                    }
+                    if (t.slots.compareAndSet(index, slot, pack(FULL, value))) {
+                        t.size.increment();
+                        return true;
+                    }
+                    continue;
+                }
+                index = (index + 1) & mask;
+                ++probes;
+            }
+            // no empty slot left, the table has to be moved
+            resize(t);
+            t = moveProbeSequence(t, value);
+        }
+    }
+
+    @Override
+    public boolean remove(int value) {
+        Table t = head;
+        retry:
+        for (; ; ) {
+            int mask = t.slots.length() - 1;
+            int index = indexFor(value, t.slots.length());
+            for (int probes = 0; probes <= mask; ) {
+                long slot = t.slots.get(index);
+                int state = state(slot);
+                if (state == EMPTY) {
+                    return false;
+                }
+                if ((state & FROZEN) != 0) {
+                    t = moveProbeSequence(t, value);
+                    continue retry;
+                }
+                if ((int) slot == value) {
+                    if (state == TOMBSTONE) {
+                        return false;
+                    }
+                    if (t.slots.compareAndSet(index, slot, pack(TOMBSTONE, value))) {
+                        t.size.decrement();
+                        return true;
+                    }
+                    continue;
+                }
+                index = (index + 1) & mask;
+                ++probes;
+            }
+            return false;
+        }
+    }
+
+    @Override
+    public boolean contains(int value) {
+        Table t = head;
+        retry:
+        for (; ; ) {
+            int mask = t.slots.length() - 1;
+            int index = indexFor(value, t.slots.length());
+            for (int probes = 0; probes <= mask; ++probes) {
+                long slot = t.slots.get(index);
+                int state = state(slot);
+                if (state == EMPTY) {
+                    return false;
+                }
+                if ((state & FROZEN) != 0) {
+                    t = moveProbeSequence(t, value);
+                    continue retry;
+                }
+                if ((int) slot == value) {
+                    return state == FULL;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Links a new table to the given one, unless another thread has already done it,
+     * and moves all chunks nobody has taken yet
+     */
+    private void resize(Table t) {
+        if (t.next.get() == null) {
+            long live = t.size.sum();
+            int capacity = t.slots.length();
+            // a table holding mostly tombstones is only rebuilt, dropping them
+            int newCapacity = live * 4 < capacity ? capacity : capacity * RESIZE_FACTOR;
+            t.next.compareAndSet(null, new Table(newCapacity, t.size));
+        }
+        while (transferChunk(t)) {
+            // keep moving until every chunk is taken
+        }
+    }
+
+    /**
+     * Moves the next chunk of a table being resized
+     *
+     * @return false if every chunk was already taken
+     */
+    private boolean transferChunk(Table t) {
+        int capacity = t.slots.length();
+        int start = t.transferIndex.getAndAdd(TRANSFER_CHUNK);
+        if (start >= capacity) {
+            return false;
+        }
+        int end = Math.min(start + TRANSFER_CHUNK, capacity);
+        for (int i = start; i < end; i++) {
+            moveSlot(t, i);
+        }
+        if (t.transferred.addAndGet(end - start) == capacity) {
+            t.moved = true;
+            advanceHead();
+        }
+        return true;
+    }
+
+    /**
+     * Drops the tables at the head of the chain whose values have all been moved
+     */
+    private void advanceHead() {
+        for (Table current = head; current.moved; current = head) {
+            HEAD.compareAndSet(this, current, current.next.get());
+        }
+    }
+
+    /**
+     * Freezes and moves the slots of the value's probe sequence, up to and including the first empty one.
+     * Afterwards the value can't be added to the table anymore, and if it was there, it is in the next one.
+     *
+     * @return the next table
+     */
+    private Table moveProbeSequence(Table t, int value) {
+        int mask = t.slots.length() - 1;
+        int index = indexFor(value, t.slots.length());
+        for (int probes = 0; probes <= mask; ++probes) {
+            if (moveSlot(t, index) == (EMPTY | FROZEN)) {
+                break;
+            }
+            index = (index + 1) & mask;
+        }
+        return t.next.get();
+    }
+
+    /**
+     * Freezes the slot and copies its value, if it holds one, to the next table.
+     * It may be called for the same slot by many threads.
+     *
+     * @return the frozen state of the slot
+     */
+    private int moveSlot(Table t, int index) {
+        long slot = t.slots.get(index);
+        while ((state(slot) & FROZEN) == 0) {
+            long frozen = slot | ((long) FROZEN << 32);
+            if (t.slots.compareAndSet(index, slot, frozen)) {
+                slot = frozen;
+            } else {
+                slot = t.slots.get(index);
+            }
+        }
+        if (state(slot) == (FULL | FROZEN)) {
+            copy(t.next.get(), (int) slot);
+        }
+        return state(slot);
+    }
+
+    /**
+     * Copies a value to the table, unless it already has a slot there, even a tombstone
+     */
+    private void copy(Table t, int value) {
+        retry:
+        for (; ; ) {
+            int mask = t.slots.length() - 1;
+            int index = indexFor(value, t.slots.length());
+            for (int probes = 0; probes <= mask; ) {
+                long slot = t.slots.get(index);
+                int state = state(slot);
+                if (state == EMPTY) {
+                    if (t.slots.compareAndSet(index, slot, pack(FULL, value))) {
+                        t.used.increment();
+                        return;
+                    }
+                    continue;
+                }
+                if (state == (EMPTY | FROZEN)) {
+                    t = moveProbeSequence(t, value);
+                    continue retry;
+                }
+                if ((int) slot == value) {
+                    return;
+                }
+                index = (index + 1) & mask;
+                ++probes;
+            }
+            resize(t);
+            t = moveProbeSequence(t, value);
+        }
+    }
+
+    /**
+     * @return the last table of the chain, after all values of the tables before it were moved to it
+     */
+    private Table finishResizes() {
+        Table t = head;
+        while (t.next.get() != null) {
+            while (transferChunk(t)) {
+                // take over the chunks nobody has taken yet
+            }
+            // chunks taken by other threads may still be in progress
+            for (int i = 0; i < t.slots.length(); i++) {
+                moveSlot(t, i);
+            }
+            t = t.next.get();
+        }
+        return t;
+    }
+
+    private static int state(long slot) {
+        return (int) (slot >>> 32);
+    }
+
+    private static long pack(int state, int value) {
+        return ((long) state << 32) | (value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return a spliterator of unknown size over the iterator, which is weakly consistent, so the size of
+     * the table when the stream starts isn't reported as exact
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliteratorUnknownSize(intIterator(),
+                Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /**
+     * The iterator first completes any resize in progress, then walks the slots of the resulting table.
+     * It is weakly consistent: it never throws {@link java.util.ConcurrentModificationException}, returns every
+     * value present during the whole iteration, and may or may not return values added or removed meanwhile.
+     */
+    @Override
+    public Iterator<Integer> iterator() {
+        return new SlotIterator(finishResizes());
+    }
+
+    /**
+     * Weakly consistent in the same way as {@link #iterator()}
+     */
+    @Override
+    public ReverseIterator reverseIterator() {
+        return new SlotReverseIterator(finishResizes());
+    }
+
+    private static final class Table {
+        final AtomicLongArray slots;
+        final int threshold;
+
+        /**
+         * Number of values in the table and all tables linked to it, shared by all of them
+         */
+        final LongAdder size;
+
+        /**
+         * Number of slots that are not empty
+         */
+        final LongAdder used = new LongAdder();
+        final AtomicReference<Table> next = new AtomicReference<>();
+
+        /**
+         * Start of the next chunk to be moved, chunks before it are taken
+         */
+        final AtomicInteger transferIndex = new AtomicInteger();
+        final AtomicInteger transferred = new AtomicInteger();
+        volatile boolean moved;
+
+        Table(int capacity, LongAdder size) {
+            slots = new AtomicLongArray(capacity);
+            threshold = (int) (capacity * MAX_LOAD_FACTOR);
+            this.size = size;
+        }
+    }
+
+    private class SlotIterator implements Iterator<Integer> {
+        private final Table table;
+
+        /**
+         * The next slot to be inspected
+         */
+        private int index;
+
+        /**
+         * The value found by {@link #hasNext}, read ahead so it is returned even if it is removed meanwhile
+         */
+        private Integer nextValue;
+        private Integer lastReturned;
+
+        SlotIterator(Table table) {
+            this.table = table;
+            index = 0;
+            nextValue = null;
+            lastReturned = null;
+        }
+
+        /**
+         * Returns {@code true} if the iteration has more elements.
+         * (In other words, returns {@code true} if {@link #next} would
+         * return an element rather than throwing an exception.)
+         *
+         * @return {@code true} if the iteration has more elements
+         */
+        @Override
+        public boolean hasNext() {
+            while (nextValue == null && index < table.slots.length()) {
+                long slot = table.slots.get(index++);
+                if ((state(slot) & ~FROZEN) == FULL) {
+                    nextValue = (int) slot;
+                }
+            }
+            return nextValue != null;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            lastReturned = nextValue;
+            nextValue = null;
+            return lastReturned;
+        }
+
+        /**
+         * Removes from the table the last element returned by this iterator.
+         * This method can be called only once per call to {@link #next}.
+         *
+         * @throws IllegalStateException if the {@code next} method has not
+         *                               yet been called, or the {@code remove} method has already
+         *                               been called after the last call to the {@code next}
+         *                               method
+         */
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+            }
+            LockFreeHashTable.this.remove(lastReturned);
+            lastReturned = null;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Objects.requireNonNull(action);
+            while (hasNext()) {
+                action.accept(next());
+            }
+        }
+    }
+
+    private class SlotReverseIterator implements ReverseIterator {
+        private final Table table;
+        private int index;
+        private Integer previousValue;
+        private Integer lastReturned;
+
+        SlotReverseIterator(Table table) {
+            this.table = table;
+            index = table.slots.length() - 1;
+            previousValue = null;
+            lastReturned = null;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            while (previousValue == null && index >= 0) {
+                long slot = table.slots.get(index--);
+                if ((state(slot) & ~FROZEN) == FULL) {
+                    previousValue = (int) slot;
+                }
+            }
+            return previousValue != null;
+        }
+
+        @Override
+        public Integer previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            lastReturned = previousValue;
+            previousValue = null;
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException("Previous wasn't called or remove was already called after the last previous");
+            }
+            LockFreeHashTable.this.remove(lastReturned);
+            lastReturned = null;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            Objects.requireNonNull(action);
+            while (hasPrevious()) {
+                action.accept(previous());
+            }
+        }
+    }
+}
@@ -0,0 +1,532 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Linear probing hash table whose slots live in a memory-mapped file, so the table outlives the process
+ * and is opened again without reading or rehashing its values.
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes: a magic number, the format version,
+ * the id of the hash function, the indexing mode, the capacity, the number of values and tombstones,
+ * the growth factor, the minimum and the initial capacity and the load factors. The slot states
+ * (one byte each) and the values (four bytes each) follow. Every update writes the mapped slots and the header in place,
+ * so opening a file only checks its header and maps it.
+ * <p>
+ * The operating system writes the changes back to the file on its own, also after the process exits.
+ * {@link #force()} writes them right away, for durability across a crash of the machine.
+ * A resize writes a complete table of the new capacity to a temporary file next to the table's one,
+ * forces it and renames it over the old file atomically, so the file always holds a whole table.
+ * <p>
+ * The hash function is recorded by its id, see {@link HashFunctions.Standard}. Tables using any other
+ * function record id 0 and have to be opened with the same function again. The table has to be closed
+ * once it isn't needed anymore, any use of a closed table throws {@link IllegalStateException}.
+ * I/O errors during updates are thrown as {@link UncheckedIOException}.
+ */
+public class MappedHashTable extends OpenAddressingHashTable implements AutoCloseable {
+    public static final int MAGIC = 0x48544D50;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+
+    /**
+     * Largest capacity whose slots fit a single mapping
+     */
+    public static final int MAX_CAPACITY = 1 << 28;
+
+    /**
+     * Load factors used unless the table's {@link SizingPolicy} sets others
+     */
+    public static final double MAX_LOAD_FACTOR = 0.5;
+    public static final double MIN_LOAD_FACTOR = 0.125;
+
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int HASH_FUNCTION_OFFSET = 8;
+    private static final int INDEXING_MODE_OFFSET = 12;
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 20;
+    private static final int TOMBSTONES_OFFSET = 24;
+    private static final int GROWTH_FACTOR_OFFSET = 28;
+    private static final int MIN_CAPACITY_OFFSET = 32;
+    private static final int INITIAL_CAPACITY_OFFSET = 36;
+    private static final int MAX_LOAD_FACTOR_OFFSET = 40;
+    private static final int MIN_LOAD_FACTOR_OFFSET = 48;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte REMOVED = 2;
+
+    private final Path file;
+    private final double maxLoadFactor;
+    private final double minLoadFactor;
+    private final int growthFactor;
+    private final int minCapacity;
+    private final int initialCapacity;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int tombstones;
+
+    private MappedHashTable(Path file, FileChannel channel, MappedByteBuffer buffer, IntHashFunction hashFunction) {
+        super(hashFunction, IndexingMode.values()[buffer.getInt(INDEXING_MODE_OFFSET)]);
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        capacity = buffer.getInt(CAPACITY_OFFSET);
+        size = buffer.getInt(SIZE_OFFSET);
+        tombstones = buffer.getInt(TOMBSTONES_OFFSET);
+        growthFactor = buffer.getInt(GROWTH_FACTOR_OFFSET);
+        minCapacity = buffer.getInt(MIN_CAPACITY_OFFSET);
+        initialCapacity = buffer.getInt(INITIAL_CAPACITY_OFFSET);
+        maxLoadFactor = buffer.getDouble(MAX_LOAD_FACTOR_OFFSET);
+        minLoadFactor = buffer.getDouble(MIN_LOAD_FACTOR_OFFSET);
+    }
+
+    /**
+     * Creates an empty table hashing with {@link HashFunctions.Standard#CUSTOM}, replacing the file if it exists.
+     *
+     * @param file the file holding the table
+     * @return the new table
+     * @throws IOException if the file can't be written
+     */
+    public static MappedHashTable create(Path file) throws IOException {
+        return create(file, HashFunctions.Standard.CUSTOM);
+    }
+
+    /**
+     * @param file         the file holding the table, replaced if it exists
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @return the new table
+     * @throws IOException if the file can't be written
+     */
+    public static MappedHashTable create(Path file, IntHashFunction hashFunction) throws IOException {
+        return create(file, hashFunction, IndexingMode.MASK, SizingPolicy.DEFAULT);
+    }
+
+    /**
+     * @param file         the file holding the table, replaced if it exists
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     * @param sizing       the initial capacity and the resizing rules of the table, recorded in the file
+     * @return the new table
+     * @throws IOException              if the file can't be written
+     * @throws IllegalArgumentException if an argument is null or the maximum load factor isn't less than 1
+     */
+    public static MappedHashTable create(Path file, IntHashFunction hashFunction, IndexingMode indexingMode,
+                                         SizingPolicy sizing) throws IOException {
+        if (file == null || hashFunction == null || indexingMode == null || sizing == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        SizingPolicy resolved = sizing.withDefaults(MAX_LOAD_FACTOR, MIN_LOAD_FACTOR, 1);
+        int capacity = Math.min(resolved.initialCapacity(), MAX_CAPACITY);
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = map(channel, capacity);
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(VERSION_OFFSET, VERSION);
+            buffer.putInt(HASH_FUNCTION_OFFSET, HashFunctions.Standard.idOf(hashFunction));
+            buffer.putInt(INDEXING_MODE_OFFSET, indexingMode.ordinal());
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.putInt(GROWTH_FACTOR_OFFSET, resolved.growthFactor());
+            buffer.putInt(MIN_CAPACITY_OFFSET, resolved.minCapacity());
+            buffer.putInt(INITIAL_CAPACITY_OFFSET, capacity);
+            buffer.putDouble(MAX_LOAD_FACTOR_OFFSET, resolved.maxLoadFactor());
+            buffer.putDouble(MIN_LOAD_FACTOR_OFFSET, resolved.minLoadFactor());
+            return new MappedHashTable(file, channel, buffer, hashFunction);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a table written with one of the {@link HashFunctions.Standard} functions.
+     *
+     * @param file the file holding the table
+     * @return the table, with the values it had when the file was last written
+     * @throws IOException if the file can't be read, isn't a table or was written with another hash function
+     */
+    public static MappedHashTable open(Path file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * @param file         the file holding the table
+     * @param hashFunction the function the table was created with, null to take the one recorded in the file
+     * @return the table, with the values it had when the file was last written
+     * @throws IOException if the file can't be read, isn't a table or was written with another hash function
+     */
+    public static MappedHashTable open(Path file, IntHashFunction hashFunction) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a hash table file: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            checkHeader(header, channel.size(), file);
+            int id = header.getInt(HASH_FUNCTION_OFFSET);
+            if (hashFunction == null) {
+                if (id == 0) {
+                    throw new IOException("The table was created with an unregistered hash function, "
+                            + "it has to be opened with the same function: " + file);
+                }
+                hashFunction = HashFunctions.Standard.byId(id);
+            } else if (HashFunctions.Standard.idOf(hashFunction) != id) {
+                throw new IOException("The table was created with another hash function: " + file);
+            }
+            MappedByteBuffer buffer = map(channel, header.getInt(CAPACITY_OFFSET));
+            DirectBuffers.free(header);
+            return new MappedHashTable(file, channel, buffer, hashFunction);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void checkHeader(MappedByteBuffer header, long fileSize, Path file) throws IOException {
+        if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IOException("Not a hash table file: " + file);
+        }
+        if (header.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("Unsupported hash table file version " + header.getInt(VERSION_OFFSET) + ": " + file);
+        }
+        int capacity = header.getInt(CAPACITY_OFFSET);
+        int size = header.getInt(SIZE_OFFSET);
+        int tombstones = header.getInt(TOMBSTONES_OFFSET);
+        int indexingMode = header.getInt(INDEXING_MODE_OFFSET);
+        int initialCapacity = header.getInt(INITIAL_CAPACITY_OFFSET);
+        if (!validCapacity(capacity) || !validCapacity(initialCapacity)
+                || header.getInt(GROWTH_FACTOR_OFFSET) < 2 || fileSize != fileSize(capacity)
+                || size < 0 || tombstones < 0 || (long) size + tombstones >= capacity
+                || indexingMode < 0 || indexingMode >= IndexingMode.values().length) {
+            throw new IOException("Corrupted hash table file: " + file);
+        }
+    }
+
+    private static boolean validCapacity(int capacity) {
+        return capacity >= 2 && capacity <= MAX_CAPACITY && Integer.bitCount(capacity) == 1;
+    }
+
+    private static long fileSize(int capacity) {
+        return HEADER_SIZE + (long) capacity * (1 + Integer.BYTES);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, int capacity) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(capacity));
+    }
+
+    /**
+     * @return the file holding the table
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * @return the number of slots of the table
+     */
+    public int capacity() {
+        ensureOpen();
+        return capacity;
+    }
+
+    /**
+     * Writes all changes of the table to the file before returning
+     */
+    public void force() {
+        ensureOpen();
+        buffer.force();
+    }
+
+    /**
+     * Unmaps the file without forcing the changes, the operating system still writes them back.
+     * Calling it again has no effect.
+     *
+     * @throws UncheckedIOException if the file can't be closed
+     */
+    @Override
+    public void close() {
+        if (buffer == null) {
+            return;
+        }
+        DirectBuffers.free(buffer);
+        buffer = null;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public int size() {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public boolean empty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        ensureOpen();
+        rebuild(initialCapacity, false);
+        modCount = 0;
+    }
+
+    /**
+     * Exchanges the values of the tables. Unlike the other tables, the files aren't exchanged,
+     * every table stays bound to its own file.
+     *
+     * @param other the hash table with which to exchange the contents
+     * @throws IllegalArgumentException if the argument is null
+     */
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        ensureOpen();
+        int[] otherValues = new int[other.size()];
+        int count = 0;
+        for (Integer value : other) {
+            otherValues[count++] = value;
+        }
+
+        other.clear();
+        for (Integer value : this) {
+            other.add(value);
+        }
+        clear();
+        for (int value : otherValues) {
+            add(value);
+        }
+    }
+
+    @Override
+    public boolean add(int value) {
+        ensureOpen();
+        int index = indexFor(value, capacity);
+        int firstRemoved = -1;
+        byte state;
+        while ((state = stateAt(index)) != EMPTY) {
+            if (state == OCCUPIED) {
+                if (valueAt(index) == value) {
+                    return false;
+                }
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = nextIndex(index);
+        }
+        if (firstRemoved < 0 && size + tombstones + 1 >= capacity) {
+            throw new IllegalStateException("The table is full");
+        }
+
+        if (firstRemoved >= 0) {
+            index = firstRemoved;
+            --tombstones;
+        }
+        put(buffer, capacity, index, value);
+        ++size;
+        writeCounts();
+
+        // with a maximum load factor close to 1 it grows before the next insertion could take the last empty slot
+        if ((double) (size + tombstones) / capacity >= maxLoadFactor || size + tombstones + 1 >= capacity) {
+            int grown = (int) Math.min((long) capacity * growthFactor, MAX_CAPACITY);
+            if (tombstones >= size || grown == capacity) {
+                if (tombstones > 0) {
+                    rebuild(capacity, true);
+                }
+            } else {
+                rebuild(grown, true);
+            }
+        }
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!removeWithoutResizing(value)) {
+            return false;
+        }
+        if (capacity / growthFactor >= minCapacity && capacity / growthFactor >= DEFAULT_CAPACITY
+                && (double) size / capacity <= minLoadFactor) {
+            rebuild(capacity / growthFactor, true);
+        }
+        return true;
+    }
+
+    /**
+     * Removing through an iterator doesn't shrink the table, so the iterator can continue from the same slot
+     */
+    @Override
+    protected boolean removeIterated(int value) {
+        removeWithoutResizing(value);
+        return false;
+    }
+
+    private boolean removeWithoutResizing(int value) {
+        ensureOpen();
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        // a removed value leaves a tombstone, unless no lookup has to continue past its slot
+        if (stateAt(nextIndex(index)) == EMPTY) {
+            setState(index, EMPTY);
+            for (int i = previousIndex(index); stateAt(i) == REMOVED; i = previousIndex(i)) {
+                setState(i, EMPTY);
+                --tombstones;
+            }
+        } else {
+            setState(index, REMOVED);
+            ++tombstones;
+        }
+        --size;
+        writeCounts();
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        ensureOpen();
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * @return the slot holding the value or -1 if the value is not in the table
+     */
+    private int indexOf(int value) {
+        int index = indexFor(value, capacity);
+        byte state;
+        while ((state = stateAt(index)) != EMPTY) {
+            if (state == OCCUPIED && valueAt(index) == value) {
+                return index;
+            }
+            index = nextIndex(index);
+        }
+        return -1;
+    }
+
+    /**
+     * Writes the table with the given capacity to a temporary file, then renames it over the file of the table
+     *
+     * @param keepValues whether the values are copied, otherwise the new table is empty
+     */
+    private void rebuild(int newCapacity, boolean keepValues) {
+        Path temp = file.resolveSibling(file.getFileName() + ".resize");
+        try {
+            FileChannel newChannel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer newBuffer;
+            try {
+                newBuffer = map(newChannel, newCapacity);
+                for (int offset = 0; offset < HEADER_SIZE; offset += Long.BYTES) {
+                    newBuffer.putLong(offset, buffer.getLong(offset));
+                }
+                newBuffer.putInt(CAPACITY_OFFSET, newCapacity);
+                newBuffer.putInt(SIZE_OFFSET, keepValues ? size : 0);
+                newBuffer.putInt(TOMBSTONES_OFFSET, 0);
+                if (keepValues) {
+                    for (int slot = 0; slot < capacity; slot++) {
+                        if (stateAt(slot) == OCCUPIED) {
+                            insert(newBuffer, newCapacity, valueAt(slot));
+                        }
+                    }
+                }
+                newBuffer.force();
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                newChannel.close();
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+
+            DirectBuffers.free(buffer);
+            channel.close();
+            channel = newChannel;
+            buffer = newBuffer;
+            capacity = newCapacity;
+            tombstones = 0;
+            if (!keepValues) {
+                size = 0;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stores the value in the first empty slot of its probe sequence in a table without tombstones
+     */
+    private void insert(MappedByteBuffer target, int targetCapacity, int value) {
+        int index = indexFor(value, targetCapacity);
+        while (target.get(HEADER_SIZE + index) != EMPTY) {
+            index = (index + 1) & (targetCapacity - 1);
+        }
+        put(target, targetCapacity, index, value);
+    }
+
+    private static void put(MappedByteBuffer target, int targetCapacity, int slot, int value) {
+        target.putInt(HEADER_SIZE + targetCapacity + slot * Integer.BYTES, value);
+        target.put(HEADER_SIZE + slot, OCCUPIED);
+    }
+
+    private void writeCounts() {
+        buffer.putInt(SIZE_OFFSET, size);
+        buffer.putInt(TOMBSTONES_OFFSET, tombstones);
+    }
+
+    private byte stateAt(int slot) {
+        return buffer.get(HEADER_SIZE + slot);
+    }
+
+    private void setState(int slot, byte state) {
+        buffer.put(HEADER_SIZE + slot, state);
+    }
+
+    private int nextIndex(int index) {
+        return (index + 1) & (capacity - 1);
+    }
+
+    private int previousIndex(int index) {
+        return (index - 1) & (capacity - 1);
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("The table is closed");
+        }
+    }
+
+    @Override
+    protected int slotCount() {
+        ensureOpen();
+        return capacity;
+    }
+
+    @Override
+    protected boolean isOccupied(int slot) {
+        return stateAt(slot) == OCCUPIED;
+    }
+
+    @Override
+    protected int valueAt(int slot) {
+        return buffer.getInt(HEADER_SIZE + capacity + slot * Integer.BYTES);
+    }
+}
@@ -0,0 +1,298 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Minimal perfect hash function of a fixed set of values, built in the style of BBHash.
+ * <p>
+ * The values are hashed into a bit array of {@link #GAMMA} bits per value. Every bit hit by exactly one value
+ * is set, and these values are placed. The values that collided are hashed with the next seed into a smaller
+ * bit array, and so on, for at most {@link #MAX_LEVELS} levels. The few values left after the last level are
+ * kept in a sorted array. The hash of a placed value is the number of set bits before its bit, so the n values
+ * of the set get the hashes 0 to n - 1, each exactly once. With the rank samples this takes about
+ * 3.7 bits per value.
+ * <p>
+ * A value outside the set usually hits a cleared bit on every level and gets -1, but it may also get the
+ * hash of some value of the set. Tables built on this function store the values in the order of their
+ * hashes to tell them apart, see {@link PerfectHashTable}.
+ * <p>
+ * The levels are marked and filtered in parallel on the common {@link ForkJoinPool}. The function is
+ * immutable and can be shared between threads.
+ */
+public final class MinimalPerfectHashFunction implements IntHashFunction {
+    /**
+     * Bits of each level per value hashed into it
+     */
+    public static final double GAMMA = 2.0;
+
+    /**
+     * Levels tried before the remaining values are stored in the fallback array
+     */
+    public static final int MAX_LEVELS = 32;
+
+    /**
+     * Most values a function can be built for. The first level has {@link #GAMMA} bits per value, rounded up
+     * to whole words, and its size must stay a positive int: 2 * MAX_VALUES is the largest multiple of 64
+     * below 2^31.
+     */
+    public static final int MAX_VALUES = (1 << 30) - 32;
+
+    /**
+     * Values a fork/join task handles itself instead of splitting them
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * Words (of 64 bits) between two rank samples
+     */
+    private static final int SAMPLE_WORDS = 8;
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * The bits of all levels, one after another
+     */
+    private final long[] bits;
+
+    /**
+     * Index of the first bit of each level in {@link #bits}
+     */
+    private final long[] levelOffsets;
+
+    /**
+     * Number of bits of each level, always a multiple of 64
+     */
+    private final int[] levelSizes;
+
+    /**
+     * Number of set bits before every {@link #SAMPLE_WORDS}-th word
+     */
+    private final int[] rankSamples;
+
+    /**
+     * The values not placed on any level, sorted. They get the hashes after the placed values.
+     */
+    private final int[] fallback;
+    private final int fallbackStart;
+    private final int size;
+
+    private MinimalPerfectHashFunction(List<long[]> levels, int[] fallback) {
+        levelOffsets = new long[levels.size()];
+        levelSizes = new int[levels.size()];
+        int words = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            levelOffsets[level] = (long) words * Long.SIZE;
+            levelSizes[level] = levels.get(level).length * Long.SIZE;
+            words += levels.get(level).length;
+        }
+        bits = new long[words];
+        words = 0;
+        for (long[] level : levels) {
+            System.arraycopy(level, 0, bits, words, level.length);
+            words += level.length;
+        }
+
+        rankSamples = new int[(bits.length + SAMPLE_WORDS - 1) / SAMPLE_WORDS];
+        int rank = 0;
+        for (int word = 0; word < bits.length; word++) {
+            if (word % SAMPLE_WORDS == 0) {
+                rankSamples[word / SAMPLE_WORDS] = rank;
+            }
+            rank += Long.bitCount(bits[word]);
+        }
+
+        this.fallback = fallback;
+        fallbackStart = rank;
+        size = rank + fallback.length;
+    }
+
+    /**
+     * The source must not be modified while the function is built.
+     *
+     * @param source the table whose values get the hashes
+     * @return a function mapping the values of the source to 0 to {@code source.size() - 1}
+     * @throws IllegalArgumentException if the source is null or holds more than {@link #MAX_VALUES} values
+     */
+    public static MinimalPerfectHashFunction of(HashTable source) {
+        if (source == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] values = new int[source.size()];
+        int count = 0;
+        for (Integer value : source) {
+            values[count++] = value;
+        }
+        return of(values);
+    }
+
+    /**
+     * @param values distinct values, the array isn't modified
+     */
+    static MinimalPerfectHashFunction of(int[] values) {
+        if (values.length > MAX_VALUES) {
+            throw new IllegalArgumentException("Too many values for a minimal perfect hash function: " + values.length);
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        List<long[]> levels = new ArrayList<>();
+        int[] remaining = values;
+        for (int level = 0; level < MAX_LEVELS && remaining.length > 0; level++) {
+            int levelSize = levelSize(remaining.length);
+            long[] hit = new long[levelSize / Long.SIZE];
+            long[] collided = new long[levelSize / Long.SIZE];
+            pool.invoke(new MarkTask(remaining, 0, remaining.length, level, levelSize, hit, collided));
+            for (int word = 0; word < hit.length; word++) {
+                hit[word] &= ~collided[word];
+            }
+            levels.add(hit);
+            remaining = pool.invoke(new CollidedTask(remaining, 0, remaining.length, level, levelSize, collided));
+        }
+        int[] fallback = remaining.clone();
+        Arrays.sort(fallback);
+        return new MinimalPerfectHashFunction(levels, fallback);
+    }
+
+    /**
+     * @return the bits of a level holding the given number of values, rounded up to whole words
+     */
+    private static int levelSize(int values) {
+        long bitCount = Math.max(Long.SIZE, (long) Math.ceil(GAMMA * values));
+        return (int) ((bitCount + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+    }
+
+    /**
+     * @return the position of the value in a level, in [0, levelSize)
+     */
+    private static int position(int value, int level, int levelSize) {
+        return (int) ((Integer.toUnsignedLong(HashFunctions.seededHash(value, level)) * levelSize) >>> 32);
+    }
+
+    /**
+     * @return the number of values the function was built for
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param value the value to be hashed
+     * @return the hash of the value, in [0, size()) for every value of the set and also for some values
+     * outside of it, -1 for the other values
+     */
+    @Override
+    public int hash(int value) {
+        for (int level = 0; level < levelSizes.length; level++) {
+            long bit = levelOffsets[level] + position(value, level, levelSizes[level]);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) != 0) {
+                return rank(bit);
+            }
+        }
+        int index = Arrays.binarySearch(fallback, value);
+        return index >= 0 ? fallbackStart + index : -1;
+    }
+
+    /**
+     * @return the number of set bits before the given one
+     */
+    private int rank(long bit) {
+        int word = (int) (bit >>> 6);
+        int rank = rankSamples[word / SAMPLE_WORDS];
+        for (int i = word - word % SAMPLE_WORDS; i < word; i++) {
+            rank += Long.bitCount(bits[i]);
+        }
+        return rank + Long.bitCount(bits[word] & ((1L << bit) - 1));
+    }
+
+    /**
+     * Sets the bit of every value in {@code hit}, and in {@code collided} when it was already set
+     */
+    private static final class MarkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final int level;
+        private final int levelSize;
+        private final long[] hit;
+        private final long[] collided;
+
+        MarkTask(int[] values, int from, int to, int level, int levelSize, long[] hit, long[] collided) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.level = level;
+            this.levelSize = levelSize;
+            this.hit = hit;
+            this.collided = collided;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MarkTask(values, from, middle, level, levelSize, hit, collided),
+                        new MarkTask(values, middle, to, level, levelSize, hit, collided));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int position = position(values[i], level, levelSize);
+                long mask = 1L << position;
+                long previous = (long) WORDS.getAndBitwiseOr(hit, position >>> 6, mask);
+                if ((previous & mask) != 0) {
+                    WORDS.getAndBitwiseOr(collided, position >>> 6, mask);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects the values whose bit is set in {@code collided}, in their original order
+     */
+    private static final class CollidedTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final int level;
+        private final int levelSize;
+        private final long[] collided;
+
+        CollidedTask(int[] values, int from, int to, int level, int levelSize, long[] collided) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.level = level;
+            this.levelSize = levelSize;
+            this.collided = collided;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                CollidedTask right = new CollidedTask(values, middle, to, level, levelSize, collided);
+                right.fork();
+                int[] leftValues = new CollidedTask(values, from, middle, level, levelSize, collided).compute();
+                int[] rightValues = right.join();
+                int[] all = Arrays.copyOf(leftValues, leftValues.length + rightValues.length);
+                System.arraycopy(rightValues, 0, all, leftValues.length, rightValues.length);
+                return all;
+            }
+            int[] found = new int[to - from];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int position = position(values[i], level, levelSize);
+                if ((collided[position >>> 6] & (1L << position)) != 0) {
+                    found[count++] = values[i];
+                }
+            }
+            return Arrays.copyOf(found, count);
+        }
+    }
+}
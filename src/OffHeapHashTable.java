@@ -0,0 +1,617 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Linear probing hash table whose slots live outside the Java heap, for tables of billions of values
+ * the garbage collector shouldn't have to trace or copy.
+ * <p>
+ * The values and the slot states are kept in direct byte buffers, split into pages of
+ * {@link #PAGE_SLOTS} slots because a single buffer can't exceed 2^31 bytes. Slots are addressed
+ * by long indices, so the capacity can grow up to {@link #MAX_CAPACITY}, enough for every int value.
+ * Adding, removing and looking up values allocate nothing on the heap.
+ * <p>
+ * The memory is released by {@link #close()} (and when the table is rehashed), not by the garbage
+ * collector, so every table has to be closed once it isn't needed anymore. Any use of a closed table
+ * throws {@link IllegalStateException}. {@link #size()} saturates at {@link Integer#MAX_VALUE},
+ * {@link #longSize()} returns the exact number of values.
+ */
+public class OffHeapHashTable extends AbstractHashTable implements AutoCloseable {
+    public static final double MAX_LOAD_FACTOR = 0.5;
+    public static final double MIN_LOAD_FACTOR = 0.125;
+
+    /**
+     * Slots (of 4 bytes for the value and 1 for the state) of each full page
+     */
+    public static final int PAGE_SLOTS = 1 << 27;
+
+    /**
+     * Enough slots for all 2^32 int values at the maximum load factor. The hashes are mixed at this capacity,
+     * so the values spread over all the slots whatever the indexing mode.
+     */
+    public static final long MAX_CAPACITY = 1L << 33;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte REMOVED = 2;
+
+    private static final long FIBONACCI_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final int pageShift;
+    private final long pageMask;
+
+    private ByteBuffer[] valuePages;
+    private ByteBuffer[] statePages;
+    private long capacity;
+    private long count;
+    private long tombstones;
+    private int modCount;
+    private boolean closed;
+
+    public OffHeapHashTable() {
+        this(HashFunctions.Standard.CUSTOM, IndexingMode.MASK);
+    }
+
+    public OffHeapHashTable(IntHashFunction hashFunction) {
+        this(hashFunction, IndexingMode.MASK);
+    }
+
+    public OffHeapHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     */
+    public OffHeapHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
+        this(hashFunction, indexingMode, 0);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     * @param expectedSize the number of values the table is allocated for, so it doesn't grow while it is filled
+     * @throws IllegalArgumentException if the expected size is negative or more than 2^32
+     */
+    public OffHeapHashTable(IntHashFunction hashFunction, IndexingMode indexingMode, long expectedSize) {
+        this(hashFunction, indexingMode, expectedSize, Integer.numberOfTrailingZeros(PAGE_SLOTS));
+    }
+
+    /**
+     * @param pageShift log2 of the slots per page, smaller pages let tests span several pages with few values
+     */
+    OffHeapHashTable(IntHashFunction hashFunction, IndexingMode indexingMode, long expectedSize, int pageShift) {
+        super(hashFunction, indexingMode);
+        if (expectedSize < 0 || expectedSize > 1L << 32) {
+            throw new IllegalArgumentException("The expected size must be in [0, 2^32]: " + expectedSize);
+        }
+        this.pageShift = pageShift;
+        pageMask = (1L << pageShift) - 1;
+        long initialCapacity = DEFAULT_CAPACITY;
+        while (initialCapacity < MAX_CAPACITY && expectedSize >= initialCapacity * MAX_LOAD_FACTOR) {
+            initialCapacity *= RESIZE_FACTOR;
+        }
+        allocate(initialCapacity);
+    }
+
+    /**
+     * @return the number of values of the table
+     */
+    public long longSize() {
+        ensureOpen();
+        return count;
+    }
+
+    /**
+     * @return the number of values of the table, or {@link Integer#MAX_VALUE} if there are more
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(longSize(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean empty() {
+        return longSize() == 0;
+    }
+
+    /**
+     * @return the number of slots of the table
+     */
+    public long capacity() {
+        ensureOpen();
+        return capacity;
+    }
+
+    /**
+     * Releases the memory of the table. Calling it again has no effect.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            DirectBuffers.free(valuePages);
+            DirectBuffers.free(statePages);
+            valuePages = null;
+            statePages = null;
+            closed = true;
+        }
+    }
+
+    @Override
+    public void clear() {
+        ensureOpen();
+        DirectBuffers.free(valuePages);
+        DirectBuffers.free(statePages);
+        allocate(DEFAULT_CAPACITY);
+        modCount = 0;
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        ensureOpen();
+        if (other instanceof OffHeapHashTable offHeapOther) {
+            swap(offHeapOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    /**
+     * The page size is final, so tables built with different page sizes exchange their contents instead
+     */
+    private void swap(OffHeapHashTable other) {
+        other.ensureOpen();
+        if (pageShift != other.pageShift) {
+            swapContent(other);
+            return;
+        }
+
+        ByteBuffer[] tempPages = valuePages;
+        valuePages = other.valuePages;
+        other.valuePages = tempPages;
+
+        tempPages = statePages;
+        statePages = other.statePages;
+        other.statePages = tempPages;
+
+        IntHashFunction tempFunc = hash;
+        hash = other.hash;
+        other.hash = tempFunc;
+
+        IndexingMode tempMode = indexingMode;
+        indexingMode = other.indexingMode;
+        other.indexingMode = tempMode;
+
+        long temp = capacity;
+        capacity = other.capacity;
+        other.capacity = temp;
+
+        temp = count;
+        count = other.count;
+        other.count = temp;
+
+        temp = tombstones;
+        tombstones = other.tombstones;
+        other.tombstones = temp;
+
+        int tempModCount = modCount;
+        modCount = other.modCount;
+        other.modCount = tempModCount;
+    }
+
+    private void swapContent(HashTable other) {
+        try (OffHeapHashTable temp = new OffHeapHashTable(hash, indexingMode, 0, pageShift)) {
+            for (Integer integer : other) {
+                temp.add(integer);
+            }
+
+            other.clear();
+            for (Integer integer : this) {
+                other.add(integer);
+            }
+
+            // the temporary table leaves with the old pages of this one and frees them
+            swap(temp);
+        }
+    }
+
+    @Override
+    public boolean add(int value) {
+        ensureOpen();
+        long index = indexOf(value);
+        long firstRemoved = -1;
+        byte state;
+        while ((state = stateAt(index)) != EMPTY) {
+            if (state == OCCUPIED) {
+                if (valueAt(index) == value) {
+                    return false;
+                }
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = nextIndex(index);
+        }
+
+        if (firstRemoved >= 0) {
+            index = firstRemoved;
+            --tombstones;
+        }
+        put(index, value);
+        ++count;
+
+        if (count + tombstones >= capacity * MAX_LOAD_FACTOR) {
+            if (tombstones >= count || capacity == MAX_CAPACITY) {
+                rehash(capacity);
+            } else {
+                rehash(capacity * RESIZE_FACTOR);
+            }
+        }
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!removeWithoutResizing(value)) {
+            return false;
+        }
+        if (capacity / RESIZE_FACTOR >= DEFAULT_CAPACITY && count <= capacity * MIN_LOAD_FACTOR) {
+            rehash(capacity / RESIZE_FACTOR);
+        }
+        return true;
+    }
+
+    private boolean removeWithoutResizing(int value) {
+        ensureOpen();
+        long index = find(value);
+        if (index < 0) {
+            return false;
+        }
+        // a removed value leaves a tombstone, unless no lookup has to continue past its slot
+        if (stateAt(nextIndex(index)) == EMPTY) {
+            setState(index, EMPTY);
+            for (long i = previousIndex(index); stateAt(i) == REMOVED; i = previousIndex(i)) {
+                setState(i, EMPTY);
+                --tombstones;
+            }
+        } else {
+            setState(index, REMOVED);
+            ++tombstones;
+        }
+        --count;
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        ensureOpen();
+        return find(value) >= 0;
+    }
+
+    /**
+     * @return the slot holding the value or -1 if the value is not in the table
+     */
+    private long find(int value) {
+        long index = indexOf(value);
+        byte state;
+        while ((state = stateAt(index)) != EMPTY) {
+            if (state == OCCUPIED && valueAt(index) == value) {
+                return index;
+            }
+            index = nextIndex(index);
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the values to new pages of the given capacity and frees the old ones
+     */
+    private void rehash(long newCapacity) {
+        ByteBuffer[] oldValuePages = valuePages;
+        ByteBuffer[] oldStatePages = statePages;
+        long oldCapacity = capacity;
+        long oldCount = count;
+        allocate(newCapacity);
+        for (long slot = 0; slot < oldCapacity; slot++) {
+            int offset = (int) (slot & pageMask);
+            if (oldStatePages[(int) (slot >>> pageShift)].get(offset) == OCCUPIED) {
+                int value = oldValuePages[(int) (slot >>> pageShift)].getInt(offset << 2);
+                long index = indexOf(value);
+                while (stateAt(index) != EMPTY) {
+                    index = nextIndex(index);
+                }
+                put(index, value);
+            }
+        }
+        count = oldCount;
+        DirectBuffers.free(oldValuePages);
+        DirectBuffers.free(oldStatePages);
+    }
+
+    /**
+     * Replaces the pages with empty ones of the given capacity
+     */
+    private void allocate(long newCapacity) {
+        int pageSlots = (int) Math.min(newCapacity, 1L << pageShift);
+        int pages = (int) (newCapacity / pageSlots);
+        valuePages = new ByteBuffer[pages];
+        statePages = new ByteBuffer[pages];
+        for (int page = 0; page < pages; page++) {
+            valuePages[page] = ByteBuffer.allocateDirect(pageSlots * Integer.BYTES).order(ByteOrder.nativeOrder());
+            statePages[page] = ByteBuffer.allocateDirect(pageSlots);
+        }
+        capacity = newCapacity;
+        count = 0;
+        tombstones = 0;
+    }
+
+    private long indexOf(int value) {
+        return indexFor(hash.hash(value), indexingMode, capacity);
+    }
+
+    /**
+     * Masking a 32 bit hash only reaches the first 2^32 slots, so above that capacity the hash is always
+     * mixed to 64 bits, as in the Fibonacci mode
+     */
+    static long indexFor(int hash, IndexingMode indexingMode, long capacity) {
+        long h = Integer.toUnsignedLong(hash);
+        if (indexingMode == IndexingMode.FIBONACCI || capacity > 1L << 32) {
+            return (h * FIBONACCI_MULTIPLIER) >>> (Long.numberOfLeadingZeros(capacity) + 1);
+        }
+        return h & (capacity - 1);
+    }
+
+    private long nextIndex(long index) {
+        return (index + 1) & (capacity - 1);
+    }
+
+    private long previousIndex(long index) {
+        return (index - 1) & (capacity - 1);
+    }
+
+    private byte stateAt(long slot) {
+        return statePages[(int) (slot >>> pageShift)].get((int) (slot & pageMask));
+    }
+
+    private void setState(long slot, byte state) {
+        statePages[(int) (slot >>> pageShift)].put((int) (slot & pageMask), state);
+    }
+
+    private int valueAt(long slot) {
+        return valuePages[(int) (slot >>> pageShift)].getInt((int) (slot & pageMask) << 2);
+    }
+
+    private void put(long slot, int value) {
+        valuePages[(int) (slot >>> pageShift)].putInt((int) (slot & pageMask) << 2, value);
+        setState(slot, OCCUPIED);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The table is closed");
+        }
+    }
+
+    /**
+     * Scans the pages directly, the modification count is checked once, after the scan. Closing the table
+     * is checked after each value, since its pages are freed.
+     */
+    @Override
+    public void forEachInt(IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        ensureOpen();
+        int expectedModCount = modCount;
+        for (long slot = 0; slot < capacity; slot++) {
+            if (stateAt(slot) == OCCUPIED) {
+                action.accept(valueAt(slot));
+                ensureOpen();
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException(
+                    "There have been a structural modification made that " +
+                            " might cause the current operation to give incorrect results."
+            );
+        }
+    }
+
+    /**
+     * Reports {@link #longSize()} as the exact size, {@link #size()} stops at {@link Integer#MAX_VALUE}
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(intIterator(), longSize(), Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return intIterator();
+    }
+
+    @Override
+    public IntIterator intIterator() {
+        ensureOpen();
+        return new SlotIterator();
+    }
+
+    @Override
+    public ReverseIterator reverseIterator() {
+        return primitiveReverseIterator();
+    }
+
+    @Override
+    public PrimitiveReverseIterator primitiveReverseIterator() {
+        ensureOpen();
+        return new SlotReverseIterator();
+    }
+
+    /**
+     * Removals through the iterators never move values or shrink the table,
+     * so the iteration continues from the same slot
+     */
+    private class SlotIterator implements IntIterator {
+        private long index;
+        private long lastReturned;
+        private long visited;
+        private int lastModCount;
+
+        SlotIterator() {
+            index = -1;
+            lastReturned = -1;
+            visited = 0;
+            lastModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            return visited < count;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            do {
+                ++index;
+            } while (stateAt(index) != OCCUPIED);
+            ++visited;
+            lastReturned = index;
+            return valueAt(index);
+        }
+
+        /**
+         * @throws IllegalStateException if the {@code next} method has not yet been called,
+         *                               or the remove method has already been called after the last call to the next method.
+         */
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned < 0) {
+                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+            }
+            removeWithoutResizing(valueAt(lastReturned));
+            --visited;
+            lastReturned = -1;
+            lastModCount = modCount;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            checkForComodification();
+            while (visited < count && index + 1 < capacity) {
+                ++index;
+                if (stateAt(index) == OCCUPIED) {
+                    ++visited;
+                    lastReturned = index;
+                    action.accept(valueAt(index));
+                    ensureOpen();
+                }
+            }
+            checkForComodification();
+        }
+
+        private void checkForComodification() {
+            ensureOpen();
+            if (modCount != lastModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+    }
+
+    private class SlotReverseIterator implements PrimitiveReverseIterator {
+        private long index;
+        private long lastReturned;
+        private long visited;
+        private int lastModCount;
+
+        SlotReverseIterator() {
+            index = capacity;
+            lastReturned = -1;
+            visited = 0;
+            lastModCount = modCount;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            checkForComodification();
+            return visited < count;
+        }
+
+        @Override
+        public int previousInt() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no previous element");
+            }
+            do {
+                --index;
+            } while (stateAt(index) != OCCUPIED);
+            ++visited;
+            lastReturned = index;
+            return valueAt(index);
+        }
+
+        @Override
+        public void remove() {
+            checkForComodification();
+            if (lastReturned < 0) {
+                throw new IllegalStateException("Previous wasn't called or remove was already called after the last previous");
+            }
+            removeWithoutResizing(valueAt(lastReturned));
+            --visited;
+            lastReturned = -1;
+            lastModCount = modCount;
+        }
+
+        @Override
+        public void forEachRemainingInt(IntConsumer action) {
+            Objects.requireNonNull(action);
+            checkForComodification();
+            while (visited < count && index > 0) {
+                --index;
+                if (stateAt(index) == OCCUPIED) {
+                    ++visited;
+                    lastReturned = index;
+                    action.accept(valueAt(index));
+                    ensureOpen();
+                }
+            }
+            checkForComodification();
+        }
+
+        private void checkForComodification() {
+            ensureOpen();
+            if (modCount != lastModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,543 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Base for hash tables that keep their values directly in an array of slots.
+ * Implementations describe their slots and get fail-fast iterators walking them in index order.
+ */
+public abstract class OpenAddressingHashTable extends AbstractHashTable {
+    protected int modCount;
+
+    public OpenAddressingHashTable() {
+        modCount = 0;
+    }
+
+    public OpenAddressingHashTable(IntHashFunction hashFunction) {
+        super(hashFunction);
+        modCount = 0;
+    }
+
+    public OpenAddressingHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
+        super(hashFunction, indexingMode);
+        modCount = 0;
+    }
+
+    public OpenAddressingHashTable(Function<Integer, Integer> hashFunction) {
+        super(hashFunction);
+        modCount = 0;
+    }
+
+    /**
+     * @return the number of slots of the table
+     */
+    protected abstract int slotCount();
+
+    /**
+     * @param slot index of a slot, in [0, slotCount())
+     * @return true if the slot holds a value of the table
+     */
+    protected abstract boolean isOccupied(int slot);
+
+    /**
+     * @param slot index of an occupied slot
+     * @return the value held in the slot
+     */
+    protected abstract int valueAt(int slot);
+
+    /**
+     * Removes a value returned by an iterator of this table, without resizing it, so that the iterator
+     * can continue over the same slots. The emptied slot and the slots following it may be refilled with
+     * values taken from slots after them. If that range wraps around, the last slot takes the value of slot 0,
+     * no other value is moved from the start to the end of the slots.
+     *
+     * @param value a value of the table
+     * @return true if the range wrapped around, the last slot then holds the value of slot 0
+     */
+    protected abstract boolean removeIterated(int value);
+
+    /**
+     * Copies the values straight from the slots, without boxing them
+     */
+    @Override
+    public int[] toArray(int[] array) {
+        if (array == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] values = array.length >= size ? array : new int[size];
+        int count = 0;
+        for (int slot = 0; slot < slotCount(); slot++) {
+            if (isOccupied(slot)) {
+                values[count++] = valueAt(slot);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Scans the slots directly, the modification count is checked once, after the scan
+     */
+    @Override
+    public void forEachInt(IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int expectedModCount = modCount;
+        for (int slot = 0; slot < slotCount(); slot++) {
+            if (isOccupied(slot)) {
+                action.accept(valueAt(slot));
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException(
+                    "There have been a structural modification made that " +
+                            " might cause the current operation to give incorrect results."
+            );
+        }
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new SlotIterator();
+    }
+
+    @Override
+    public IntIterator intIterator() {
+        return new SlotIterator();
+    }
+
+    /**
+     * @return Returns a reverse iterator, iterating the elements of the hashmap in reverse order
+     */
+    @Override
+    public ReverseIterator reverseIterator() {
+        return new SlotReverseIterator();
+    }
+
+    @Override
+    public PrimitiveReverseIterator primitiveReverseIterator() {
+        return new SlotReverseIterator();
+    }
+
+    /**
+     * @return a late-binding, fail-fast spliterator which splits the slots into halves. Only a spliterator
+     * which wasn't split knows its exact size, the others estimate it from their share of the slots.
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return new SlotSpliterator(0, -1, 0, 0);
+    }
+
+    private class SlotSpliterator implements Spliterator.OfInt {
+        private int index;
+        private int fence;
+        private int estimate;
+        private int expectedModCount;
+
+        /**
+         * @param fence the slot after the last one, -1 to bind to the table on first use
+         */
+        SlotSpliterator(int origin, int fence, int estimate, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                fence = slotCount();
+                estimate = size;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int high = getFence();
+            int low = index;
+            int middle = (low + high) >>> 1;
+            if (low >= middle) {
+                return null;
+            }
+            index = middle;
+            estimate >>>= 1;
+            return new SlotSpliterator(low, middle, estimate, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int high = getFence();
+            while (index < high && index < slotCount()) {
+                int slot = index++;
+                if (isOccupied(slot)) {
+                    action.accept(valueAt(slot));
+                    checkWhetherModCountHasNotChanged();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Scans the remaining slots, the modification count is checked once, after the scan
+         */
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int high = getFence();
+            for (int slot = index; slot < high && slot < slotCount(); slot++) {
+                if (isOccupied(slot)) {
+                    action.accept(valueAt(slot));
+                }
+            }
+            index = high;
+            checkWhetherModCountHasNotChanged();
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence();
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return (fence < 0 || estimate == size ? Spliterator.SIZED : 0) | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        private void checkWhetherModCountHasNotChanged() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+    }
+
+    private class SlotIterator implements IntIterator {
+        int elementsBeforeIndex;
+        int index;
+        int lastReturned;
+        int lastModCount;
+
+        public SlotIterator() {
+            lastModCount = OpenAddressingHashTable.this.modCount;
+            elementsBeforeIndex = 0;
+            index = -1;
+            lastReturned = -1;
+        }
+
+        /**
+         * Returns {@code true} if the iteration has more elements.
+         * (In other words, returns {@code true} if {@link #next} would
+         * return an element rather than throwing an exception.)
+         *
+         * @return {@code true} if the iteration has more elements
+         */
+        @Override
+        public boolean hasNext() {
+            checkWhetherModCountHasNotChanged();
+            return elementsBeforeIndex < size;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public int nextInt() {
+            checkWhetherModCountHasNotChanged();
+
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+
+            moveIndexToNextElement();
+            lastReturned = index;
+            return valueAt(index);
+        }
+
+        /**
+         * Removes from the underlying collection the last element returned
+         * by this iterator (optional operation).  This method can be called
+         * only once per call to {@link #next}.
+         * <p>
+         * The behavior of an iterator is unspecified if the underlying collection
+         * is modified while the iteration is in progress in any way other than by
+         * calling this method, unless an overriding class has specified a
+         * concurrent modification policy.
+         * <p>
+         * The behavior of an iterator is unspecified if this method is called
+         * after a call to the {@link #forEachRemaining forEachRemaining} method.
+         *
+         * @throws IllegalStateException if the {@code next} method has not yet been called,
+         *                               or the remove method has already been called after the last call to the next method.
+         */
+        @Override
+        public void remove() {
+            checkWhetherModCountHasNotChanged();
+
+            if (lastReturned < 0) {
+                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+            }
+
+            removeIterated(valueAt(lastReturned));
+            --elementsBeforeIndex;
+            // the removal may have moved a later element into the slot, it has to be visited as well. If the range
+            // wrapped around, the visited element of slot 0 went to the last slot. It is still counted
+            // in elementsBeforeIndex, so the iteration ends before reaching it.
+            index = lastReturned - 1;
+
+            lastModCount = OpenAddressingHashTable.this.modCount;
+            lastReturned = -1;
+        }
+
+        /**
+         * Performs the given action for each remaining element until all elements
+         * have been processed or the action throws an exception.  Actions are
+         * performed in the order of iteration, if that order is specified.
+         * Exceptions thrown by the action are relayed to the caller.
+         * <p>
+         * The behavior of an iterator is unspecified if the action modifies the
+         * collection in any way (even by calling the {@link #remove remove} method
+         * or other mutator methods of {@code Iterator} subtypes),
+         * unless an overriding class has specified a concurrent modification policy.
+         * <p>
+         * Subsequent behavior of an iterator is unspecified if the action throws an
+         * exception.
+         *
+         * @param action The action to be performed for each element
+         * @throws NullPointerException            if the specified action is null
+         * @throws ConcurrentModificationException There have been a structural modification made that
+         *                                         might cause the current operation to give incorrect results.
+         */
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            checkWhetherModCountHasNotChanged();
+
+            for (int slot = index + 1; slot < slotCount() && elementsBeforeIndex < size; slot++) {
+                if (isOccupied(slot)) {
+                    index = slot;
+                    ++elementsBeforeIndex;
+                    lastReturned = slot;
+                    action.accept(valueAt(slot));
+                }
+            }
+            checkWhetherModCountHasNotChanged();
+        }
+
+        private void checkWhetherModCountHasNotChanged() {
+            if (OpenAddressingHashTable.this.modCount != lastModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+
+        private void moveIndexToNextElement() {
+            for (int i = index + 1; i < slotCount(); i++) {
+                if (isOccupied(i)) {
+                    index = i;
+                    ++elementsBeforeIndex;
+                    return;
+                }
+            }
+        }
+    }
+
+    private class SlotReverseIterator implements PrimitiveReverseIterator {
+        int elementsAfterIndex;
+        int index;
+        int lastReturned;
+        int lastModCount;
+
+        /**
+         * Elements not visited yet which removals moved from slot 0 to the already visited last slot.
+         * They are returned after all the slots.
+         */
+        IntStack wrapped;
+        boolean lastWasWrapped;
+        int lastWrappedValue;
+
+        public SlotReverseIterator() {
+            lastModCount = OpenAddressingHashTable.this.modCount;
+            elementsAfterIndex = 0;
+            index = slotCount();
+            lastReturned = -1;
+        }
+
+        /**
+         * Returns {@code true} if the iteration has more elements.
+         * (In other words, returns {@code true} if {@link #previous} would
+         * return an element rather than throwing an exception.)
+         *
+         * @return {@code true} if the iteration has more elements
+         */
+        @Override
+        public boolean hasPrevious() {
+            checkWhetherModCountHasNotChanged();
+            return elementsAfterIndex < size;
+        }
+
+        /**
+         * Returns the previous element in the iteration.
+         *
+         * @return the previous element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public int previousInt() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no previous element");
+            }
+            checkWhetherModCountHasNotChanged();
+
+            ++elementsAfterIndex;
+            if (!moveIndexToPreviousElement()) {
+                lastWasWrapped = true;
+                lastWrappedValue = wrapped.pop();
+                return lastWrappedValue;
+            }
+            lastReturned = index;
+            return valueAt(index);
+        }
+
+        /**
+         * Removes from the underlying collection the last element returned
+         * by this iterator (optional operation).  This method can be called
+         * only once per call to {@link #previous()}.
+         * <p>
+         * The behavior of an iterator is unspecified if the underlying collection
+         * is modified while the iteration is in progress in any way other than by
+         * calling this method, unless an overriding class has specified a
+         * concurrent modification policy.
+         * <p>
+         * The behavior of an iterator is unspecified if this method is called
+         * after a call to the {@link #forEachRemaining forEachRemaining} method.
+         *
+         * @throws IllegalStateException if the {@code previous} method has not yet been called,
+         *                               or the remove method has already been called after the last call to the next method.
+         */
+        @Override
+        public void remove() {
+            checkWhetherModCountHasNotChanged();
+
+            if (lastWasWrapped) {
+                // all the slots were visited, the values the removal moves don't matter anymore
+                removeIterated(lastWrappedValue);
+            } else if (lastReturned >= 0) {
+                if (removeIterated(valueAt(lastReturned))) {
+                    // the element of slot 0 moved behind the iteration
+                    if (wrapped == null) {
+                        wrapped = new IntStack();
+                    }
+                    wrapped.push(valueAt(slotCount() - 1));
+                }
+            } else {
+                throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+            }
+            --elementsAfterIndex;
+
+            lastModCount = OpenAddressingHashTable.this.modCount;
+            lastReturned = -1;
+            lastWasWrapped = false;
+        }
+
+        /**
+         * Performs the given action for each remaining element until all elements
+         * have been processed or the action throws an exception. Actions are
+         * performed in the order of iteration, if that order is specified.
+         * Exceptions thrown by the action are relayed to the caller.
+         * <p>
+         * The behavior of an iterator is unspecified if the action modifies the
+         * collection in any way (even by calling the {@link #remove()} method
+         * or other mutator methods of {@code Iterator} subtypes),
+         * unless an overriding class has specified a concurrent modification policy.
+         * <p>
+         * Subsequent behavior of an iterator is unspecified if the action throws an
+         * exception.
+         *
+         * @param action The action to be performed for each element
+         * @throws NullPointerException            if the specified action is null
+         * @throws ConcurrentModificationException There have been a structural modification made that
+         *                                         might cause the current operation to give incorrect results.
+         */
+        @Override
+        public void forEachRemainingInt(IntConsumer action) {
+            Objects.requireNonNull(action);
+            checkWhetherModCountHasNotChanged();
+
+            for (int slot = index - 1; slot >= 0 && elementsAfterIndex < size; --slot) {
+                if (isOccupied(slot)) {
+                    index = slot;
+                    ++elementsAfterIndex;
+                    lastReturned = slot;
+                    action.accept(valueAt(slot));
+                }
+            }
+            while (wrapped != null && !wrapped.isEmpty() && elementsAfterIndex < size) {
+                ++elementsAfterIndex;
+                lastWasWrapped = true;
+                lastWrappedValue = wrapped.pop();
+                action.accept(lastWrappedValue);
+            }
+            checkWhetherModCountHasNotChanged();
+        }
+
+        private void checkWhetherModCountHasNotChanged() {
+            if (OpenAddressingHashTable.this.modCount != lastModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+
+        /**
+         * @return false if there is no previous occupied slot, the next element is then a wrapped one
+         */
+        private boolean moveIndexToPreviousElement() {
+            for (int i = index - 1; i >= 0; --i) {
+                if (isOccupied(i)) {
+                    index = i;
+                    return true;
+                }
+            }
+            index = -1;
+            return false;
+        }
+    }
+
+    private static final class IntStack {
+        private int[] values = new int[4];
+        private int count;
+
+        void push(int value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        int pop() {
+            return values[--count];
+        }
+
+        boolean isEmpty() {
+            return count == 0;
+        }
+    }
+}
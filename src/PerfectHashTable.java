@@ -0,0 +1,237 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable set of values, for large sets that are built once and then only queried.
+ * <p>
+ * A {@link MinimalPerfectHashFunction} of the values gives each of them its own index in [0, size),
+ * and the values are stored at their indices in a single int array. A lookup hashes the value and
+ * compares it with the one stored at its index, so the table takes a few bits per value for the function
+ * plus one int per value, and a lookup reads at most one value.
+ * <p>
+ * The function and the array are built in parallel. All fields are final and never changed afterwards,
+ * so the table can be shared between threads without any synchronization.
+ * Mutators throw {@link UnsupportedOperationException}.
+ */
+public final class PerfectHashTable implements HashTable {
+    private final MinimalPerfectHashFunction hashFunction;
+
+    /**
+     * values[hashFunction.hash(v)] == v for every value v of the set
+     */
+    private final int[] values;
+
+    private PerfectHashTable(MinimalPerfectHashFunction hashFunction, int[] values) {
+        this.hashFunction = hashFunction;
+        this.values = values;
+    }
+
+    /**
+     * The source must not be modified while the table is built.
+     *
+     * @param source the table whose values are copied
+     * @return an immutable table holding the values of the source
+     * @throws IllegalArgumentException if the source is null
+     */
+    public static PerfectHashTable from(HashTable source) {
+        if (source == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (source instanceof PerfectHashTable perfect) {
+            return perfect;
+        }
+
+        int[] sourceValues = new int[source.size()];
+        int count = 0;
+        for (Integer value : source) {
+            sourceValues[count++] = value;
+        }
+        MinimalPerfectHashFunction hashFunction = MinimalPerfectHashFunction.of(sourceValues);
+        int[] values = new int[sourceValues.length];
+        // every value goes to its own index, so the writes of different threads never overlap
+        IntStream.of(sourceValues).parallel().forEach(value -> values[hashFunction.hash(value)] = value);
+        return new PerfectHashTable(hashFunction, values);
+    }
+
+    /**
+     * @return the minimal perfect hash function of the values of the table
+     */
+    public MinimalPerfectHashFunction hashFunction() {
+        return hashFunction;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean empty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        int index = hashFunction.hash(value);
+        return index >= 0 && values[index] == value;
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the table can't be modified
+     */
+    @Override
+    public void clear() {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the table can't be modified
+     */
+    @Override
+    public void swap(HashTable other) {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the table can't be modified
+     */
+    @Override
+    public boolean add(int value) {
+        throw unsupported();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the table can't be modified
+     */
+    @Override
+    public boolean remove(int value) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("A perfect hash table can't be modified");
+    }
+
+    @Override
+    public void forEachInt(IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        for (int value : values) {
+            action.accept(value);
+        }
+    }
+
+    /**
+     * @return a spliterator over the array of values, which splits it into exactly sized halves
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return Spliterators.spliterator(values, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return new PerfectIterator();
+    }
+
+    @Override
+    public IntIterator intIterator() {
+        return new PerfectIterator();
+    }
+
+    @Override
+    public ReverseIterator reverseIterator() {
+        return new PerfectReverseIterator();
+    }
+
+    @Override
+    public PrimitiveReverseIterator primitiveReverseIterator() {
+        return new PerfectReverseIterator();
+    }
+
+    private class PerfectIterator implements IntIterator {
+        private int index;
+
+        PerfectIterator() {
+            index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < values.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next element in the iteration
+         * @throws NoSuchElementException if the iteration has no more elements
+         */
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            return values[index++];
+        }
+
+        /**
+         * @throws UnsupportedOperationException always, the table can't be modified
+         */
+        @Override
+        public void remove() {
+            throw unsupported();
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            while (index < values.length) {
+                action.accept(values[index++]);
+            }
+        }
+    }
+
+    private class PerfectReverseIterator implements PrimitiveReverseIterator {
+        private int index;
+
+        PerfectReverseIterator() {
+            index = values.length;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        @Override
+        public int previousInt() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("The iteration has no more elements");
+            }
+            return values[--index];
+        }
+
+        /**
+         * @throws UnsupportedOperationException always, the table can't be modified
+         */
+        @Override
+        public void remove() {
+            throw unsupported();
+        }
+
+        @Override
+        public void forEachRemainingInt(IntConsumer action) {
+            Objects.requireNonNull(action);
+            while (index > 0) {
+                action.accept(values[--index]);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * A reverse iterator which hands out the values as {@code int}s, without boxing them.
+ */
+public interface PrimitiveReverseIterator extends ReverseIterator {
+    /**
+     * Returns the previous element in the iteration.
+     *
+     * @return the previous element in the iteration
+     * @throws NoSuchElementException if the iteration has no more elements
+     */
+    int previousInt();
+
+    /**
+     * @implSpec Boxes the result of {@link #previousInt()}
+     */
+    @Override
+    default Integer previous() {
+        return previousInt();
+    }
+
+    /**
+     * Performs the given action for each remaining element until all elements
+     * have been processed or the action throws an exception.
+     * <p>
+     * It isn't an overload of {@link #forEachRemaining(Consumer)}, with both of them
+     * a call with an implicitly typed lambda would be ambiguous.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException            if the specified action is null
+     * @throws ConcurrentModificationException There have been a structural modification made that
+     *                                         might cause the current operation to give incorrect results.
+     * @implSpec Calls {@link #previousInt()} while {@link #hasPrevious()} returns true
+     */
+    default void forEachRemainingInt(IntConsumer action) {
+        Objects.requireNonNull(action);
+        while (hasPrevious()) {
+            action.accept(previousInt());
+        }
+    }
+
+    /**
+     * @implSpec Passes the action to {@link #forEachRemainingInt(IntConsumer)}, boxing the values
+     * unless the action is an {@link IntConsumer} itself
+     */
+    @Override
+    default void forEachRemaining(Consumer<? super Integer> action) {
+        if (action instanceof IntConsumer intAction) {
+            forEachRemainingInt(intAction);
+        } else {
+            Objects.requireNonNull(action);
+            forEachRemainingInt(action::accept);
+        }
+    }
+}
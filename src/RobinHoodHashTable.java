@@ -0,0 +1,267 @@
+import java.util.function.Function;
+
+/**
+ * Open addressing hash table using Robin Hood hashing.
+ * <p>
+ * Every slot remembers how far its value is from the slot it hashes to (its probe distance).
+ * On insertion a value takes the slot of any value that is closer to its own home,
+ * which keeps the probe distances of all values close to each other. That makes it possible
+ * to stop a lookup as soon as it meets a value closer to home than the searched one would be,
+ * and to delete by shifting the following values one slot back instead of leaving tombstones.
+ */
+public class RobinHoodHashTable extends OpenAddressingHashTable {
+    public static final double MAX_LOAD_FACTOR = 0.9;
+    public static final double MIN_LOAD_FACTOR = 0.2;
+
+    private int[] table;
+
+    /**
+     * Probe distance of the value in each slot plus one, zero marks an empty slot
+     */
+    private int[] distances;
+
+    public RobinHoodHashTable() {
+        table = new int[DEFAULT_CAPACITY];
+        distances = new int[DEFAULT_CAPACITY];
+    }
+
+    public RobinHoodHashTable(IntHashFunction hashFunction) {
+        super(hashFunction);
+        table = new int[DEFAULT_CAPACITY];
+        distances = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     */
+    public RobinHoodHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
+        super(hashFunction, indexingMode);
+        table = new int[DEFAULT_CAPACITY];
+        distances = new int[DEFAULT_CAPACITY];
+    }
+
+    public RobinHoodHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    @Override
+    public void clear() {
+        table = new int[DEFAULT_CAPACITY];
+        distances = new int[DEFAULT_CAPACITY];
+        modCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof RobinHoodHashTable robinHoodOther) {
+            swap(robinHoodOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(RobinHoodHashTable other) {
+        int[] tempArray = table;
+        table = other.table;
+        other.table = tempArray;
+
+        tempArray = distances;
+        distances = other.distances;
+        other.distances = tempArray;
+
+        IntHashFunction tempFunc = hash;
+        hash = other.hash;
+        other.hash = tempFunc;
+
+        IndexingMode tempMode = indexingMode;
+        indexingMode = other.indexingMode;
+        other.indexingMode = tempMode;
+
+        int temp = size;
+        size = other.size;
+        other.size = temp;
+
+        temp = modCount;
+        modCount = other.modCount;
+        other.modCount = temp;
+    }
+
+    private void swapContent(HashTable other) {
+        RobinHoodHashTable temp = new RobinHoodHashTable();
+
+        for (Integer integer : other) {
+            temp.add(integer);
+        }
+
+        other.clear();
+        for (Integer integer : this) {
+            other.add(integer);
+        }
+
+        swap(temp);
+    }
+
+    @Override
+    public boolean add(int value) {
+        int index = getIndex(value);
+        int distance = 1;
+        while (distances[index] >= distance) {
+            if (table[index] == value) {
+                return false;
+            }
+            index = nextIndex(index);
+            ++distance;
+        }
+
+        insert(value, index, distance);
+        ++size;
+
+        if (checkResize()) {
+            resize(table.length * RESIZE_FACTOR);
+        }
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Places the value at the given position of its probe sequence. Every value met on the way
+     * that is closer to its home slot gives its place up and continues further in the same manner.
+     *
+     * @param index    the slot from which the insertion starts
+     * @param distance the probe distance (plus one) of the value when placed in that slot
+     */
+    private void insert(int value, int index, int distance) {
+        while (distances[index] != 0) {
+            if (distances[index] < distance) {
+                int displacedValue = table[index];
+                int displacedDistance = distances[index];
+                table[index] = value;
+                distances[index] = distance;
+                value = displacedValue;
+                distance = displacedDistance;
+            }
+            index = nextIndex(index);
+            ++distance;
+        }
+        table[index] = value;
+        distances[index] = distance;
+    }
+
+    private boolean checkResize() {
+        return ((double) size / table.length) >= MAX_LOAD_FACTOR;
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldTable = table;
+        int[] oldDistances = distances;
+        table = new int[newCapacity];
+        distances = new int[newCapacity];
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldDistances[i] != 0) {
+                insert(oldTable[i], getIndex(oldTable[i]), 1);
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(int value) {
+        int index = find(value);
+        if (index < 0) {
+            return false;
+        }
+
+        shiftBackwards(index);
+        --size;
+        if (checkShrink()) {
+            resize(table.length / RESIZE_FACTOR);
+        }
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Removing through an iterator doesn't shrink the table, so the iterator can continue over the same slots
+     */
+    @Override
+    protected boolean removeIterated(int value) {
+        boolean wrapped = shiftBackwards(find(value));
+        --size;
+        ++modCount;
+        return wrapped;
+    }
+
+    /**
+     * Empties the slot by moving each following value, that is not in its home slot, one slot back
+     *
+     * @return true if the value of slot 0 was moved to the last slot
+     */
+    private boolean shiftBackwards(int index) {
+        boolean wrapped = false;
+        int next = nextIndex(index);
+        while (distances[next] > 1) {
+            table[index] = table[next];
+            distances[index] = distances[next] - 1;
+            wrapped |= next == 0;
+            index = next;
+            next = nextIndex(next);
+        }
+        distances[index] = 0;
+        return wrapped;
+    }
+
+    /**
+     * The table is never shrunk below its default capacity
+     */
+    private boolean checkShrink() {
+        return table.length > DEFAULT_CAPACITY && ((double) size / table.length) <= MIN_LOAD_FACTOR;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        return find(value) >= 0;
+    }
+
+    /**
+     * @return the slot holding the value or -1 if the value is not in the table
+     */
+    private int find(int value) {
+        int index = getIndex(value);
+        int distance = 1;
+        while (distances[index] >= distance) {
+            if (table[index] == value) {
+                return index;
+            }
+            index = nextIndex(index);
+            ++distance;
+        }
+        return -1;
+    }
+
+    private int getIndex(int value) {
+        return indexFor(value, table.length);
+    }
+
+    private int nextIndex(int index) {
+        return (index + 1) & (table.length - 1);
+    }
+
+    @Override
+    protected int slotCount() {
+        return table.length;
+    }
+
+    @Override
+    protected boolean isOccupied(int slot) {
+        return distances[slot] != 0;
+    }
+
+    @Override
+    protected int valueAt(int slot) {
+        return table[slot];
+    }
+}
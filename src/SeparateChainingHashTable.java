@@ -1,39 +1,119 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.function.Consumer;
+import java.util.Objects;
+import java.util.Spliterator;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.LinkedList;
 
 public class SeparateChainingHashTable extends AbstractHashTable {
 
-    public static double MAX_LOAD_FACTOR = 0.75;
-    public static double MIN_LOAD_FACTOR = 0.25;
+    /**
+     * Load factors used unless the table's {@link SizingPolicy} sets others
+     */
+    public static final double MAX_LOAD_FACTOR = 0.75;
+    public static final double MIN_LOAD_FACTOR = 0.25;
+
+    /**
+     * Number of buckets migrated by each add and remove while an incremental resize is in progress
+     */
+    public static final int INCREMENTAL_RESIZE_STEP = 4;
+
+    /**
+     * The largest power of two an array can hold
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * A bucket holding more values than this is sorted, one holding fewer than {@link #UNTREEIFY_THRESHOLD}
+     * values after a removal goes back to a list, as in {@link java.util.HashMap}
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+    static final int UNTREEIFY_THRESHOLD = 6;
 
+    /**
+     * Buckets are created when the first value is added to them, empty slots hold null
+     */
     private Bucket[] table;
     private int modCount;
+    private SizingPolicy sizing;
+
+    private boolean incrementalResize;
+
+    /**
+     * The buckets being emptied by an incremental resize, null when no resize is in progress.
+     * A value is in the old bucket it hashes to, unless that bucket was already migrated.
+     */
+    private Bucket[] oldTable;
+
+    /**
+     * Buckets of the old table before this index have been migrated
+     */
+    private int migrated;
 
     public SeparateChainingHashTable() {
-        this(HashFunctions::FNVhash);
+        this(SizingPolicy.DEFAULT);
     }
 
-    public SeparateChainingHashTable(Function<Integer, Integer> hashFunction) {
-        super(hashFunction);
-        table = getBuckets(DEFAULT_CAPACITY);
+    public SeparateChainingHashTable(SizingPolicy sizing) {
+        this(HashFunctions.Standard.FNV, IndexingMode.MASK, sizing);
+    }
+
+    public SeparateChainingHashTable(IntHashFunction hashFunction) {
+        this(hashFunction, IndexingMode.MASK, SizingPolicy.DEFAULT);
+    }
+
+    public SeparateChainingHashTable(IntHashFunction hashFunction, SizingPolicy sizing) {
+        this(hashFunction, IndexingMode.MASK, sizing);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     */
+    public SeparateChainingHashTable(IntHashFunction hashFunction, IndexingMode indexingMode) {
+        this(hashFunction, indexingMode, SizingPolicy.DEFAULT);
+    }
+
+    /**
+     * @param hashFunction the function used for hashing the values, it may return any int
+     * @param indexingMode the way hashes are reduced to table indexes
+     * @param sizing       the initial capacity and the resizing rules of this table
+     * @throws IllegalArgumentException if the sizing policy is null
+     */
+    public SeparateChainingHashTable(IntHashFunction hashFunction, IndexingMode indexingMode, SizingPolicy sizing) {
+        super(hashFunction, indexingMode);
+        if (sizing == null) {
+            throw new IllegalArgumentException("The sizing policy is null!");
+        }
+        this.sizing = sizing.withDefaults(MAX_LOAD_FACTOR, MIN_LOAD_FACTOR, Double.POSITIVE_INFINITY);
+        table = new Bucket[this.sizing.initialCapacity()];
         modCount = 0;
     }
 
+    public SeparateChainingHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
     @Override
     public void clear() {
         Bucket[] temp;
         try {
-            temp = getBuckets(table.length);
+            temp = new Bucket[table.length];
             table = temp;
         } catch (OutOfMemoryError e) {
             for (int i = 0; i < table.length; ++i) {
                 table[i] = null;
             }
         }
+        oldTable = null;
         modCount = 0;
         size = 0;
     }
@@ -54,21 +134,41 @@ public class SeparateChainingHashTable extends AbstractHashTable {
         this.table = other.table;
         other.table = tempRef;
 
+        tempRef = this.oldTable;
+        this.oldTable = other.oldTable;
+        other.oldTable = tempRef;
+
+        int tempMigrated = this.migrated;
+        this.migrated = other.migrated;
+        other.migrated = tempMigrated;
+
+        SizingPolicy tempSizing = this.sizing;
+        this.sizing = other.sizing;
+        other.sizing = tempSizing;
+
+        boolean tempIncremental = this.incrementalResize;
+        this.incrementalResize = other.incrementalResize;
+        other.incrementalResize = tempIncremental;
+
         int tempSize = this.size;
         this.size = other.size;
         other.size = tempSize;
 
-        Function<Integer, Integer> tempHash = this.hash;
+        IntHashFunction tempHash = this.hash;
         this.hash = other.hash;
         other.hash = tempHash;
 
+        IndexingMode tempMode = this.indexingMode;
+        this.indexingMode = other.indexingMode;
+        other.indexingMode = tempMode;
+
         int tempModCnt = modCount;
         modCount = other.modCount;
         other.modCount = tempModCnt;
     }
 
     private void swapContent(HashTable other) {
-        SeparateChainingHashTable temp = new SeparateChainingHashTable();
+        SeparateChainingHashTable temp = new SeparateChainingHashTable(hash, indexingMode, sizing);
 
         for (Integer integer : other) {
             temp.add(integer);
@@ -82,41 +182,382 @@ public class SeparateChainingHashTable extends AbstractHashTable {
         swap(temp);
     }
 
+    /**
+     * @return the number of buckets of the table
+     */
+    public int capacity() {
+        return table.length;
+    }
+
+    /**
+     * @return the number of buckets whose chains are kept sorted, see {@link #TREEIFY_THRESHOLD}
+     */
+    int treeifiedBucketCount() {
+        int count = 0;
+        for (int index = 0; index < bucketCount(); index++) {
+            Bucket bucket = bucketAt(index);
+            if (bucket != null && bucket.isTreeified()) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes a snapshot of the table in the format of {@link HashTableSnapshots}. The stream is neither
+     * flushed nor closed.
+     *
+     * @param out the stream the snapshot is written to
+     * @throws IOException if the stream can't be written
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        HashTableSnapshots.write(this, out);
+    }
+
+    /**
+     * Writes a snapshot of the table in the format of {@link HashTableSnapshots}. The channel isn't closed.
+     *
+     * @param channel the channel the snapshot is written to
+     * @throws IOException if the channel can't be written
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        HashTableSnapshots.write(this, channel);
+    }
+
+    /**
+     * @param in           the stream the snapshot is read from, it isn't closed
+     * @param hashFunction the function of the written table, null to take the one recorded in the snapshot,
+     *                     which works for the {@link HashFunctions.Standard} functions
+     * @return a table presized for the values of the snapshot, with the default sizing policy otherwise
+     * @throws IOException if the stream can't be read, ends early, the snapshot is corrupted
+     *                     or was written with another hash function
+     */
+    public static SeparateChainingHashTable readFrom(InputStream in, IntHashFunction hashFunction) throws IOException {
+        return HashTableSnapshots.read(in, hashFunction, SeparateChainingHashTable::new);
+    }
+
+    /**
+     * @param channel      the channel the snapshot is read from, it isn't closed
+     * @param hashFunction the function of the written table, null to take the one recorded in the snapshot,
+     *                     which works for the {@link HashFunctions.Standard} functions
+     * @return a table presized for the values of the snapshot, with the default sizing policy otherwise
+     * @throws IOException if the channel can't be read, ends early, the snapshot is corrupted
+     *                     or was written with another hash function
+     */
+    public static SeparateChainingHashTable readFrom(ReadableByteChannel channel, IntHashFunction hashFunction)
+            throws IOException {
+        return HashTableSnapshots.read(channel, hashFunction, SeparateChainingHashTable::new);
+    }
+
+    /**
+     * In incremental mode a resize doesn't rehash all values at once. The old buckets are kept next
+     * to the new ones and every following add and remove migrates {@link #INCREMENTAL_RESIZE_STEP}
+     * of them. That spreads the cost of a resize over many operations instead of stalling the one
+     * which triggered it.
+     *
+     * @param incremental whether to resize incrementally, turning it off completes a resize in progress
+     */
+    public void setIncrementalResize(boolean incremental) {
+        incrementalResize = incremental;
+        if (!incremental && oldTable != null) {
+            finishMigration();
+            ++modCount;
+        }
+    }
+
     @Override
     public boolean add(int value) {
-        if (this.contains(value)) {
+        Bucket[] buckets = bucketsOf(value);
+        int index = indexFor(value, buckets.length);
+        if (buckets[index] == null) {
+            buckets[index] = new Bucket();
+        } else if (buckets[index].contains(value)) {
             return false;
         }
 
-        table[hash.apply(value) % table.length].add(value);
+        buckets[index].add(value);
         ++size;
         ++modCount;
 
+        if (oldTable != null) {
+            migrateStep();
+        }
         if (checkResize()) {
-            resize(table.length * RESIZE_FACTOR);
+            resize(table.length * sizing.growthFactor());
         }
         return true;
     }
 
     @Override
     public boolean remove(int value) {
-        if (!this.contains(value)) {
+        Bucket bucket = bucketOf(value);
+        if (bucket == null || !bucket.remove(value)) {
             return false;
         }
 
-        table[hash.apply(value) % table.length].remove(value);
         --size;
         ++modCount;
 
-        if (checkShrink()) {
-            resize(table.length / RESIZE_FACTOR);
+        if (oldTable != null) {
+            migrateStep();
+        } else if (checkShrink()) {
+            resize(table.length / sizing.growthFactor());
         }
         return true;
     }
 
+    /**
+     * Makes room for all the values first, so the table grows at most once, and shrinks at most once at the end
+     * if it grew for more values than were new
+     */
+    @Override
+    public int addAll(int[] values, int offset, int length) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        Objects.checkFromIndexSize(offset, length, values.length);
+        Bucket[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        reserve((long) size + length);
+        int added = 0;
+        for (int i = offset; i < offset + length; i++) {
+            if (insertIfAbsent(values[i])) {
+                ++added;
+            }
+        }
+        return completeBulkAdd(added, before, migrating);
+    }
+
+    /**
+     * Walks the buckets of another separate chaining table directly, without copying its values to an array first
+     */
+    @Override
+    public int unionWith(HashTable other) {
+        if (!(other instanceof SeparateChainingHashTable chainingOther) || other == this) {
+            return super.unionWith(other);
+        }
+        Bucket[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        reserve((long) size + chainingOther.size);
+        int added = 0;
+        for (int index = 0; index < chainingOther.bucketCount(); index++) {
+            Bucket bucket = chainingOther.bucketAt(index);
+            if (bucket != null) {
+                for (IntIterator it = bucket.iterator(); it.hasNext(); ) {
+                    if (insertIfAbsent(it.nextInt())) {
+                        ++added;
+                    }
+                }
+            }
+        }
+        return completeBulkAdd(added, before, migrating);
+    }
+
+    /**
+     * Unless the other table is smaller, walks the buckets of this table and removes the missing values in place
+     */
+    @Override
+    public int retainAll(HashTable other) {
+        if (other == null || other == this || other.size() < size) {
+            return super.retainAll(other);
+        }
+        return removeWhere(other, false);
+    }
+
+    /**
+     * Unless the other table is smaller, walks the buckets of this table and removes the common values in place
+     */
+    @Override
+    public int removeAll(HashTable other) {
+        if (other == null || other == this || other.size() <= size) {
+            return super.removeAll(other);
+        }
+        return removeWhere(other, true);
+    }
+
+    /**
+     * Removes the values whose presence in the other table is the given one, then shrinks at most once
+     */
+    private int removeWhere(HashTable other, boolean inOther) {
+        Bucket[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        int removed = 0;
+        for (Bucket bucket : table) {
+            if (bucket != null) {
+                for (IntIterator it = bucket.iterator(); it.hasNext(); ) {
+                    if (other.contains(it.nextInt()) == inOther) {
+                        it.remove();
+                        ++removed;
+                    }
+                }
+            }
+        }
+        size -= removed;
+        shrinkToFit();
+
+        if (removed > 0 || table != before || migrating) {
+            ++modCount;
+        }
+        return removed;
+    }
+
+    /**
+     * Adds the value to its bucket unless it is already there, without resizing or counting it.
+     * No incremental resize may be in progress.
+     *
+     * @return true if the value was added
+     */
+    private boolean insertIfAbsent(int value) {
+        int index = indexFor(value, table.length);
+        if (table[index] == null) {
+            table[index] = new Bucket();
+        } else if (table[index].contains(value)) {
+            return false;
+        }
+        table[index].add(value);
+        return true;
+    }
+
+    /**
+     * Grows the table at once, if needed, so that the given number of values fits. No incremental resize
+     * may be in progress.
+     */
+    private void reserve(long values) {
+        if (values >= table.length * sizing.maxLoadFactor()) {
+            rehash(capacityFor(values));
+        }
+    }
+
+    /**
+     * Counts the values stored by a bulk operation
+     *
+     * @param before    the buckets before the operation
+     * @param migrating whether an incremental resize was in progress before the operation
+     * @return the number of added values
+     */
+    private int completeBulkAdd(int added, Bucket[] before, boolean migrating) {
+        size += added;
+        if (table != before) {
+            // repeated values may have left the grown table below its minimum load
+            shrinkToFit();
+        }
+        if (added > 0 || table != before || migrating) {
+            ++modCount;
+        }
+        return added;
+    }
+
+    /**
+     * Removes all the values before shrinking the table, at most once
+     */
+    @Override
+    public int removeAll(int[] values) {
+        if (values == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        Bucket[] before = table;
+        boolean migrating = oldTable != null;
+        finishMigration();
+
+        int removed = 0;
+        for (int value : values) {
+            Bucket bucket = table[indexFor(value, table.length)];
+            if (bucket != null && bucket.remove(value)) {
+                ++removed;
+            }
+        }
+        size -= removed;
+        shrinkToFit();
+
+        if (removed > 0 || table != before || migrating) {
+            ++modCount;
+        }
+        return removed;
+    }
+
+    /**
+     * Copies the values straight from the buckets
+     */
+    @Override
+    public int[] toArray(int[] array) {
+        if (array == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int[] values = array.length >= size ? array : new int[size];
+        int count = 0;
+        for (int index = 0; index < bucketCount(); index++) {
+            Bucket bucket = bucketAt(index);
+            if (bucket != null) {
+                for (IntIterator it = bucket.iterator(); it.hasNext(); ) {
+                    values[count++] = it.nextInt();
+                }
+            }
+        }
+        return values;
+    }
+
     @Override
     public boolean contains(int value) {
-        return table[hash.apply(value) % table.length].contains(value);
+        Bucket bucket = bucketOf(value);
+        return bucket != null && bucket.contains(value);
+    }
+
+    /**
+     * @return the old table if the value's bucket there wasn't migrated yet, otherwise the current one
+     */
+    private Bucket[] bucketsOf(int value) {
+        if (oldTable != null && indexFor(value, oldTable.length) >= migrated) {
+            return oldTable;
+        }
+        return table;
+    }
+
+    /**
+     * @return the bucket holding the value, if it is present, might be null
+     */
+    private Bucket bucketOf(int value) {
+        Bucket[] buckets = bucketsOf(value);
+        return buckets[indexFor(value, buckets.length)];
+    }
+
+    /**
+     * While an incremental resize is in progress, the buckets of the table are followed by the old buckets
+     */
+    private int bucketCount() {
+        return oldTable == null ? table.length : table.length + oldTable.length;
+    }
+
+    private Bucket bucketAt(int index) {
+        return index < table.length ? table[index] : oldTable[index - table.length];
+    }
+
+    /**
+     * Scans the buckets directly, the modification count is checked once, after the scan
+     */
+    @Override
+    public void forEachInt(IntConsumer action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        int expectedModCount = modCount;
+        for (int index = 0; index < bucketCount(); index++) {
+            Bucket bucket = bucketAt(index);
+            if (bucket != null) {
+                bucket.forEach(action);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException(
+                    "There have been a structural modification made that " +
+                            " might cause the current operation to give incorrect results."
+            );
+        }
     }
 
     @Override
@@ -124,6 +565,11 @@ public class SeparateChainingHashTable extends AbstractHashTable {
         return new SCHashIterator();
     }
 
+    @Override
+    public IntIterator intIterator() {
+        return new SCHashIterator();
+    }
+
     /**
      * @return Returns a reverse iterator, iterating the elements of the hashmap in reverse order.
      */
@@ -132,69 +578,390 @@ public class SeparateChainingHashTable extends AbstractHashTable {
         return new SCHashReverseIterator();
     }
 
+    @Override
+    public PrimitiveReverseIterator primitiveReverseIterator() {
+        return new SCHashReverseIterator();
+    }
+
+    /**
+     * @return a late-binding, fail-fast spliterator which splits the buckets into halves. Only a spliterator
+     * which wasn't split knows its exact size, the others estimate it from their share of the buckets.
+     */
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return new BucketSpliterator(0, -1, 0, 0);
+    }
+
+    private class BucketSpliterator implements Spliterator.OfInt {
+        private int index;
+        private int fence;
+        private int estimate;
+        private int expectedModCount;
+        private IntIterator current;
+
+        /**
+         * @param fence the bucket after the last one, -1 to bind to the table on first use
+         */
+        BucketSpliterator(int origin, int fence, int estimate, int expectedModCount) {
+            this.index = origin;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                fence = bucketCount();
+                estimate = size;
+                expectedModCount = modCount;
+            }
+            return fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int high = getFence();
+            int low = index;
+            int middle = (low + high) >>> 1;
+            if (low >= middle || current != null) {
+                return null;
+            }
+            index = middle;
+            estimate >>>= 1;
+            return new BucketSpliterator(low, middle, estimate, expectedModCount);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int high = getFence();
+            while (true) {
+                if (current != null && current.hasNext()) {
+                    action.accept(current.nextInt());
+                    checkWhetherModCountHasNotChanged();
+                    return true;
+                }
+                current = null;
+                if (index >= high || index >= bucketCount()) {
+                    return false;
+                }
+                Bucket bucket = bucketAt(index++);
+                if (bucket != null) {
+                    current = bucket.iterator();
+                }
+            }
+        }
+
+        /**
+         * Scans the remaining buckets, the modification count is checked once, after the scan
+         */
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
+            int high = getFence();
+            if (current != null) {
+                current.forEachRemaining(action);
+                current = null;
+            }
+            for (int i = index; i < high && i < bucketCount(); i++) {
+                Bucket bucket = bucketAt(i);
+                if (bucket != null) {
+                    bucket.forEach(action);
+                }
+            }
+            index = high;
+            checkWhetherModCountHasNotChanged();
+        }
+
+        @Override
+        public long estimateSize() {
+            getFence();
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return (fence < 0 || estimate == size ? Spliterator.SIZED : 0) | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        private void checkWhetherModCountHasNotChanged() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException(
+                        "There have been a structural modification made that " +
+                                " might cause the current operation to give incorrect results."
+                );
+            }
+        }
+    }
+
+    /**
+     * A chain of values. Short chains are kept in a linked list. A chain longer than {@link #TREEIFY_THRESHOLD},
+     * which only a poor hash function produces, is kept in a sorted array and searched by binary search
+     * instead. A sorted chain returns to a list when a removal leaves it with fewer than
+     * {@link #UNTREEIFY_THRESHOLD} values. Removals through iterators keep it sorted, so the iteration
+     * isn't disturbed.
+     */
     private class Bucket {
+        /**
+         * The values of a short chain, null while the chain is sorted
+         */
         private LinkedList<Integer> bucket;
+        private int[] sorted;
+        private int sortedCount;
 
         public Bucket() {
             bucket = new LinkedList<Integer>();
         }
 
-        public LinkedList<Integer> getList() {
-            return bucket;
+        public boolean isTreeified() {
+            return bucket == null;
+        }
+
+        /**
+         * @param newElement a value which isn't in the bucket
+         */
+        public void add(int newElement) {
+            if (bucket != null) {
+                bucket.add(newElement);
+                if (bucket.size() > TREEIFY_THRESHOLD) {
+                    treeify();
+                }
+                return;
+            }
+            int position = -(Arrays.binarySearch(sorted, 0, sortedCount, newElement) + 1);
+            if (sortedCount == sorted.length) {
+                sorted = Arrays.copyOf(sorted, sortedCount * 2);
+            }
+            System.arraycopy(sorted, position, sorted, position + 1, sortedCount - position);
+            sorted[position] = newElement;
+            ++sortedCount;
         }
 
-        public boolean add(Integer newElement) {
-            return bucket.add(newElement);
+        public boolean remove(int element) {
+            if (bucket != null) {
+                for (Iterator<Integer> it = bucket.iterator(); it.hasNext(); ) {
+                    if (it.next() == element) {
+                        it.remove();
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int position = Arrays.binarySearch(sorted, 0, sortedCount, element);
+            if (position < 0) {
+                return false;
+            }
+            removeAt(position);
+            if (sortedCount < UNTREEIFY_THRESHOLD) {
+                untreeify();
+            }
+            return true;
         }
 
-        public boolean remove(Integer element) {
-            return bucket.remove(element);
+        public boolean contains(int element) {
+            if (bucket != null) {
+                for (Integer value : bucket) {
+                    if (value == element) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return Arrays.binarySearch(sorted, 0, sortedCount, element) >= 0;
         }
 
-        public boolean contains(Integer element) {
-            return bucket.contains(element);
+        public IntIterator iterator() {
+            if (bucket != null) {
+                Iterator<Integer> listIterator = bucket.iterator();
+                return new IntIterator() {
+                    @Override
+                    public boolean hasNext() {
+                        return listIterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return listIterator.next();
+                    }
+
+                    @Override
+                    public void remove() {
+                        listIterator.remove();
+                    }
+                };
+            }
+            return new SortedIterator();
         }
-    }
 
-    private Bucket[] getBuckets(int capacity) {
-        Bucket[] buckets = new Bucket[capacity];
-        for (int i = 0; i < capacity; ++i) {
-            buckets[i] = new Bucket();
+        public void forEach(IntConsumer action) {
+            if (bucket != null) {
+                for (int value : bucket) {
+                    action.accept(value);
+                }
+            } else {
+                for (int i = 0; i < sortedCount; i++) {
+                    action.accept(sorted[i]);
+                }
+            }
+        }
+
+        private void removeAt(int position) {
+            System.arraycopy(sorted, position + 1, sorted, position, sortedCount - position - 1);
+            --sortedCount;
+        }
+
+        private void treeify() {
+            sorted = new int[bucket.size() * 2];
+            for (int value : bucket) {
+                sorted[sortedCount++] = value;
+            }
+            Arrays.sort(sorted, 0, sortedCount);
+            bucket = null;
+        }
+
+        private void untreeify() {
+            bucket = new LinkedList<Integer>();
+            for (int i = 0; i < sortedCount; i++) {
+                bucket.add(sorted[i]);
+            }
+            sorted = null;
+            sortedCount = 0;
+        }
+
+        private class SortedIterator implements IntIterator {
+            private int cursor;
+            private boolean canRemove;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < sortedCount;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("The iteration has no more elements");
+                }
+                canRemove = true;
+                return sorted[cursor++];
+            }
+
+            @Override
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
+                }
+                removeAt(--cursor);
+                canRemove = false;
+            }
         }
-        return buckets;
     }
 
     private void resize(int newCapacity) {
-        Bucket[] newTable = getBuckets(newCapacity);
+        finishMigration();
+        oldTable = table;
+        migrated = 0;
+        table = new Bucket[newCapacity];
+        if (!incrementalResize) {
+            finishMigration();
+        }
+    }
+
+    private void migrateStep() {
+        int end = Math.min(migrated + INCREMENTAL_RESIZE_STEP, oldTable.length);
+        for (; migrated < end; ++migrated) {
+            if (oldTable[migrated] != null) {
+                for (IntIterator it = oldTable[migrated].iterator(); it.hasNext(); ) {
+                    int value = it.nextInt();
+                    int index = indexFor(value, table.length);
+                    if (table[index] == null) {
+                        table[index] = new Bucket();
+                    }
+                    table[index].add(value);
+                }
+                oldTable[migrated] = null;
+            }
+        }
+        if (migrated == oldTable.length) {
+            oldTable = null;
+        }
+    }
 
-        for (Integer i : this) {
-            newTable[hash.apply(i) % newCapacity].add(i);
+    private void finishMigration() {
+        while (oldTable != null) {
+            migrateStep();
         }
+    }
 
-        table = newTable;
+    /**
+     * Moves all values to a table of the given capacity at once, even in incremental mode
+     */
+    private void rehash(int newCapacity) {
+        resize(newCapacity);
+        finishMigration();
+    }
+
+    /**
+     * @return the capacity, grown from the current one, at which the given number of values stays
+     * below the maximum load factor
+     */
+    private int capacityFor(long values) {
+        int capacity = table.length;
+        while (values >= capacity * sizing.maxLoadFactor() && capacity <= MAX_CAPACITY / sizing.growthFactor()) {
+            capacity *= sizing.growthFactor();
+        }
+        return capacity;
+    }
+
+    /**
+     * Shrinks the table in one step as far as its sizing policy allows
+     */
+    private void shrinkToFit() {
+        int capacity = table.length;
+        while (capacity / sizing.growthFactor() >= sizing.minCapacity()
+                && (double) size / capacity <= sizing.minLoadFactor()) {
+            capacity /= sizing.growthFactor();
+        }
+        if (capacity != table.length) {
+            rehash(capacity);
+        }
     }
 
     private boolean checkResize() {
-        return (double) size / table.length >= MAX_LOAD_FACTOR;
+        return (double) size / table.length >= sizing.maxLoadFactor();
     }
 
+    /**
+     * The table is never shrunk below the minimum capacity of its sizing policy
+     */
     private boolean checkShrink() {
-        return ((double) size / table.length) <= MIN_LOAD_FACTOR;
+        return table.length / sizing.growthFactor() >= sizing.minCapacity()
+                && ((double) size / table.length) <= sizing.minLoadFactor();
     }
 
-    private class SCHashIterator implements Iterator<Integer> {
+    /**
+     * Removes the value last returned by the bucket's iterator. The table is neither shrunk
+     * nor migrated, so the iteration can continue from the same position.
+     */
+    private void removeIterated(Iterator<Integer> bucketIterator) {
+        bucketIterator.remove();
+        --size;
+        ++modCount;
+    }
+
+    private class SCHashIterator implements IntIterator {
         int elementsBeforeIndex;
         int index;
-        private Iterator<Integer> listIterator;
+        private IntIterator listIterator;
 
-        Integer lastReturned;
+        boolean canRemove;
         int lastModCount;
 
         public SCHashIterator() {
             lastModCount = SeparateChainingHashTable.this.modCount;
             elementsBeforeIndex = 0;
             index = -1;
-            lastReturned = null;
+            canRemove = false;
         }
 
         /**
@@ -217,7 +984,7 @@ public class SeparateChainingHashTable extends AbstractHashTable {
          * @throws NoSuchElementException if the iteration has no more elements
          */
         @Override
-        public Integer next() {
+        public int nextInt() {
             checkWhetherModCountHasNotChanged();
 
             if (!hasNext()) {
@@ -226,8 +993,8 @@ public class SeparateChainingHashTable extends AbstractHashTable {
 
             moveToNext();
             ++elementsBeforeIndex;
-            lastReturned = listIterator.next();
-            return lastReturned;
+            canRemove = true;
+            return listIterator.nextInt();
         }
 
         /**
@@ -250,15 +1017,15 @@ public class SeparateChainingHashTable extends AbstractHashTable {
         public void remove() {
             checkWhetherModCountHasNotChanged();
 
-            if (lastReturned == null) {
+            if (!canRemove) {
                 throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
             }
 
-            SeparateChainingHashTable.this.remove(lastReturned);
+            removeIterated(listIterator);
             --elementsBeforeIndex;
 
             lastModCount = SeparateChainingHashTable.this.modCount;
-            lastReturned = null;
+            canRemove = false;
         }
 
         /**
@@ -281,12 +1048,23 @@ public class SeparateChainingHashTable extends AbstractHashTable {
          *                                         might cause the current operation to give incorrect results.
          */
         @Override
-        public void forEachRemaining(Consumer<? super Integer> action) {
+        public void forEachRemaining(IntConsumer action) {
+            Objects.requireNonNull(action);
             checkWhetherModCountHasNotChanged();
 
-            while (hasNext()) {
-                action.accept(next());
+            while (elementsBeforeIndex < size) {
+                moveToNext();
+                if (listIterator == null || !listIterator.hasNext()) {
+                    // the action changed the table, it is reported below
+                    break;
+                }
+                while (listIterator.hasNext()) {
+                    canRemove = true;
+                    ++elementsBeforeIndex;
+                    action.accept(listIterator.nextInt());
+                }
             }
+            checkWhetherModCountHasNotChanged();
         }
 
         private void checkWhetherModCountHasNotChanged() {
@@ -302,10 +1080,13 @@ public class SeparateChainingHashTable extends AbstractHashTable {
             if (listIterator != null && listIterator.hasNext()) {
                 return;
             }
-            Iterator<Integer> temp;
+            IntIterator temp;
 
-            for (int i = index + 1; i < table.length; i++) {
-                temp = SeparateChainingHashTable.this.table[i].getList().iterator();
+            for (int i = index + 1; i < bucketCount(); i++) {
+                if (bucketAt(i) == null) {
+                    continue;
+                }
+                temp = bucketAt(i).iterator();
                 if (temp.hasNext()) {
                     index = i;
                     listIterator = temp;
@@ -316,18 +1097,18 @@ public class SeparateChainingHashTable extends AbstractHashTable {
     }
 
 
-    private class SCHashReverseIterator implements ReverseIterator {
+    private class SCHashReverseIterator implements PrimitiveReverseIterator {
         int elementsAfterIndex;
         int index;
-        private Iterator<Integer> listIterator;
-        Integer lastReturned;
+        private IntIterator listIterator;
+        boolean canRemove;
         int lastModCount;
 
         public SCHashReverseIterator() {
             lastModCount = SeparateChainingHashTable.this.modCount;
             elementsAfterIndex = 0;
-            index = SeparateChainingHashTable.this.table.length;
-            lastReturned = null;
+            index = bucketCount();
+            canRemove = false;
         }
 
         /**
@@ -350,7 +1131,7 @@ public class SeparateChainingHashTable extends AbstractHashTable {
          * @throws NoSuchElementException if the iteration has no more elements
          */
         @Override
-        public Integer previous() {
+        public int previousInt() {
             if (!hasPrevious()) {
                 throw new NoSuchElementException("The iteration has no previous element");
             }
@@ -359,8 +1140,8 @@ public class SeparateChainingHashTable extends AbstractHashTable {
 
             moveToPrevious();
             ++elementsAfterIndex;
-            lastReturned = listIterator.next();
-            return lastReturned;
+            canRemove = true;
+            return listIterator.nextInt();
         }
 
         /**
@@ -383,15 +1164,15 @@ public class SeparateChainingHashTable extends AbstractHashTable {
         public void remove() {
             checkWhetherModCountHasNotChanged();
 
-            if (lastReturned == null) {
+            if (!canRemove) {
                 throw new IllegalStateException("Next wasn't called or remove was already called after the last next");
             }
 
-            SeparateChainingHashTable.this.remove(lastReturned);
+            removeIterated(listIterator);
             --elementsAfterIndex;
 
             lastModCount = SeparateChainingHashTable.this.modCount;
-            lastReturned = null;
+            canRemove = false;
         }
 
         /**
@@ -414,12 +1195,23 @@ public class SeparateChainingHashTable extends AbstractHashTable {
          *                                         might cause the current operation to give incorrect results.
          */
         @Override
-        public void forEachRemaining(Consumer<? super Integer> action) {
+        public void forEachRemainingInt(IntConsumer action) {
+            Objects.requireNonNull(action);
             checkWhetherModCountHasNotChanged();
 
-            while (hasPrevious()) {
-                action.accept(previous());
+            while (elementsAfterIndex < size) {
+                moveToPrevious();
+                if (listIterator == null || !listIterator.hasNext()) {
+                    // the action changed the table, it is reported below
+                    break;
+                }
+                while (listIterator.hasNext()) {
+                    canRemove = true;
+                    ++elementsAfterIndex;
+                    action.accept(listIterator.nextInt());
+                }
             }
+            checkWhetherModCountHasNotChanged();
         }
 
         private void checkWhetherModCountHasNotChanged() {
@@ -435,10 +1227,13 @@ public class SeparateChainingHashTable extends AbstractHashTable {
             if (listIterator != null && listIterator.hasNext()) {
                 return;
             }
-            Iterator<Integer> temp;
+            IntIterator temp;
 
             for (int i = index - 1; i >= 0; --i) {
-                temp = SeparateChainingHashTable.this.table[i].getList().iterator();
+                if (bucketAt(i) == null) {
+                    continue;
+                }
+                temp = bucketAt(i).iterator();
                 if (temp.hasNext()) {
                     index = i;
                     listIterator = temp;
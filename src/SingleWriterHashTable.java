@@ -0,0 +1,331 @@
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+/**
+ * Linear probing hash table for one writer thread and any number of reader threads.
+ * <p>
+ * At most one thread may modify the table at a time, while any threads may call {@link #contains}
+ * and {@link #size} concurrently. The writer changes slots in place under the write lock of a
+ * {@link StampedLock}. Readers never lock: they run an optimistic read and repeat it only if a write
+ * overlapped. They don't allocate either, so lookups produce no garbage.
+ * <p>
+ * A resize builds the new slots aside, while readers keep using the old ones, and publishes them
+ * by replacing a single reference, so the keys and the states of the slots always come from
+ * the same array pair. Iterators are fail-fast and meant for the writer thread.
+ */
+public class SingleWriterHashTable extends OpenAddressingHashTable {
+    public static final double MAX_LOAD_FACTOR = 0.5;
+    public static final double MIN_LOAD_FACTOR = 0.125;
+
+    /**
+     * Slot states, kept in a parallel byte array next to the values
+     */
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte REMOVED = 2;
+
+    private final StampedLock lock = new StampedLock();
+    private volatile Slots slots;
+
+    /**
+     * Number of slots in state {@link #REMOVED}, only used by the writer
+     */
+    private int tombstones;
+
+    public SingleWriterHashTable() {
+        slots = new Slots(DEFAULT_CAPACITY);
+    }
+
+    public SingleWriterHashTable(IntHashFunction hashFunction) {
+        super(hashFunction);
+        slots = new Slots(DEFAULT_CAPACITY);
+    }
+
+    public SingleWriterHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    /**
+     * May be called by any thread
+     */
+    @Override
+    public int size() {
+        for (; ; ) {
+            long stamp = lock.tryOptimisticRead();
+            int currentSize = size;
+            if (stamp != 0 && lock.validate(stamp)) {
+                return currentSize;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    @Override
+    public boolean empty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        publish(new Slots(DEFAULT_CAPACITY), 0);
+        modCount = 0;
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof SingleWriterHashTable singleWriterOther) {
+            swap(singleWriterOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(SingleWriterHashTable other) {
+        // the lock isn't reentrant, taking it twice would never return
+        if (other == this) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        long otherStamp = other.lock.writeLock();
+        try {
+            Slots tempSlots = slots;
+            slots = other.slots;
+            other.slots = tempSlots;
+
+            IntHashFunction tempFunc = hash;
+            hash = other.hash;
+            other.hash = tempFunc;
+
+            int temp = size;
+            size = other.size;
+            other.size = temp;
+
+            temp = tombstones;
+            tombstones = other.tombstones;
+            other.tombstones = temp;
+
+            temp = modCount;
+            modCount = other.modCount;
+            other.modCount = temp;
+        } finally {
+            other.lock.unlockWrite(otherStamp);
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void swapContent(HashTable other) {
+        SingleWriterHashTable temp = new SingleWriterHashTable(hash);
+
+        for (Integer integer : other) {
+            temp.add(integer);
+        }
+
+        other.clear();
+        for (Integer integer : this) {
+            other.add(integer);
+        }
+
+        swap(temp);
+    }
+
+    @Override
+    public boolean add(int value) {
+        Slots current = slots;
+        int index = indexFor(value, current.keys.length);
+        int firstRemoved = -1;
+        while (current.states[index] != EMPTY) {
+            if (current.states[index] == OCCUPIED) {
+                if (current.keys[index] == value) {
+                    return false;
+                }
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = current.nextIndex(index);
+        }
+
+        if (firstRemoved < 0 && (double) (size + tombstones + 1) / current.keys.length >= MAX_LOAD_FACTOR) {
+            // a table with many tombstones is only rebuilt, dropping them
+            int capacity = tombstones >= size ? current.keys.length : current.keys.length * RESIZE_FACTOR;
+            Slots rebuilt = rebuild(current, capacity);
+            rebuilt.insert(value, indexFor(value, capacity));
+            publish(rebuilt, size + 1);
+        } else {
+            long stamp = lock.writeLock();
+            try {
+                if (firstRemoved >= 0) {
+                    index = firstRemoved;
+                    --tombstones;
+                }
+                current.keys[index] = value;
+                current.states[index] = OCCUPIED;
+                ++size;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        ++modCount;
+        return true;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!removeWithoutResizing(value)) {
+            return false;
+        }
+
+        Slots current = slots;
+        if (current.keys.length > DEFAULT_CAPACITY && (double) size / current.keys.length <= MIN_LOAD_FACTOR) {
+            publish(rebuild(current, current.keys.length / RESIZE_FACTOR), size);
+        }
+        return true;
+    }
+
+    /**
+     * Removing through an iterator doesn't shrink the table, so the iterator can continue from the same position
+     */
+    @Override
+    protected boolean removeIterated(int value) {
+        removeWithoutResizing(value);
+        return false;
+    }
+
+    /**
+     * A removed value leaves a tombstone, so that lookups continue past its slot. If the next slot
+     * is empty, no lookup needs to continue past it, so the slot and the tombstones before it are emptied.
+     */
+    private boolean removeWithoutResizing(int value) {
+        Slots current = slots;
+        int index = current.indexOf(value, indexFor(value, current.keys.length));
+        if (index < 0) {
+            return false;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            if (current.states[current.nextIndex(index)] == EMPTY) {
+                current.states[index] = EMPTY;
+                for (int i = current.previousIndex(index); current.states[i] == REMOVED; i = current.previousIndex(i)) {
+                    current.states[i] = EMPTY;
+                    --tombstones;
+                }
+            } else {
+                current.states[index] = REMOVED;
+                ++tombstones;
+            }
+            --size;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * May be called by any thread. It doesn't lock and doesn't allocate.
+     */
+    @Override
+    public boolean contains(int value) {
+        for (; ; ) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                Slots current = slots;
+                boolean found = current.indexOf(value, indexFor(value, current.keys.length)) >= 0;
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * @return new slots of the given capacity holding all values of the given ones
+     */
+    private Slots rebuild(Slots current, int capacity) {
+        Slots rebuilt = new Slots(capacity);
+        for (int i = 0; i < current.keys.length; i++) {
+            if (current.states[i] == OCCUPIED) {
+                rebuilt.insert(current.keys[i], indexFor(current.keys[i], capacity));
+            }
+        }
+        return rebuilt;
+    }
+
+    private void publish(Slots rebuilt, int newSize) {
+        long stamp = lock.writeLock();
+        try {
+            slots = rebuilt;
+            size = newSize;
+            tombstones = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    protected int slotCount() {
+        return slots.keys.length;
+    }
+
+    @Override
+    protected boolean isOccupied(int slot) {
+        return slots.states[slot] == OCCUPIED;
+    }
+
+    @Override
+    protected int valueAt(int slot) {
+        return slots.keys[slot];
+    }
+
+    /**
+     * The values and the states of the slots, always replaced together
+     */
+    private static final class Slots {
+        final int[] keys;
+        final byte[] states;
+
+        Slots(int capacity) {
+            keys = new int[capacity];
+            states = new byte[capacity];
+        }
+
+        /**
+         * Stops after visiting every slot, so a read overlapping a write can't loop forever
+         *
+         * @return the slot holding the value or -1 if the value is not there
+         */
+        int indexOf(int value, int index) {
+            for (int probes = 0; probes < keys.length && states[index] != EMPTY; ++probes) {
+                if (states[index] == OCCUPIED && keys[index] == value) {
+                    return index;
+                }
+                index = nextIndex(index);
+            }
+            return -1;
+        }
+
+        /**
+         * Stores the value in the first empty slot starting at the given index.
+         * Only used while the slots are not published yet.
+         */
+        void insert(int value, int index) {
+            while (states[index] != EMPTY) {
+                index = nextIndex(index);
+            }
+            keys[index] = value;
+            states[index] = OCCUPIED;
+        }
+
+        int nextIndex(int index) {
+            return (index + 1) & (keys.length - 1);
+        }
+
+        int previousIndex(int index) {
+            return (index - 1) & (keys.length - 1);
+        }
+    }
+}
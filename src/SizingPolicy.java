@@ -0,0 +1,202 @@
+/**
+ * Describes how a hash table is sized: its initial capacity, when it grows or shrinks and by how much.
+ * Each table keeps its own policy, so tuning one table doesn't affect the others.
+ * <p>
+ * Load factors which are not set are replaced by the defaults of the table the policy is passed to.
+ * <pre>{@code
+ * HashTable table = new LinearProbingHashTable(SizingPolicy.builder()
+ *         .expectedSize(10_000_000)
+ *         .shrinkPolicy(SizingPolicy.ShrinkPolicy.NEVER)
+ *         .build());
+ * }</pre>
+ */
+public final class SizingPolicy {
+    public static final SizingPolicy DEFAULT = builder().build();
+
+    /**
+     * What happens when the load factor of a table drops to its minimum
+     */
+    public enum ShrinkPolicy {
+        /**
+         * The table shrinks, but never below {@link AbstractHashTable#DEFAULT_CAPACITY}
+         */
+        SHRINK,
+        /**
+         * The table shrinks, but never below the capacity needed for the expected size
+         */
+        NOT_BELOW_EXPECTED_SIZE,
+        /**
+         * The table never shrinks
+         */
+        NEVER
+    }
+
+    private final int expectedSize;
+    private final double maxLoadFactor;
+    private final double minLoadFactor;
+    private final int growthFactor;
+    private final ShrinkPolicy shrinkPolicy;
+
+    private SizingPolicy(int expectedSize, double maxLoadFactor, double minLoadFactor,
+                         int growthFactor, ShrinkPolicy shrinkPolicy) {
+        this.expectedSize = expectedSize;
+        this.maxLoadFactor = maxLoadFactor;
+        this.minLoadFactor = minLoadFactor;
+        this.growthFactor = growthFactor;
+        this.shrinkPolicy = shrinkPolicy;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the default policy, with a table presized for the given number of values
+     */
+    public static SizingPolicy forExpectedSize(int expectedSize) {
+        return builder().expectedSize(expectedSize).build();
+    }
+
+    public int expectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * @return the load factor at which the table grows, NaN if not set
+     */
+    public double maxLoadFactor() {
+        return maxLoadFactor;
+    }
+
+    /**
+     * @return the load factor at which the table shrinks, NaN if not set
+     */
+    public double minLoadFactor() {
+        return minLoadFactor;
+    }
+
+    public int growthFactor() {
+        return growthFactor;
+    }
+
+    public ShrinkPolicy shrinkPolicy() {
+        return shrinkPolicy;
+    }
+
+    /**
+     * @return the smallest power of two capacity, not less than {@link AbstractHashTable#DEFAULT_CAPACITY},
+     * that can hold the expected number of values without growing
+     */
+    public int initialCapacity() {
+        int capacity = AbstractHashTable.DEFAULT_CAPACITY;
+        while (expectedSize >= capacity * maxLoadFactor) {
+            if (capacity > Integer.MAX_VALUE / 2) {
+                throw new IllegalArgumentException("The expected size is too large: " + expectedSize);
+            }
+            capacity *= 2;
+        }
+        return capacity;
+    }
+
+    /**
+     * @return the smallest capacity to which the table may shrink, {@link Integer#MAX_VALUE} if it never shrinks
+     */
+    public int minCapacity() {
+        return switch (shrinkPolicy) {
+            case SHRINK -> AbstractHashTable.DEFAULT_CAPACITY;
+            case NOT_BELOW_EXPECTED_SIZE -> initialCapacity();
+            case NEVER -> Integer.MAX_VALUE;
+        };
+    }
+
+    /**
+     * Fills in the load factors that were not set and checks they fit together.
+     *
+     * @param defaultMaxLoadFactor the maximum load factor of the table, used if none was set
+     * @param defaultMinLoadFactor the minimum load factor of the table, used if none was set
+     * @param maxAllowedLoadFactor the maximum load factor must be less than this
+     * @return a policy with both load factors set
+     * @throws IllegalArgumentException if the load factors don't fit together
+     */
+    SizingPolicy withDefaults(double defaultMaxLoadFactor, double defaultMinLoadFactor, double maxAllowedLoadFactor) {
+        double max = Double.isNaN(maxLoadFactor) ? defaultMaxLoadFactor : maxLoadFactor;
+        double min = Double.isNaN(minLoadFactor) ? defaultMinLoadFactor : minLoadFactor;
+        if (max >= maxAllowedLoadFactor) {
+            throw new IllegalArgumentException("The maximum load factor must be less than " + maxAllowedLoadFactor);
+        }
+        // after growing or shrinking the load factor must be between the limits, or the table would resize again
+        if (min * growthFactor >= max) {
+            throw new IllegalArgumentException(
+                    "The minimum load factor must be less than the maximum one divided by the growth factor");
+        }
+        return new SizingPolicy(expectedSize, max, min, growthFactor, shrinkPolicy);
+    }
+
+    public static final class Builder {
+        private int expectedSize = 0;
+        private double maxLoadFactor = Double.NaN;
+        private double minLoadFactor = Double.NaN;
+        private int growthFactor = AbstractHashTable.RESIZE_FACTOR;
+        private ShrinkPolicy shrinkPolicy = ShrinkPolicy.SHRINK;
+
+        private Builder() {
+        }
+
+        /**
+         * @param expectedSize number of values the table will hold, it is presized to hold them without growing
+         */
+        public Builder expectedSize(int expectedSize) {
+            if (expectedSize < 0) {
+                throw new IllegalArgumentException("The expected size must not be negative");
+            }
+            this.expectedSize = expectedSize;
+            return this;
+        }
+
+        /**
+         * @param maxLoadFactor ratio of values to capacity at which the table grows
+         */
+        public Builder maxLoadFactor(double maxLoadFactor) {
+            if (!(maxLoadFactor > 0)) {
+                throw new IllegalArgumentException("The maximum load factor must be positive");
+            }
+            this.maxLoadFactor = maxLoadFactor;
+            return this;
+        }
+
+        /**
+         * @param minLoadFactor ratio of values to capacity at which the table shrinks
+         */
+        public Builder minLoadFactor(double minLoadFactor) {
+            if (!(minLoadFactor >= 0)) {
+                throw new IllegalArgumentException("The minimum load factor must not be negative");
+            }
+            this.minLoadFactor = minLoadFactor;
+            return this;
+        }
+
+        /**
+         * @param growthFactor the factor by which the capacity is multiplied when growing and divided
+         *                     when shrinking, it must be a power of two, so capacities stay powers of two
+         */
+        public Builder growthFactor(int growthFactor) {
+            if (growthFactor < 2 || Integer.bitCount(growthFactor) != 1) {
+                throw new IllegalArgumentException("The growth factor must be a power of two greater than 1");
+            }
+            this.growthFactor = growthFactor;
+            return this;
+        }
+
+        public Builder shrinkPolicy(ShrinkPolicy shrinkPolicy) {
+            if (shrinkPolicy == null) {
+                throw new IllegalArgumentException("The shrink policy is null!");
+            }
+            this.shrinkPolicy = shrinkPolicy;
+            return this;
+        }
+
+        public SizingPolicy build() {
+            return new SizingPolicy(expectedSize, maxLoadFactor, minLoadFactor, growthFactor, shrinkPolicy);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Open addressing hash table in the style of SwissTable.
+ * <p>
+ * Next to the values the table keeps one control byte per slot. A full slot stores 7 bits of the
+ * hash of its value, empty and deleted slots store the markers {@link #EMPTY} and {@link #DELETED}.
+ * Slots are probed in groups of 16: the 16 control bytes of a group are read as two longs and
+ * compared against the searched 7 bits all at once, so only slots whose hash bits match are
+ * compared by value, and a lookup of an absent value usually ends after inspecting a single group.
+ * <p>
+ * Groups are visited in triangular order (g, g+1, g+3, g+6, ...), which covers all of them
+ * because their number is a power of two.
+ */
+public class SwissHashTable extends OpenAddressingHashTable {
+    public static final double MAX_LOAD_FACTOR = 0.875;
+    public static final double MIN_LOAD_FACTOR = 0.2;
+    public static final int GROUP_SIZE = 16;
+
+    private static final byte EMPTY = (byte) 0x80;
+    private static final byte DELETED = (byte) 0xFE;
+
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final VarHandle CONTROL_WORD =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private int[] table;
+    private byte[] control;
+
+    /**
+     * Number of empty slots that can still be filled before the table has to be rehashed
+     */
+    private int growthLeft;
+
+    public SwissHashTable() {
+        init(DEFAULT_CAPACITY);
+    }
+
+    public SwissHashTable(IntHashFunction hashFunction) {
+        super(hashFunction);
+        init(DEFAULT_CAPACITY);
+    }
+
+    public SwissHashTable(Function<Integer, Integer> hashFunction) {
+        this(IntHashFunction.of(hashFunction));
+    }
+
+    private void init(int capacity) {
+        table = new int[capacity];
+        // published only once filled, so a lookup racing with a resize still meets empty slots
+        byte[] emptyControl = new byte[capacity];
+        Arrays.fill(emptyControl, EMPTY);
+        control = emptyControl;
+        growthLeft = (int) (capacity * MAX_LOAD_FACTOR);
+    }
+
+    @Override
+    public void clear() {
+        init(DEFAULT_CAPACITY);
+        modCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public void swap(HashTable other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The argument is null!");
+        }
+        if (other instanceof SwissHashTable swissOther) {
+            swap(swissOther);
+        } else {
+            swapContent(other);
+        }
+    }
+
+    private void swap(SwissHashTable other) {
+        int[] tempArray = table;
+        table = other.table;
+        other.table = tempArray;
+
+        byte[] tempControl = control;
+        control = other.control;
+        other.control = tempControl;
+
+        IntHashFunction tempFunc = hash;
+        hash = other.hash;
+        other.hash = tempFunc;
+
+        int temp = size;
+        size = other.size;
+        other.size = temp;
+
+        temp = growthLeft;
+        growthLeft = other.growthLeft;
+        other.growthLeft = temp;
+
+        temp = modCount;
+        modCount = other.modCount;
+        other.modCount = temp;
+    }
+
+    private void swapContent(HashTable other) {
+        SwissHashTable temp = new SwissHashTable();
+
+        for (Integer integer : other) {
+            temp.add(integer);
+        }
+
+        other.clear();
+        for (Integer integer : this) {
+            other.add(integer);
+        }
+
+        swap(temp);
+    }
+
+    @Override
+    public boolean add(int value) {
+        int h = spread(value);
+        if (find(value, h) >= 0) {
+            return false;
+        }
+
+        if (growthLeft == 0) {
+            rehash();
+        }
+        insert(value, h);
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Stores the value in the first empty or deleted slot of its probe sequence.
+     * The caller is responsible for checking that the value is not already present.
+     */
+    private void insert(int value, int h) {
+        int groupMask = groupCount() - 1;
+        int group = (h >>> 7) & groupMask;
+        for (int step = 1; ; ++step) {
+            int offset = group * GROUP_SIZE;
+            long free = matchEmptyOrDeleted(word(offset));
+            int slot = offset;
+            if (free == 0) {
+                free = matchEmptyOrDeleted(word(offset + 8));
+                slot += 8;
+            }
+            if (free != 0) {
+                slot += Long.numberOfTrailingZeros(free) >>> 3;
+                if (control[slot] == EMPTY) {
+                    --growthLeft;
+                }
+                table[slot] = value;
+                control[slot] = (byte) (h & 0x7F);
+                return;
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Called when no empty slot can be filled anymore. If many of the used slots are deleted ones,
+     * the table is rebuilt with the same capacity to get rid of them, otherwise it grows.
+     */
+    private void rehash() {
+        if (size < table.length * MAX_LOAD_FACTOR / 2) {
+            resize(table.length);
+        } else {
+            resize(table.length * RESIZE_FACTOR);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldTable = table;
+        byte[] oldControl = control;
+        init(newCapacity);
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldControl[i] >= 0) {
+                insert(oldTable[i], spread(oldTable[i]));
+            }
+        }
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!removeWithoutResizing(value)) {
+            return false;
+        }
+        if (checkShrink()) {
+            resize(table.length / RESIZE_FACTOR);
+        }
+        return true;
+    }
+
+    /**
+     * Removing through an iterator doesn't shrink the table, so the iterator can continue over the same slots
+     */
+    @Override
+    protected boolean removeIterated(int value) {
+        removeWithoutResizing(value);
+        return false;
+    }
+
+    private boolean removeWithoutResizing(int value) {
+        int slot = find(value, spread(value));
+        if (slot < 0) {
+            return false;
+        }
+
+        int offset = slot & -GROUP_SIZE;
+        boolean groupHasEmpty = (matchEmpty(word(offset)) | matchEmpty(word(offset + 8))) != 0;
+        // a probe only ever passed this group if it had no empty slot, which is never undone before a rehash
+        if (groupHasEmpty) {
+            control[slot] = EMPTY;
+            ++growthLeft;
+        } else {
+            control[slot] = DELETED;
+        }
+        --size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * The table is never shrunk below its default capacity
+     */
+    private boolean checkShrink() {
+        return table.length > DEFAULT_CAPACITY && ((double) size / table.length) <= MIN_LOAD_FACTOR;
+    }
+
+    @Override
+    public boolean contains(int value) {
+        return find(value, spread(value)) >= 0;
+    }
+
+    /**
+     * @return the slot holding the value or -1 if the value is not in the table
+     */
+    private int find(int value, int h) {
+        long pattern = LOW_BITS * (h & 0x7F);
+        int groupMask = groupCount() - 1;
+        int group = (h >>> 7) & groupMask;
+        // the triangular probe has visited every group after groupCount() steps. The table always keeps
+        // empty slots, so the probe only gets that far if the control bytes change during the lookup.
+        for (int step = 1; step <= groupMask + 1; ++step) {
+            int offset = group * GROUP_SIZE;
+            long low = word(offset);
+            long high = word(offset + 8);
+
+            for (long match = matchByte(low, pattern); match != 0; match &= match - 1) {
+                int slot = offset + (Long.numberOfTrailingZeros(match) >>> 3);
+                if (table[slot] == value) {
+                    return slot;
+                }
+            }
+            for (long match = matchByte(high, pattern); match != 0; match &= match - 1) {
+                int slot = offset + 8 + (Long.numberOfTrailingZeros(match) >>> 3);
+                if (table[slot] == value) {
+                    return slot;
+                }
+            }
+            if ((matchEmpty(low) | matchEmpty(high)) != 0) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+        return -1;
+    }
+
+    private int groupCount() {
+        return table.length / GROUP_SIZE;
+    }
+
+    /**
+     * Mixes the hash of the value, so that its low 7 bits and the bits choosing the group are independent
+     */
+    private int spread(int value) {
+        int h = hash.hash(value) * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private long word(int offset) {
+        return (long) CONTROL_WORD.get(control, offset);
+    }
+
+    /**
+     * @return a word with the high bit set in the bytes equal to the pattern's bytes. It might also
+     * report bytes following a real match, so the candidates have to be compared by value.
+     */
+    private static long matchByte(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - LOW_BITS) & ~x & HIGH_BITS;
+    }
+
+    /**
+     * @return a word with the high bit set in the bytes that are {@link #EMPTY}
+     */
+    private static long matchEmpty(long word) {
+        return word & (~word << 6) & HIGH_BITS;
+    }
+
+    /**
+     * @return a word with the high bit set in the bytes that are {@link #EMPTY} or {@link #DELETED}
+     */
+    private static long matchEmptyOrDeleted(long word) {
+        return word & HIGH_BITS;
+    }
+
+    @Override
+    protected int slotCount() {
+        return table.length;
+    }
+
+    @Override
+    protected boolean isOccupied(int slot) {
+        return control[slot] >= 0;
+    }
+
+    @Override
+    protected int valueAt(int slot) {
+        return table[slot];
+    }
+}
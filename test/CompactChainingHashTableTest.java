@@ -0,0 +1,203 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompactChainingHashTableTest extends HashTableTest<CompactChainingHashTable> {
+
+    @Override
+    protected CompactChainingHashTable createTable() {
+        return new CompactChainingHashTable();
+    }
+
+    @Override
+    protected CompactChainingHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new CompactChainingHashTable(hashFunction);
+    }
+
+    @Override
+    protected CompactChainingHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new CompactChainingHashTable(hashFunction);
+    }
+
+    @Test
+    void fibonacciIndexing_valuesWithEqualLowBits_allValuesInHashTable() {
+        //Arrange
+        CompactChainingHashTable fibonacciTable = new CompactChainingHashTable(HashFunctions::absHash,
+                AbstractHashTable.IndexingMode.FIBONACCI);
+
+        //Act
+        for (int i = 0; i < 10000; i++) {
+            fibonacciTable.add(i << 10);
+        }
+
+        //Assert
+        assertEquals(10000, fibonacciTable.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(fibonacciTable.contains(i << 10), "The table should contain: " + (i << 10));
+            assertFalse(fibonacciTable.contains((i << 10) + 1), "The table should not contain: " + ((i << 10) + 1));
+        }
+    }
+
+    @Test
+    void remove_valuesOfOneChain_remainingValuesAreStillFound() {
+        //Arrange
+        CompactChainingHashTable oneChain = new CompactChainingHashTable(value -> 0);
+        for (int i = 0; i < 100; i++) {
+            oneChain.add(i);
+        }
+
+        //Act
+        for (int i = 0; i < 100; i += 3) {
+            oneChain.remove(i);
+        }
+
+        //Assert
+        assertEquals(66, oneChain.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 != 0, oneChain.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void add_afterRemovals_reusesTheFreedNodes() {
+        //Arrange
+        Random random = new Random(7);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+            expected.add(i);
+        }
+        int capacity = table.capacity();
+
+        //Act
+        for (int round = 0; round < 100000; round++) {
+            int removed = random.nextInt(2000);
+            int added = random.nextInt(2000);
+            if (expected.contains(removed) && !expected.contains(added)) {
+                table.remove(removed);
+                expected.remove(removed);
+                table.add(added);
+                expected.add(added);
+            }
+        }
+
+        //Assert
+        assertEquals(capacity, table.capacity());
+        assertEquals(expected.size(), table.size());
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(expected.contains(i), table.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void iteratorRemove_valuesOfOneChain_iterationContinuesWithTheRest() {
+        //Arrange
+        CompactChainingHashTable oneChain = new CompactChainingHashTable(value -> 0);
+        for (int i = 0; i < 10; i++) {
+            oneChain.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+        IntIterator it = oneChain.intIterator();
+
+        //Act
+        while (it.hasNext()) {
+            int value = it.nextInt();
+            visited.add(value);
+            if (value % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(10, visited.size());
+        assertEquals(5, oneChain.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 2 == 1, oneChain.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void clear_filledTable_keepsTheCapacity() {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        int capacity = table.capacity();
+
+        //Act
+        table.clear();
+
+        //Assert
+        assertEquals(capacity, table.capacity());
+        assertTrue(table.empty());
+        assertFalse(table.contains(5));
+        table.add(5);
+        assertTrue(table.contains(5));
+    }
+
+    @Test
+    void constructor_hugeMaxLoadFactor_poolGrowsWithTheValues() {
+        //Arrange
+        CompactChainingHashTable dense = new CompactChainingHashTable(SizingPolicy.builder()
+                .maxLoadFactor(1e9)
+                .minLoadFactor(0)
+                .build());
+
+        //Act
+        for (int i = 0; i < 10000; i++) {
+            dense.add(i);
+        }
+
+        //Assert
+        assertEquals(AbstractHashTable.DEFAULT_CAPACITY, dense.capacity());
+        assertEquals(10000, dense.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(dense.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void addAll_manyValues_capacityMatchesAddingOneByOne() {
+        //Arrange
+        CompactChainingHashTable oneByOne = new CompactChainingHashTable();
+        int[] values = new int[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 31;
+            oneByOne.add(values[i]);
+        }
+
+        //Act
+        table.addAll(values);
+
+        //Assert
+        assertEquals(oneByOne.capacity(), table.capacity());
+        assertEquals(100000, table.size());
+    }
+
+    @Test
+    void swap_withSeparateChaining_swapsContents() {
+        //Arrange
+        SeparateChainingHashTable other = new SeparateChainingHashTable();
+        for (int i = 0; i < 10; i++) {
+            table.add(i);
+            other.add(i + 10);
+        }
+
+        //Act
+        table.swap(other);
+
+        //Assert
+        for (int i = 0; i < 10; i++) {
+            assertTrue(table.contains(i + 10), "The compact chaining table should contain: " + (i + 10));
+            assertTrue(other.contains(i), "The separate chaining table should contain: " + i);
+            assertFalse(table.contains(i), "The compact chaining table should not contain: " + i);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentStripedHashTableTest extends HashTableTest<ConcurrentStripedHashTable> {
+    private static final int THREADS = 8;
+
+    @Override
+    protected ConcurrentStripedHashTable createTable() {
+        return new ConcurrentStripedHashTable();
+    }
+
+    @Override
+    protected ConcurrentStripedHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new ConcurrentStripedHashTable(hashFunction);
+    }
+
+    @Override
+    protected ConcurrentStripedHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new ConcurrentStripedHashTable(hashFunction);
+    }
+
+    @Override
+    protected boolean hasFailFastIterators() {
+        return false;
+    }
+
+    @Test
+    void constructor_segmentCountNotPositive_throwsException() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new ConcurrentStripedHashTable(HashFunctions::customHash, 0, LinearProbingHashTable::new));
+    }
+
+    @Test
+    void separateChainingSegments_addedElements_areContained() {
+        //Arrange
+        ConcurrentStripedHashTable chained =
+                new ConcurrentStripedHashTable(HashFunctions::FNVhash, 3, SeparateChainingHashTable::new);
+
+        //Act
+        for (int i = 0; i < 1000; i++) {
+            chained.add(i);
+        }
+
+        //Assert
+        assertEquals(1000, chained.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(chained.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void add_threadsAddingOverlappingRanges_everyValueIsAddedOnce() throws InterruptedException {
+        //Arrange
+        int[] added = new int[THREADS];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    // every value is added by two threads
+                    if (table.add(i * THREADS / 2 + thread / 2)) {
+                        ++added[thread];
+                    }
+                }
+            }));
+        }
+
+        //Act
+        runAll(threads);
+
+        //Assert
+        int totalAdded = 0;
+        for (int count : added) {
+            totalAdded += count;
+        }
+        assertEquals(100000 * THREADS / 2, totalAdded);
+        assertEquals(100000 * THREADS / 2, table.size());
+        for (int i = 0; i < 100000 * THREADS / 2; i++) {
+            assertTrue(table.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void contains_readersDuringWrites_stableValuesAreAlwaysFound() throws InterruptedException {
+        assertReadersFindStableValuesDuringWrites(table);
+    }
+
+    @Test
+    void contains_readersDuringWritesToSwissSegments_stableValuesAreAlwaysFound() throws InterruptedException {
+        assertReadersFindStableValuesDuringWrites(
+                new ConcurrentStripedHashTable(HashFunctions::customHash, 2, SwissHashTable::new));
+    }
+
+    @Test
+    void iterator_tableModifiedDuringIteration_valuesPresentThroughoutAreVisited() {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        Iterator<Integer> it = table.iterator();
+        int next = 1000;
+        while (it.hasNext()) {
+            visited.add(it.next());
+            table.add(next++);
+            table.remove(next - 1000);
+        }
+
+        //Assert
+        assertTrue(visited.contains(0), "The table should contain: 0");
+        for (int i = next - 999; i < 1000; i++) {
+            assertTrue(visited.contains(i), "The iterator should visit: " + i);
+        }
+    }
+
+    /**
+     * Writers keep growing and shrinking the segments while readers look up values which stay in the table
+     */
+    private static void assertReadersFindStableValuesDuringWrites(ConcurrentStripedHashTable table)
+            throws InterruptedException {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(-i - 1);
+        }
+        AtomicBoolean missed = new AtomicBoolean(false);
+        CountDownLatch writersDone = new CountDownLatch(THREADS / 2);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS / 2; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int round = 0; round < 5; round++) {
+                    for (int i = thread; i < 50000; i += THREADS / 2) {
+                        table.add(i);
+                    }
+                    for (int i = thread; i < 50000; i += THREADS / 2) {
+                        table.remove(i);
+                    }
+                }
+                writersDone.countDown();
+            }));
+            threads.add(new Thread(() -> {
+                while (writersDone.getCount() > 0) {
+                    for (int i = 0; i < 1000; i++) {
+                        if (!table.contains(-i - 1)) {
+                            missed.set(true);
+                        }
+                    }
+                }
+            }));
+        }
+
+        //Act
+        runAll(threads);
+
+        //Assert
+        assertFalse(missed.get(), "A value present during the whole test was not found");
+        assertEquals(1000, table.size());
+    }
+
+    private static void runAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+import java.util.function.Function;
+
+class CuckooHashTableTest extends HashTableTest<CuckooHashTable> {
+
+    @Override
+    protected CuckooHashTable createTable() {
+        return new CuckooHashTable();
+    }
+
+    @Override
+    protected CuckooHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new CuckooHashTable(hashFunction);
+    }
+
+    @Override
+    protected CuckooHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new CuckooHashTable(hashFunction);
+    }
+}
@@ -0,0 +1,182 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlatCombiningHashTableTest extends HashTableTest<FlatCombiningHashTable> {
+    private static final int THREADS = 8;
+
+    @Override
+    protected FlatCombiningHashTable createTable() {
+        return new FlatCombiningHashTable();
+    }
+
+    @Override
+    protected FlatCombiningHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new FlatCombiningHashTable(hashFunction);
+    }
+
+    @Override
+    protected FlatCombiningHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new FlatCombiningHashTable(hashFunction);
+    }
+
+    @Override
+    protected boolean hasFailFastIterators() {
+        return false;
+    }
+
+    @Test
+    void constructor_nullEngine_throwsException() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new FlatCombiningHashTable((HashTable) null));
+    }
+
+    @Test
+    void addRemove_threadsTogglingFewHotValues_returnValuesMatchFinalContent() throws InterruptedException {
+        //Arrange
+        int values = 16;
+        FlatCombiningHashTable chained = new FlatCombiningHashTable(new SeparateChainingHashTable());
+        AtomicIntegerArray balance = new AtomicIntegerArray(values);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 100000; i++) {
+                    int value = random.nextInt(values);
+                    if (random.nextBoolean()) {
+                        if (chained.add(value)) {
+                            balance.incrementAndGet(value);
+                        }
+                    } else if (chained.remove(value)) {
+                        balance.decrementAndGet(value);
+                    }
+                }
+            }));
+        }
+
+        //Act
+        runAll(threads);
+
+        //Assert
+        int present = 0;
+        for (int i = 0; i < values; i++) {
+            int expected = balance.get(i);
+            assertTrue(expected == 0 || expected == 1, "Successful adds and removes of " + i + " don't alternate");
+            assertEquals(expected == 1, chained.contains(i), "Wrong membership of: " + i);
+            present += expected;
+        }
+        assertEquals(present, chained.size());
+    }
+
+    @Test
+    void add_manyShortLivedThreads_everyValueIsAdded() throws InterruptedException {
+        //Arrange
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 200; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    table.add(thread * 100 + i);
+                }
+            }));
+        }
+
+        //Act
+        for (Thread thread : threads) {
+            thread.start();
+            thread.join();
+        }
+
+        //Assert
+        assertEquals(20000, table.size());
+        for (int i = 0; i < 20000; i++) {
+            assertTrue(table.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void addRemove_threadsComingBackAfterTheirRecordsAgedOut_noOperationHangsOrIsLost() throws InterruptedException {
+        //Arrange
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Thread> busy = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            int thread = t;
+            busy.add(new Thread(() -> {
+                int value = -1 - thread;
+                while (!stop.get()) {
+                    table.add(value);
+                    table.remove(value);
+                }
+            }));
+        }
+        List<Thread> returning = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            returning.add(new Thread(() -> {
+                for (int round = 0; round < 30; round++) {
+                    for (int i = 0; i < 50; i++) {
+                        table.add(thread * 100000 + round * 100 + i);
+                    }
+                    for (int i = 0; i < 50; i += 2) {
+                        table.remove(thread * 100000 + round * 100 + i);
+                    }
+                    // let the busy threads run more than RECORD_MAX_AGE passes, so the record is unlinked
+                    long passesEnd = System.nanoTime() + 2_000_000;
+                    while (System.nanoTime() < passesEnd) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        busy.forEach(Thread::start);
+
+        //Act
+        for (Thread thread : returning) {
+            thread.start();
+        }
+        for (Thread thread : returning) {
+            thread.join(60000);
+        }
+        stop.set(true);
+        for (Thread thread : busy) {
+            thread.join(60000);
+        }
+
+        //Assert
+        for (Thread thread : returning) {
+            assertFalse(thread.isAlive(), "A thread hung in the combining table");
+        }
+        for (Thread thread : busy) {
+            assertFalse(thread.isAlive(), "A thread hung in the combining table");
+        }
+        assertEquals(THREADS * 30 * 25, table.size());
+        for (int t = 0; t < THREADS; t++) {
+            for (int round = 0; round < 30; round++) {
+                for (int i = 0; i < 50; i++) {
+                    int value = t * 100000 + round * 100 + i;
+                    assertEquals(i % 2 == 1, table.contains(value), "Wrong membership of: " + value);
+                }
+            }
+        }
+    }
+
+    private static void runAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
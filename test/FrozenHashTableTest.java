@@ -0,0 +1,129 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrozenHashTableTest {
+
+    @Test
+    void from_emptyTable_frozenTableIsEmpty() {
+        //Act
+        FrozenHashTable frozen = FrozenHashTable.from(new LinearProbingHashTable());
+
+        //Assert
+        assertTrue(frozen.empty());
+        assertFalse(frozen.contains(0));
+        assertFalse(frozen.iterator().hasNext());
+    }
+
+    @Test
+    void from_nullArgument_throwsException() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> FrozenHashTable.from(null));
+    }
+
+    @Test
+    void freeze_randomValues_containsExactlyTheSameValues() {
+        //Arrange
+        Random random = new Random(17);
+        SeparateChainingHashTable source = new SeparateChainingHashTable();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            int value = random.nextInt();
+            source.add(value);
+            expected.add(value);
+        }
+
+        //Act
+        FrozenHashTable frozen = source.freeze();
+
+        //Assert
+        assertEquals(expected.size(), frozen.size());
+        for (int value : expected) {
+            assertTrue(frozen.contains(value), "The table should contain: " + value);
+        }
+        for (int i = 0; i < 100000; i++) {
+            int value = random.nextInt();
+            assertEquals(expected.contains(value), frozen.contains(value), "Wrong membership of: " + value);
+        }
+    }
+
+    @Test
+    void freeze_consecutiveValuesStartingAtZero_neighbouringValuesAreNotReported() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        for (int i = 0; i < 1000; i++) {
+            source.add(i);
+        }
+
+        //Act
+        FrozenHashTable frozen = source.freeze();
+
+        //Assert
+        for (int i = -1000; i < 2000; i++) {
+            assertEquals(i >= 0 && i < 1000, frozen.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void freeze_frozenTable_returnsTheSameTable() {
+        //Arrange
+        FrozenHashTable frozen = new LinearProbingHashTable().freeze();
+
+        //Act & Assert
+        assertSame(frozen, frozen.freeze());
+    }
+
+    @Test
+    void iterators_frozenTable_visitEveryValueOnce() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        for (int i = -500; i < 500; i++) {
+            source.add(i * 7);
+        }
+        FrozenHashTable frozen = source.freeze();
+        Set<Integer> forward = new HashSet<>();
+        Set<Integer> backward = new HashSet<>();
+
+        //Act
+        for (Integer value : frozen) {
+            assertTrue(forward.add(value), "Visited twice: " + value);
+        }
+        ReverseIterator it = frozen.reverseIterator();
+        while (it.hasPrevious()) {
+            assertTrue(backward.add(it.previous()));
+        }
+
+        //Assert
+        assertEquals(1000, forward.size());
+        assertEquals(forward, backward);
+        assertThrows(NoSuchElementException.class, it::previous);
+    }
+
+    @Test
+    void mutators_frozenTable_throwUnsupportedOperationException() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        source.add(5);
+        FrozenHashTable frozen = source.freeze();
+        Iterator<Integer> it = frozen.iterator();
+        it.next();
+
+        //Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> frozen.add(6));
+        assertThrows(UnsupportedOperationException.class, () -> frozen.remove(5));
+        assertThrows(UnsupportedOperationException.class, frozen::clear);
+        assertThrows(UnsupportedOperationException.class, () -> frozen.swap(source));
+        assertThrows(UnsupportedOperationException.class, it::remove);
+        assertTrue(frozen.contains(5));
+    }
+}
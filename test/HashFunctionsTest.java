@@ -2,6 +2,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Random;
+
 class HashFunctionsTest {
 
     @Test
@@ -33,4 +35,49 @@ class HashFunctionsTest {
     void absHash_DifferentElements_ShouldHaveDifferentHashes() {
         assertNotEquals(HashFunctions.absHash(4), HashFunctions.absHash(5));
     }
+
+    @Test
+    void seededHash_EqualElementsAndSeeds_ShouldHaveSameHash() {
+        assertEquals(HashFunctions.seededHash(12, 3), HashFunctions.seededHash(12, 3));
+    }
+
+    @Test
+    void seededHash_EqualElementsDifferentSeeds_ShouldHaveDifferentHashes() {
+        assertNotEquals(HashFunctions.seededHash(12, 3), HashFunctions.seededHash(12, 4));
+    }
+
+    @Test
+    void minimalPerfect_distinctValues_hashesAreAPermutationOfTheIndices() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        Random random = new Random(3);
+        while (source.size() < 50000) {
+            source.add(random.nextInt());
+        }
+
+        //Act
+        MinimalPerfectHashFunction hashFunction = HashFunctions.minimalPerfect(source);
+
+        //Assert
+        boolean[] taken = new boolean[source.size()];
+        for (Integer value : source) {
+            int hash = hashFunction.hash(value);
+            assertTrue(hash >= 0 && hash < taken.length, "Hash out of range: " + hash);
+            assertFalse(taken[hash], "Hash given twice: " + hash);
+            taken[hash] = true;
+        }
+        assertEquals(source.size(), hashFunction.size());
+    }
+
+    @Test
+    void standardById_idOfEveryFunction_returnsTheSameFunction() {
+        for (HashFunctions.Standard function : HashFunctions.Standard.values()) {
+            assertSame(function, HashFunctions.Standard.byId(function.id()));
+        }
+    }
+
+    @Test
+    void standardById_unknownId_throwsException() {
+        assertThrows(IllegalArgumentException.class, () -> HashFunctions.Standard.byId(0));
+    }
 }
@@ -1,14 +1,20 @@
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 abstract class HashTableTest<T extends AbstractHashTable> {
     protected T table;
@@ -17,6 +23,15 @@ abstract class HashTableTest<T extends AbstractHashTable> {
 
     protected abstract T createTable(Function<Integer, Integer> hashFunction);
 
+    protected abstract T createTableWithIntHash(IntHashFunction hashFunction);
+
+    /**
+     * @return false for the concurrent tables, whose iterators see a weakly consistent view instead of failing fast
+     */
+    protected boolean hasFailFastIterators() {
+        return true;
+    }
+
     @BeforeEach
     public void setUp() {
         table = createTable();
@@ -34,6 +49,28 @@ abstract class HashTableTest<T extends AbstractHashTable> {
                 "HashTable created with constructor taking a function should have zero size!");
     }
 
+    @Test
+    void constructorTakingIntHashFunction_whenCreated_hashTableHasZeroSize() {
+        assertEquals(0, (createTableWithIntHash(HashFunctions::customHash)).size(),
+                "HashTable created with constructor taking an int function should have zero size!");
+    }
+
+    @Test
+    void constructorTakingIntHashFunction_addedElements_areContained() {
+        //Arrange
+        T other = createTableWithIntHash(HashFunctions::absHash);
+
+        //Act
+        for (int i = 0; i < 100; i++) {
+            other.add(i);
+        }
+
+        //Assert
+        for (int i = 0; i < 100; i++) {
+            assertTrue(other.contains(i), "The table should contain the inserted element: " + i);
+        }
+    }
+
     @Test
     void empty_anEmptyHashTable_emptyReturnsTrue() {
         //Act, Assert
@@ -152,6 +189,41 @@ abstract class HashTableTest<T extends AbstractHashTable> {
         }
     }
 
+    @Test
+    void add_HashFunctionReturningNegativeNumbers_AllNumbersInHashTable() {
+        //Arrange
+        T identityHashed = createTableWithIntHash(x -> x);
+
+        //Act
+        for (int i = -1000; i < 1000; i++) {
+            identityHashed.add(i);
+        }
+
+        //Assert
+        assertEquals(2000, identityHashed.size());
+        for (int i = -1000; i < 1000; i++) {
+            assertTrue(identityHashed.contains(i), "The table should contain the inserted element: " + i);
+        }
+    }
+
+    @Test
+    void add_valuesSharingTheirHash_allValuesInHashTable() {
+        //Arrange
+        T colliding = createTableWithIntHash(x -> 42);
+
+        //Act
+        for (int i = 0; i < 100; i++) {
+            colliding.add(i);
+        }
+
+        //Assert
+        assertEquals(100, colliding.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(colliding.contains(i), "The table should contain: " + i);
+            assertFalse(colliding.contains(-i - 1), "The table should not contain: " + (-i - 1));
+        }
+    }
+
     @Test
     void remove_ValueInTable_ValueRemoved() {
         //Arrange
@@ -371,6 +443,519 @@ abstract class HashTableTest<T extends AbstractHashTable> {
         assertFalse(it.hasPrevious());
     }
 
+    @Test
+    void iteratorRemove_everyOtherValue_everyValueIsVisitedOnce() {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        Iterator<Integer> it = table.iterator();
+        while (it.hasNext()) {
+            int value = it.next();
+            assertTrue(visited.add(value), "The value was visited twice: " + value);
+            if (value % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(1000, visited.size());
+        assertEquals(500, table.size());
+    }
+
+    @Test
+    void forEachInt_filledTable_visitsTheValuesInIterationOrder() {
+        //Arrange
+        fill(-500, 1000, 3);
+        List<Integer> iterated = new ArrayList<>();
+        for (int value : table) {
+            iterated.add(value);
+        }
+
+        //Act
+        List<Integer> visited = new ArrayList<>();
+        table.forEachInt(visited::add);
+
+        //Assert
+        assertEquals(iterated, visited);
+    }
+
+    @Test
+    void forEachInt_nullAction_throwsException() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> table.forEachInt(null));
+    }
+
+    @Test
+    void intIterator_filledTable_returnsTheValuesOfIterator() {
+        //Arrange
+        fill(0, 1000, 7);
+        Iterator<Integer> boxed = table.iterator();
+
+        //Act
+        IntIterator it = table.intIterator();
+
+        //Assert
+        while (boxed.hasNext()) {
+            assertTrue(it.hasNext());
+            assertEquals((int) boxed.next(), it.nextInt());
+        }
+        assertFalse(it.hasNext());
+        assertThrows(NoSuchElementException.class, it::nextInt);
+    }
+
+    @Test
+    void intIteratorRemove_removeEvenValues_onlyOddValuesAreLeft() {
+        //Arrange
+        fill(0, 999, 1);
+        IntIterator it = table.intIterator();
+
+        //Act
+        while (it.hasNext()) {
+            if (it.nextInt() % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(500, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, table.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void intIteratorForEachRemaining_afterSomeValues_visitsTheRest() {
+        //Arrange
+        fill(0, 499, 1);
+        Set<Integer> visited = new HashSet<>();
+        IntIterator it = table.intIterator();
+        for (int i = 0; i < 100; i++) {
+            visited.add(it.nextInt());
+        }
+
+        //Act
+        it.forEachRemaining((int value) -> assertTrue(visited.add(value), "Visited twice: " + value));
+
+        //Assert
+        assertEquals(500, visited.size());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    void forEachInt_actionAddsValues_throwsExceptionAfterTheScan() {
+        //Arrange
+        assumeTrue(hasFailFastIterators());
+        for (int i = 0; i < 100; i++) {
+            table.add(i);
+        }
+
+        //Act & Assert
+        assertThrows(ConcurrentModificationException.class, () -> table.forEachInt(value -> table.add(value + 1000)));
+    }
+
+    @Test
+    void intIteratorForEachRemaining_actionRemovesValues_throwsException() {
+        //Arrange
+        assumeTrue(hasFailFastIterators());
+        for (int i = 0; i < 100; i++) {
+            table.add(i);
+        }
+        IntIterator it = table.intIterator();
+
+        //Act & Assert
+        assertThrows(ConcurrentModificationException.class, () -> it.forEachRemaining((int value) -> table.remove(value)));
+    }
+
+    @Test
+    void spliterator_splitRepeatedly_partsHoldEachValueOnce() {
+        //Arrange
+        fill(0, 9999, 1);
+        List<Spliterator.OfInt> parts = new ArrayList<>();
+        parts.add(table.spliterator());
+
+        //Act
+        for (int round = 0; round < 4; round++) {
+            for (int i = parts.size() - 1; i >= 0; i--) {
+                Spliterator.OfInt prefix = parts.get(i).trySplit();
+                if (prefix != null) {
+                    parts.add(prefix);
+                }
+            }
+        }
+
+        //Assert
+        Set<Integer> visited = new HashSet<>();
+        for (Spliterator.OfInt part : parts) {
+            part.forEachRemaining((int value) -> assertTrue(visited.add(value), "Visited twice: " + value));
+        }
+        assertEquals(10000, visited.size());
+    }
+
+    @Test
+    void intStream_filledTable_streamsEveryValue() {
+        //Arrange
+        fill(-1000, 1000, 1);
+
+        //Act
+        long sum = table.intStream().asLongStream().sum();
+        long count = table.intStream().count();
+
+        //Assert
+        assertEquals(0, sum);
+        assertEquals(2001, count);
+    }
+
+    @Test
+    void parallelIntStream_largeTable_streamsEveryValueOnce() {
+        //Arrange
+        fill(0, 199999, 1);
+
+        //Act
+        int[] values = table.parallelIntStream().sorted().toArray();
+
+        //Assert
+        assertEquals(200000, values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(i, values[i]);
+        }
+    }
+
+    @Test
+    void primitiveReverseIterator_filledTable_returnsTheValuesOfReverseIterator() {
+        //Arrange
+        fill(0, 1000, 7);
+        ReverseIterator boxed = table.reverseIterator();
+
+        //Act
+        PrimitiveReverseIterator it = table.primitiveReverseIterator();
+
+        //Assert
+        while (boxed.hasPrevious()) {
+            assertTrue(it.hasPrevious());
+            assertEquals((int) boxed.previous(), it.previousInt());
+        }
+        assertFalse(it.hasPrevious());
+        assertThrows(NoSuchElementException.class, it::previousInt);
+    }
+
+    @Test
+    void primitiveReverseIteratorForEachRemainingInt_afterSomeValues_visitsTheRest() {
+        //Arrange
+        fill(0, 499, 1);
+        Set<Integer> visited = new HashSet<>();
+        PrimitiveReverseIterator it = table.primitiveReverseIterator();
+        for (int i = 0; i < 100; i++) {
+            visited.add(it.previousInt());
+        }
+
+        //Act
+        it.forEachRemainingInt(value -> assertTrue(visited.add(value), "Visited twice: " + value));
+
+        //Assert
+        assertEquals(500, visited.size());
+        assertFalse(it.hasPrevious());
+    }
+
+    @Test
+    void primitiveReverseIteratorForEachRemainingInt_afterRemovingAValueSharingItsHash_visitsEveryOtherValueOnce() {
+        //Arrange
+        T sameHashed = createTableWithIntHash(x -> 42);
+        for (int i = 0; i < 34; i++) {
+            sameHashed.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+        PrimitiveReverseIterator it = sameHashed.primitiveReverseIterator();
+        visited.add(it.previousInt());
+        int removed = it.previousInt();
+        it.remove();
+
+        //Act
+        it.forEachRemainingInt(value -> assertTrue(visited.add(value), "Visited twice: " + value));
+
+        //Assert
+        assertEquals(33, sameHashed.size());
+        assertEquals(33, visited.size());
+        assertFalse(visited.contains(removed));
+    }
+
+    @Test
+    void addAll_valuesWithRepetitions_returnsNumberOfNewValues() {
+        //Arrange
+        table.add(5);
+        int[] values = new int[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i / 2;
+        }
+
+        //Act
+        int added = table.addAll(values);
+
+        //Assert
+        assertEquals(9999, added);
+        assertEquals(10000, table.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(table.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void addAll_range_onlyValuesOfTheRangeAreAdded() {
+        //Arrange
+        int[] values = {1, 2, 3, 4, 5};
+
+        //Act
+        int added = table.addAll(values, 1, 3);
+
+        //Assert
+        assertEquals(3, added);
+        assertFalse(table.contains(1));
+        assertTrue(table.contains(2) && table.contains(3) && table.contains(4));
+        assertFalse(table.contains(5));
+    }
+
+    @Test
+    void addAll_invalidArguments_throwExceptions() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> table.addAll(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.addAll(new int[3], 2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.addAll(new int[3], -1, 1));
+    }
+
+    @Test
+    void removeAll_someValuesPresent_returnsNumberOfRemovedValues() {
+        //Arrange
+        fill(0, 9999, 1);
+        int[] values = new int[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 2;
+        }
+
+        //Act
+        int removed = table.removeAll(values);
+
+        //Assert
+        assertEquals(5000, removed);
+        assertEquals(5000, table.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1, table.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void containsAll_someValuesPresent_setsTheBitsOfThePresentOnes() {
+        //Arrange
+        fill(0, 9, 1);
+        BitSet out = new BitSet();
+        out.set(1);
+
+        //Act
+        int contained = table.containsAll(new int[]{3, 30, 9, 3}, out);
+
+        //Assert
+        assertEquals(3, contained);
+        assertEquals(BitSet.valueOf(new long[]{0b1101}), out);
+    }
+
+    @Test
+    void toArray_filledTable_returnsEveryValueOnce() {
+        //Arrange
+        fill(-500, 500, 1);
+
+        //Act
+        int[] values = table.toArray();
+
+        //Assert
+        assertEquals(1001, values.length);
+        Set<Integer> distinct = new HashSet<>();
+        for (int value : values) {
+            assertTrue(value >= -500 && value <= 500, "Unexpected value: " + value);
+            distinct.add(value);
+        }
+        assertEquals(1001, distinct.size());
+    }
+
+    @Test
+    void toArray_arrayLargeEnough_valuesAreStoredInIt() {
+        //Arrange
+        fill(1, 3, 1);
+        int[] array = {0, 0, 0, 42};
+
+        //Act
+        int[] values = table.toArray(array);
+
+        //Assert
+        assertSame(array, values);
+        assertEquals(6, array[0] + array[1] + array[2]);
+        assertEquals(42, array[3]);
+    }
+
+    @Test
+    void toArray_arrayTooSmall_returnsNewArray() {
+        //Arrange
+        fill(1, 3, 1);
+        int[] array = new int[2];
+
+        //Act
+        int[] values = table.toArray(array);
+
+        //Assert
+        assertNotSame(array, values);
+        assertEquals(3, values.length);
+    }
+
+    @Test
+    void unionWith_tablesOfBothKinds_containsTheValuesOfBoth() {
+        //Arrange
+        fill(0, 999, 1);
+        T same = createTable();
+        SeparateChainingHashTable chained = new SeparateChainingHashTable();
+        for (int i = 500; i < 1500; i++) {
+            same.add(i);
+            chained.add(i + 1000);
+        }
+
+        //Act
+        int addedFromSame = table.unionWith(same);
+        int addedFromChained = table.unionWith(chained);
+
+        //Assert
+        assertEquals(500, addedFromSame);
+        assertEquals(1000, addedFromChained);
+        assertEquals(2500, table.size());
+        for (int i = 0; i < 2500; i++) {
+            assertTrue(table.contains(i), "The table should contain: " + i);
+        }
+        assertEquals(0, table.unionWith(table));
+    }
+
+    @Test
+    void retainAll_smallerAndLargerTables_keepsOnlyTheCommonValues() {
+        //Arrange
+        fill(0, 999, 1);
+        T smaller = createTable();
+        LinearProbingHashTable larger = new LinearProbingHashTable();
+        for (int i = 0; i < 3000; i += 3) {
+            larger.add(i);
+        }
+        for (int i = 0; i < 500; i += 2) {
+            smaller.add(i);
+        }
+
+        //Act
+        int removedByLarger = table.retainAll(larger);
+        int removedBySmaller = table.retainAll(smaller);
+
+        //Assert
+        assertEquals(666, removedByLarger);
+        assertEquals(250, removedBySmaller);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 6 == 0 && i < 500, table.contains(i), "Wrong membership of: " + i);
+        }
+        assertEquals(84, table.size());
+    }
+
+    @Test
+    void removeAll_smallerAndLargerTables_removesTheCommonValues() {
+        //Arrange
+        fill(0, 999, 1);
+        T smaller = createTable();
+        SeparateChainingHashTable larger = new SeparateChainingHashTable();
+        for (int i = -2000; i < 1000; i += 3) {
+            larger.add(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            smaller.add(i);
+        }
+
+        //Act
+        int removedBySmaller = table.removeAll(smaller);
+        int removedByLarger = table.removeAll(larger);
+
+        //Assert
+        assertEquals(100, removedBySmaller);
+        assertEquals(300, removedByLarger);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i >= 100 && (i + 2000) % 3 != 0, table.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void removeAll_itself_tableIsEmpty() {
+        //Arrange
+        fill(1, 10, 1);
+
+        //Act
+        int removed = table.removeAll((HashTable) table);
+
+        //Assert
+        assertEquals(10, removed);
+        assertTrue(table.empty());
+    }
+
+    @Test
+    void addRemove_churnOfRandomValuesAndIteratorRemovals_matchesHashSet() {
+        //Arrange
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(7);
+
+        //Act
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 1000; i++) {
+                int value = random.nextInt(5000);
+                if (random.nextBoolean()) {
+                    assertEquals(expected.add(value), table.add(value));
+                } else {
+                    assertEquals(expected.remove(value), table.remove(value));
+                }
+            }
+            Set<Integer> present = new HashSet<>(expected);
+            Set<Integer> visited = new HashSet<>();
+            if (round % 3 == 0) {
+                Iterator<Integer> it = table.iterator();
+                while (it.hasNext()) {
+                    int value = it.next();
+                    assertTrue(visited.add(value), "Visited twice: " + value);
+                    if (random.nextInt(8) == 0) {
+                        it.remove();
+                        expected.remove(value);
+                    }
+                }
+            } else if (round % 3 == 1) {
+                ReverseIterator it = table.reverseIterator();
+                while (it.hasPrevious()) {
+                    int value = it.previous();
+                    assertTrue(visited.add(value), "Visited twice: " + value);
+                    if (random.nextInt(8) == 0) {
+                        it.remove();
+                        expected.remove(value);
+                    }
+                }
+            } else {
+                PrimitiveReverseIterator it = table.primitiveReverseIterator();
+                int steps = random.nextInt(table.size() + 1);
+                for (int i = 0; i < steps; i++) {
+                    int value = it.previousInt();
+                    assertTrue(visited.add(value), "Visited twice: " + value);
+                    if (i == steps - 1 || random.nextInt(8) == 0) {
+                        it.remove();
+                        expected.remove(value);
+                    }
+                }
+                it.forEachRemainingInt(value -> assertTrue(visited.add(value), "Visited twice: " + value));
+            }
+            assertEquals(present, visited);
+        }
+
+        //Assert
+        assertEquals(expected.size(), table.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(expected.contains(i), table.contains(i), "Wrong membership of: " + i);
+        }
+    }
 
     private void fill(int from, int to, int step) {
         for (int i = from; i <= to; i += step) {
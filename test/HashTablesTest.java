@@ -0,0 +1,83 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashTablesTest {
+
+    @Test
+    void intersect_linearProbingTables_returnsCommonValuesAndLeavesArgumentsUnchanged() {
+        //Arrange
+        LinearProbingHashTable first = new LinearProbingHashTable();
+        LinearProbingHashTable second = new LinearProbingHashTable();
+        for (int i = 0; i < 10000; i++) {
+            first.add(i * 2);
+            second.add(i * 3);
+        }
+
+        //Act
+        HashTable common = HashTables.intersect(first, second);
+
+        //Assert
+        assertInstanceOf(LinearProbingHashTable.class, common);
+        for (int i = 0; i < 30000; i++) {
+            assertEquals(i % 6 == 0 && i < 20000, common.contains(i), "Wrong membership of: " + i);
+        }
+        assertEquals(10000, first.size());
+        assertEquals(10000, second.size());
+    }
+
+    @Test
+    void intersect_resultIsPresized_capacityFitsTheCommonValues() {
+        //Arrange
+        SeparateChainingHashTable first = new SeparateChainingHashTable();
+        LinearProbingHashTable second = new LinearProbingHashTable();
+        for (int i = 0; i < 100000; i++) {
+            first.add(i);
+        }
+        for (int i = 0; i < 10; i++) {
+            second.add(i);
+        }
+
+        //Act
+        HashTable common = HashTables.intersect(first, second);
+
+        //Assert
+        assertInstanceOf(SeparateChainingHashTable.class, common);
+        assertEquals(10, common.size());
+        assertEquals(new SeparateChainingHashTable(SizingPolicy.forExpectedSize(10)).capacity(),
+                ((SeparateChainingHashTable) common).capacity());
+    }
+
+    @Test
+    void difference_tablesOfDifferentKinds_returnsValuesOnlyInTheFirst() {
+        //Arrange
+        SeparateChainingHashTable first = new SeparateChainingHashTable();
+        RobinHoodHashTable second = new RobinHoodHashTable();
+        for (int i = 0; i < 1000; i++) {
+            first.add(i);
+            second.add(i + 500);
+        }
+
+        //Act
+        HashTable remaining = HashTables.difference(first, second);
+
+        //Assert
+        assertEquals(500, remaining.size());
+        for (int i = 0; i < 500; i++) {
+            assertTrue(remaining.contains(i), "The result should contain: " + i);
+        }
+    }
+
+    @Test
+    void setOperations_nullArgument_throwException() {
+        //Arrange
+        LinearProbingHashTable table = new LinearProbingHashTable();
+
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> HashTables.intersect(table, null));
+        assertThrows(IllegalArgumentException.class, () -> HashTables.difference(null, table));
+    }
+}
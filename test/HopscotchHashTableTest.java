@@ -0,0 +1,43 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HopscotchHashTableTest extends HashTableTest<HopscotchHashTable> {
+
+    @Override
+    protected HopscotchHashTable createTable() {
+        return new HopscotchHashTable();
+    }
+
+    @Override
+    protected HopscotchHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new HopscotchHashTable(hashFunction);
+    }
+
+    @Override
+    protected HopscotchHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new HopscotchHashTable(hashFunction);
+    }
+
+    @Test
+    void add_sequentialValuesWithIdentityHash_everyValueStaysInItsNeighbourhood() {
+        //Arrange
+        HopscotchHashTable clustered = new HopscotchHashTable(x -> x & 1023);
+
+        //Act
+        for (int i = 0; i < 5000; i++) {
+            clustered.add(i);
+        }
+        for (int i = 0; i < 5000; i += 2) {
+            clustered.remove(i);
+        }
+
+        //Assert
+        assertEquals(2500, clustered.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 1, clustered.contains(i), "Wrong membership of: " + i);
+        }
+    }
+}
@@ -1,11 +1,19 @@
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-class LinearProbingHashTableTest extends HashTableTest<LinearProbingHashTable> {
+class LinearProbingHashTableTest extends SnapshotHashTableTest<LinearProbingHashTable> {
 
     @Override
     protected LinearProbingHashTable createTable() {
@@ -17,6 +25,72 @@ class LinearProbingHashTableTest extends HashTableTest<LinearProbingHashTable> {
         return new LinearProbingHashTable(hashFunction);
     }
 
+    @Override
+    protected LinearProbingHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new LinearProbingHashTable(hashFunction);
+    }
+
+    @Override
+    protected LinearProbingHashTable createTable(IntHashFunction hashFunction,
+            AbstractHashTable.IndexingMode indexingMode) {
+        return new LinearProbingHashTable(hashFunction, indexingMode);
+    }
+
+    @Override
+    protected LinearProbingHashTable createTable(SizingPolicy sizing) {
+        return new LinearProbingHashTable(sizing);
+    }
+
+    @Override
+    protected int capacity(LinearProbingHashTable table) {
+        return table.capacity();
+    }
+
+    @Override
+    protected void setIncrementalResize(LinearProbingHashTable table, boolean incrementalResize) {
+        table.setIncrementalResize(incrementalResize);
+    }
+
+    @Override
+    protected void writeTo(LinearProbingHashTable table, OutputStream out) throws IOException {
+        table.writeTo(out);
+    }
+
+    @Override
+    protected void writeTo(LinearProbingHashTable table, WritableByteChannel channel) throws IOException {
+        table.writeTo(channel);
+    }
+
+    @Override
+    protected LinearProbingHashTable readFrom(InputStream in, IntHashFunction hashFunction) throws IOException {
+        return LinearProbingHashTable.readFrom(in, hashFunction);
+    }
+
+    @Override
+    protected LinearProbingHashTable readFrom(ReadableByteChannel channel, IntHashFunction hashFunction)
+            throws IOException {
+        return LinearProbingHashTable.readFrom(channel, hashFunction);
+    }
+
+    @Test
+    void fibonacciIndexing_valuesWithEqualLowBits_allValuesInHashTable() {
+        //Arrange
+        LinearProbingHashTable fibonacciTable = new LinearProbingHashTable(HashFunctions::absHash,
+                AbstractHashTable.IndexingMode.FIBONACCI);
+
+        //Act
+        for (int i = 0; i < 10000; i++) {
+            fibonacciTable.add(i << 10);
+        }
+
+        //Assert
+        assertEquals(10000, fibonacciTable.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(fibonacciTable.contains(i << 10), "The table should contain: " + (i << 10));
+            assertFalse(fibonacciTable.contains((i << 10) + 1), "The table should not contain: " + ((i << 10) + 1));
+        }
+    }
+
     @Test
     void swap_withSeparateChaining_swapsContents() {
         //Arrange
@@ -80,4 +154,138 @@ class LinearProbingHashTableTest extends HashTableTest<LinearProbingHashTable> {
         //Assert
         assertFalse(table.contains(11));
     }
-}
\ No newline at end of file
+
+    @Test
+    void remove_valueFollowedByAnotherInItsCluster_leavesTombstone() {
+        //Arrange
+        LinearProbingHashTable colliding = new LinearProbingHashTable(x -> 0);
+        colliding.add(1);
+        colliding.add(2);
+
+        //Act
+        colliding.remove(1);
+
+        //Assert
+        assertEquals(1, colliding.tombstones());
+        assertTrue(colliding.contains(2));
+    }
+
+    @Test
+    void remove_lastValueOfItsCluster_leavesNoTombstones() {
+        //Arrange
+        LinearProbingHashTable colliding = new LinearProbingHashTable(x -> 0);
+        colliding.add(1);
+        colliding.add(2);
+        colliding.remove(1);
+
+        //Act
+        colliding.remove(2);
+
+        //Assert
+        assertEquals(0, colliding.tombstones());
+    }
+
+    @Test
+    void add_afterRemoval_reusesTombstone() {
+        //Arrange
+        LinearProbingHashTable colliding = new LinearProbingHashTable(x -> 0);
+        colliding.add(1);
+        colliding.add(2);
+        colliding.remove(1);
+
+        //Act
+        colliding.add(3);
+
+        //Assert
+        assertEquals(0, colliding.tombstones());
+        assertTrue(colliding.contains(2));
+        assertTrue(colliding.contains(3));
+    }
+
+    @Test
+    void addRemove_heavyChurn_tombstonesStayBounded() {
+        //Arrange
+        LinearProbingHashTable churned = new LinearProbingHashTable();
+        for (int i = 0; i < 1000; i++) {
+            churned.add(i);
+        }
+
+        //Act
+        for (int i = 1000; i < 200000; i++) {
+            churned.remove(i - 1000);
+            churned.add(i);
+        }
+
+        //Assert
+        assertEquals(1000, churned.size());
+        assertTrue(churned.tombstones() <= churned.size(),
+                "Tombstones should be purged before they outnumber the values, there are: " + churned.tombstones());
+        for (int i = 199000; i < 200000; i++) {
+            assertTrue(churned.contains(i), "The table should contain: " + i);
+        }
+        assertFalse(churned.contains(0));
+    }
+
+    @Test
+    void sizingPolicy_maxLoadFactorOfOne_throwsException() {
+        //Arrange
+        SizingPolicy policy = SizingPolicy.builder()
+                .maxLoadFactor(1)
+                .build();
+
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LinearProbingHashTable(policy));
+    }
+
+    @Test
+    void addRemove_maxLoadFactorCloseToOne_alwaysKeepsAnEmptySlot() {
+        //Arrange
+        LinearProbingHashTable dense = new LinearProbingHashTable(SizingPolicy.builder()
+                .maxLoadFactor(0.99)
+                .minLoadFactor(0)
+                .build());
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(30);
+
+        //Act
+        for (int round = 0; round < 100; round++) {
+            // the bulk operations fill a fresh table up to its last empty slot, unless they grow it
+            dense.clear();
+            expected.clear();
+            int[] values = random.ints(0, 1000).distinct().limit(15).toArray();
+            if (round % 2 == 0) {
+                dense.addAll(values);
+            } else {
+                LinearProbingHashTable other = new LinearProbingHashTable();
+                other.addAll(values);
+                dense.unionWith(other);
+            }
+            for (int value : values) {
+                expected.add(value);
+            }
+            for (int i = 0; i < 10; i++) {
+                assertEquals(expected.remove(values[i]), dense.remove(values[i]));
+            }
+            for (int i = 0; i < 5; i++) {
+                int value = 1000 + random.nextInt(1000);
+                assertEquals(expected.add(value), dense.add(value));
+            }
+            assertTrue(dense.size() + dense.tombstones() < dense.capacity());
+        }
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(40);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), dense.add(value));
+            } else {
+                assertEquals(expected.remove(value), dense.remove(value));
+            }
+        }
+
+        //Assert
+        assertEquals(expected.size(), dense.size());
+        assertTrue(dense.size() + dense.tombstones() < dense.capacity());
+        for (int value = 0; value < 2000; value++) {
+            assertEquals(expected.contains(value), dense.contains(value), "Wrong membership of: " + value);
+        }
+    }
+}
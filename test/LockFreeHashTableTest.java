@@ -0,0 +1,183 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LockFreeHashTableTest extends HashTableTest<LockFreeHashTable> {
+    private static final int THREADS = 8;
+
+    @Override
+    protected LockFreeHashTable createTable() {
+        return new LockFreeHashTable();
+    }
+
+    @Override
+    protected LockFreeHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new LockFreeHashTable(hashFunction);
+    }
+
+    @Override
+    protected LockFreeHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new LockFreeHashTable(hashFunction);
+    }
+
+    @Override
+    protected boolean hasFailFastIterators() {
+        return false;
+    }
+
+    @Test
+    void add_threadsAddingOverlappingRanges_everyValueIsAddedOnce() throws InterruptedException {
+        //Arrange
+        AtomicIntegerArray added = new AtomicIntegerArray(THREADS);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    // every value is added by two threads, while the table keeps growing
+                    if (table.add(i * THREADS / 2 + thread / 2)) {
+                        added.incrementAndGet(thread);
+                    }
+                }
+            }));
+        }
+
+        //Act
+        runAll(threads);
+
+        //Assert
+        int totalAdded = 0;
+        for (int t = 0; t < THREADS; t++) {
+            totalAdded += added.get(t);
+        }
+        assertEquals(100000 * THREADS / 2, totalAdded);
+        assertEquals(100000 * THREADS / 2, table.size());
+        for (int i = 0; i < 100000 * THREADS / 2; i++) {
+            assertTrue(table.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void addRemove_threadsTogglingSharedValues_returnValuesMatchFinalContent() throws InterruptedException {
+        //Arrange
+        int values = 2000;
+        AtomicIntegerArray balance = new AtomicIntegerArray(values);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 200000; i++) {
+                    int value = random.nextInt(values);
+                    if (random.nextBoolean()) {
+                        if (table.add(value)) {
+                            balance.incrementAndGet(value);
+                        }
+                    } else if (table.remove(value)) {
+                        balance.decrementAndGet(value);
+                    }
+                }
+            }));
+        }
+
+        //Act
+        runAll(threads);
+
+        //Assert
+        int present = 0;
+        for (int i = 0; i < values; i++) {
+            int expected = balance.get(i);
+            assertTrue(expected == 0 || expected == 1, "Successful adds and removes of " + i + " don't alternate");
+            assertEquals(expected == 1, table.contains(i), "Wrong membership of: " + i);
+            present += expected;
+        }
+        assertEquals(present, table.size());
+    }
+
+    @Test
+    void contains_readersDuringResizes_stableValuesAreAlwaysFound() throws InterruptedException {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(-i - 1);
+        }
+        AtomicBoolean missed = new AtomicBoolean(false);
+        CountDownLatch writersDone = new CountDownLatch(THREADS / 2);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS / 2; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                for (int i = thread; i < 200000; i += THREADS / 2) {
+                    table.add(i);
+                    if (i % 3 == 0) {
+                        table.remove(i);
+                    }
+                }
+                writersDone.countDown();
+            }));
+            threads.add(new Thread(() -> {
+                while (writersDone.getCount() > 0) {
+                    for (int i = 0; i < 1000; i++) {
+                        if (!table.contains(-i - 1)) {
+                            missed.set(true);
+                        }
+                    }
+                }
+            }));
+        }
+
+        //Act
+        runAll(threads);
+
+        //Assert
+        assertFalse(missed.get(), "A value present during the whole test was not found");
+        for (int i = 0; i < 200000; i++) {
+            assertEquals(i % 3 != 0, table.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void iterator_tableGrowingDuringIteration_valuesPresentThroughoutAreVisited() {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        Iterator<Integer> it = table.iterator();
+        int next = 1000;
+        while (it.hasNext()) {
+            visited.add(it.next());
+            for (int i = 0; i < 10; i++) {
+                table.add(next++);
+            }
+        }
+
+        //Assert
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(visited.contains(i), "The iterator should visit: " + i);
+        }
+    }
+
+    private static void runAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
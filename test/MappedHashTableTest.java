@@ -0,0 +1,194 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedHashTableTest extends HashTableTest<MappedHashTable> {
+    @TempDir
+    Path directory;
+
+    private final List<MappedHashTable> created = new ArrayList<>();
+
+    @Override
+    protected MappedHashTable createTable() {
+        return createTableWithIntHash(HashFunctions.Standard.CUSTOM);
+    }
+
+    @Override
+    protected MappedHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return createTableWithIntHash(IntHashFunction.of(hashFunction));
+    }
+
+    @Override
+    protected MappedHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        try {
+            MappedHashTable mapped = MappedHashTable.create(directory.resolve("table" + created.size()), hashFunction);
+            created.add(mapped);
+            return mapped;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (MappedHashTable mapped : created) {
+            mapped.close();
+        }
+    }
+
+    @Test
+    void open_reopenedTable_containsTheSameValues() throws IOException {
+        //Arrange
+        Path file = table.file();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            table.add(i * 3);
+            expected.add(i * 3);
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            table.remove(i * 3);
+            expected.remove(i * 3);
+        }
+        table.force();
+        table.close();
+
+        //Act
+        try (MappedHashTable reopened = MappedHashTable.open(file)) {
+
+            //Assert
+            assertEquals(expected.size(), reopened.size());
+            Set<Integer> iterated = new HashSet<>();
+            for (Integer value : reopened) {
+                iterated.add(value);
+            }
+            assertEquals(expected, iterated);
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(expected.contains(i * 3), reopened.contains(i * 3), "Wrong membership of: " + i * 3);
+            }
+        }
+    }
+
+    @Test
+    void open_tableWithUnregisteredHashFunction_needsTheFunction() throws IOException {
+        //Arrange
+        Path file = directory.resolve("custom");
+        IntHashFunction identity = value -> value;
+        try (MappedHashTable mapped = MappedHashTable.create(file, identity)) {
+            mapped.add(42);
+        }
+
+        //Act & Assert
+        assertThrows(IOException.class, () -> MappedHashTable.open(file));
+        try (MappedHashTable reopened = MappedHashTable.open(file, identity)) {
+            assertTrue(reopened.contains(42));
+        }
+    }
+
+    @Test
+    void open_otherHashFunctionThanRecorded_throwsException() throws IOException {
+        //Arrange
+        Path file = table.file();
+        table.close();
+
+        //Act & Assert
+        assertThrows(IOException.class, () -> MappedHashTable.open(file, HashFunctions.Standard.FNV));
+    }
+
+    @Test
+    void open_fileWithoutHeader_throwsException() throws IOException {
+        //Arrange
+        Path file = directory.resolve("garbage");
+        Files.write(file, new byte[100]);
+
+        //Act & Assert
+        assertThrows(IOException.class, () -> MappedHashTable.open(file));
+    }
+
+    @Test
+    void add_tableGrows_noTemporaryFileIsLeft() throws IOException {
+        //Arrange
+        int capacity = table.capacity();
+
+        //Act
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+
+        //Assert
+        assertTrue(table.capacity() > capacity);
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void create_sizingPolicy_isRecordedInTheFile() throws IOException {
+        //Arrange
+        Path file = directory.resolve("presized");
+        SizingPolicy sizing = SizingPolicy.builder().expectedSize(1000)
+                .shrinkPolicy(SizingPolicy.ShrinkPolicy.NEVER).build();
+        try (MappedHashTable mapped = MappedHashTable.create(file, HashFunctions.Standard.ABS,
+                AbstractHashTable.IndexingMode.FIBONACCI, sizing)) {
+            for (int i = 0; i < 1000; i++) {
+                mapped.add(i);
+            }
+        }
+
+        //Act
+        try (MappedHashTable reopened = MappedHashTable.open(file)) {
+            int capacity = reopened.capacity();
+            for (int i = 0; i < 1000; i++) {
+                reopened.remove(i);
+            }
+
+            //Assert
+            assertEquals(capacity, reopened.capacity());
+            assertTrue(reopened.empty());
+        }
+    }
+
+    @Test
+    void add_maxLoadFactorCloseToOne_tableGrowsInsteadOfBeingFull() throws IOException {
+        //Arrange
+        SizingPolicy sizing = SizingPolicy.builder().maxLoadFactor(0.99).minLoadFactor(0).build();
+        try (MappedHashTable dense = MappedHashTable.create(directory.resolve("dense"), HashFunctions.Standard.ABS,
+                AbstractHashTable.IndexingMode.FIBONACCI, sizing)) {
+
+            //Act
+            for (int i = 0; i < 1000; i++) {
+                dense.add(i);
+            }
+
+            //Assert
+            assertEquals(1000, dense.size());
+            assertTrue(dense.capacity() > 1000);
+            for (int i = 0; i < 1000; i++) {
+                assertTrue(dense.contains(i), "The table should contain: " + i);
+            }
+        }
+    }
+
+    @Test
+    void close_closedTable_operationsThrowException() {
+        //Act
+        table.close();
+
+        //Assert
+        assertThrows(IllegalStateException.class, () -> table.add(1));
+        assertThrows(IllegalStateException.class, () -> table.contains(1));
+        assertThrows(IllegalStateException.class, () -> table.size());
+        assertDoesNotThrow(() -> table.close());
+    }
+}
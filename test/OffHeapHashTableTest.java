@@ -0,0 +1,164 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapHashTableTest extends HashTableTest<OffHeapHashTable> {
+
+    @Override
+    protected OffHeapHashTable createTable() {
+        return new OffHeapHashTable();
+    }
+
+    @Override
+    protected OffHeapHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new OffHeapHashTable(hashFunction);
+    }
+
+    @Override
+    protected OffHeapHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new OffHeapHashTable(hashFunction);
+    }
+
+    @AfterEach
+    void tearDown() {
+        table.close();
+    }
+
+    @Test
+    void close_closedTable_operationsThrowException() {
+        //Arrange
+        table.add(1);
+
+        //Act
+        table.close();
+
+        //Assert
+        assertThrows(IllegalStateException.class, () -> table.contains(1));
+        assertThrows(IllegalStateException.class, () -> table.add(2));
+        assertThrows(IllegalStateException.class, () -> table.size());
+        assertThrows(IllegalStateException.class, () -> table.iterator());
+    }
+
+    @Test
+    void close_calledTwice_secondCallHasNoEffect() {
+        //Act
+        table.close();
+
+        //Assert
+        assertDoesNotThrow(() -> table.close());
+    }
+
+    @Test
+    void iterator_tableClosedDuringIteration_throwsException() {
+        //Arrange
+        table.add(1);
+        table.add(2);
+        Iterator<Integer> it = table.iterator();
+        it.next();
+
+        //Act
+        table.close();
+
+        //Assert
+        assertThrows(IllegalStateException.class, it::hasNext);
+    }
+
+    @Test
+    void smallPages_valuesSpanningManyPages_allOperationsWork() {
+        //Arrange
+        try (OffHeapHashTable paged = new OffHeapHashTable(HashFunctions::customHash,
+                AbstractHashTable.IndexingMode.MASK, 0, 6)) {
+            Set<Integer> expected = new HashSet<>();
+
+            //Act
+            for (int i = 0; i < 10000; i++) {
+                paged.add(i * 13);
+                expected.add(i * 13);
+            }
+            for (int i = 0; i < 10000; i += 3) {
+                paged.remove(i * 13);
+                expected.remove(i * 13);
+            }
+
+            //Assert
+            assertEquals(expected.size(), paged.longSize());
+            Set<Integer> iterated = new HashSet<>();
+            for (Integer value : paged) {
+                assertTrue(iterated.add(value), "Visited twice: " + value);
+            }
+            assertEquals(expected, iterated);
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(expected.contains(i * 13), paged.contains(i * 13), "Wrong membership of: " + i * 13);
+            }
+        }
+    }
+
+    @Test
+    void expectedSize_tableFilledUpToIt_capacityDoesNotChange() {
+        //Arrange
+        try (OffHeapHashTable presized = new OffHeapHashTable(HashFunctions::customHash,
+                AbstractHashTable.IndexingMode.FIBONACCI, 100000)) {
+            long capacity = presized.capacity();
+
+            //Act
+            for (int i = 0; i < 100000; i++) {
+                presized.add(i);
+            }
+
+            //Assert
+            assertEquals(capacity, presized.capacity());
+            assertEquals(100000, presized.size());
+        }
+    }
+
+    @Test
+    void expectedSize_negative_throwsException() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapHashTable(HashFunctions::customHash,
+                AbstractHashTable.IndexingMode.MASK, -1));
+    }
+
+    @Test
+    void swap_withLinearProbingTable_contentsAreExchanged() {
+        //Arrange
+        LinearProbingHashTable other = new LinearProbingHashTable();
+        other.add(7);
+        table.add(1);
+        table.add(2);
+
+        //Act
+        table.swap(other);
+
+        //Assert
+        assertEquals(1, table.size());
+        assertTrue(table.contains(7));
+        assertEquals(2, other.size());
+        assertTrue(other.contains(1) && other.contains(2));
+    }
+
+    @Test
+    void indexFor_maskModeAtMaxCapacity_indexesReachTheUpperHalf() {
+        //Arrange
+        long half = OffHeapHashTable.MAX_CAPACITY / 2;
+        int upperHalf = 0;
+
+        //Act
+        for (int h = 0; h < 10000; h++) {
+            long index = OffHeapHashTable.indexFor(h, AbstractHashTable.IndexingMode.MASK,
+                    OffHeapHashTable.MAX_CAPACITY);
+            assertTrue(index >= 0 && index < OffHeapHashTable.MAX_CAPACITY, "Index out of the table: " + index);
+            if (index >= half) {
+                ++upperHalf;
+            }
+        }
+
+        //Assert
+        assertTrue(upperHalf > 4000 && upperHalf < 6000, "Indexes in the upper half: " + upperHalf);
+    }
+}
@@ -0,0 +1,150 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerfectHashTableTest {
+
+    @Test
+    void from_emptyTable_perfectTableIsEmpty() {
+        //Act
+        PerfectHashTable perfect = PerfectHashTable.from(new LinearProbingHashTable());
+
+        //Assert
+        assertTrue(perfect.empty());
+        assertFalse(perfect.contains(0));
+        assertFalse(perfect.iterator().hasNext());
+    }
+
+    @Test
+    void from_nullArgument_throwsException() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> PerfectHashTable.from(null));
+    }
+
+    @Test
+    void from_perfectTable_returnsTheSameTable() {
+        //Arrange
+        PerfectHashTable perfect = PerfectHashTable.from(new LinearProbingHashTable());
+
+        //Act & Assert
+        assertSame(perfect, PerfectHashTable.from(perfect));
+    }
+
+    @Test
+    void from_randomValues_containsExactlyTheSameValues() {
+        //Arrange
+        Random random = new Random(29);
+        SeparateChainingHashTable source = new SeparateChainingHashTable();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200000; i++) {
+            int value = random.nextInt();
+            source.add(value);
+            expected.add(value);
+        }
+
+        //Act
+        PerfectHashTable perfect = PerfectHashTable.from(source);
+
+        //Assert
+        assertEquals(expected.size(), perfect.size());
+        for (int value : expected) {
+            assertTrue(perfect.contains(value), "The table should contain: " + value);
+        }
+        for (int i = 0; i < 200000; i++) {
+            int value = random.nextInt();
+            assertEquals(expected.contains(value), perfect.contains(value), "Wrong membership of: " + value);
+        }
+    }
+
+    @Test
+    void from_consecutiveValues_neighbouringValuesAreNotReported() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        for (int i = 0; i < 1000; i++) {
+            source.add(i);
+        }
+
+        //Act
+        PerfectHashTable perfect = PerfectHashTable.from(source);
+
+        //Assert
+        for (int i = -1000; i < 2000; i++) {
+            assertEquals(i >= 0 && i < 1000, perfect.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void hashFunction_valuesOfTheTable_getDistinctHashesBelowSize() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        for (int i = -5000; i < 5000; i++) {
+            source.add(i * 31);
+        }
+        PerfectHashTable perfect = PerfectHashTable.from(source);
+        boolean[] taken = new boolean[perfect.size()];
+
+        //Act
+        for (Integer value : source) {
+            int hash = perfect.hashFunction().hash(value);
+
+            //Assert
+            assertTrue(hash >= 0 && hash < perfect.size(), "Hash out of range: " + hash);
+            assertFalse(taken[hash], "Hash given twice: " + hash);
+            taken[hash] = true;
+        }
+    }
+
+    @Test
+    void iterators_perfectTable_visitEveryValueOnce() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        for (int i = -500; i < 500; i++) {
+            source.add(i * 7);
+        }
+        PerfectHashTable perfect = PerfectHashTable.from(source);
+        Set<Integer> forward = new HashSet<>();
+        Set<Integer> backward = new HashSet<>();
+
+        //Act
+        for (Integer value : perfect) {
+            assertTrue(forward.add(value), "Visited twice: " + value);
+        }
+        ReverseIterator it = perfect.reverseIterator();
+        while (it.hasPrevious()) {
+            assertTrue(backward.add(it.previous()));
+        }
+
+        //Assert
+        assertEquals(1000, forward.size());
+        assertEquals(forward, backward);
+        assertThrows(NoSuchElementException.class, it::previous);
+    }
+
+    @Test
+    void mutators_perfectTable_throwUnsupportedOperationException() {
+        //Arrange
+        LinearProbingHashTable source = new LinearProbingHashTable();
+        source.add(5);
+        PerfectHashTable perfect = PerfectHashTable.from(source);
+        Iterator<Integer> it = perfect.iterator();
+        it.next();
+
+        //Act & Assert
+        assertThrows(UnsupportedOperationException.class, () -> perfect.add(6));
+        assertThrows(UnsupportedOperationException.class, () -> perfect.remove(5));
+        assertThrows(UnsupportedOperationException.class, perfect::clear);
+        assertThrows(UnsupportedOperationException.class, () -> perfect.swap(source));
+        assertThrows(UnsupportedOperationException.class, it::remove);
+        assertTrue(perfect.contains(5));
+    }
+}
@@ -0,0 +1,181 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RobinHoodHashTableTest extends HashTableTest<RobinHoodHashTable> {
+
+    @Override
+    protected RobinHoodHashTable createTable() {
+        return new RobinHoodHashTable();
+    }
+
+    @Override
+    protected RobinHoodHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new RobinHoodHashTable(hashFunction);
+    }
+
+    @Override
+    protected RobinHoodHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new RobinHoodHashTable(hashFunction);
+    }
+
+    @Test
+    void remove_collidingValues_remainingValuesAreStillFound() {
+        //Arrange
+        RobinHoodHashTable colliding = new RobinHoodHashTable(x -> x & 3);
+        for (int i = 0; i < 100; i++) {
+            colliding.add(i);
+        }
+
+        //Act
+        for (int i = 0; i < 100; i += 3) {
+            colliding.remove(i);
+        }
+
+        //Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 != 0, colliding.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void iteratorRemove_collidingValues_everyValueIsVisitedOnce() {
+        //Arrange
+        RobinHoodHashTable colliding = new RobinHoodHashTable(x -> 0);
+        for (int i = 0; i < 10; i++) {
+            colliding.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        Iterator<Integer> it = colliding.iterator();
+        while (it.hasNext()) {
+            int value = it.next();
+            assertTrue(visited.add(value), "The value was visited twice: " + value);
+            if (value % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(10, visited.size());
+        assertEquals(5, colliding.size());
+        assertFalse(colliding.contains(0));
+        assertTrue(colliding.contains(1));
+    }
+
+    @Test
+    void iteratorRemove_clusterWrappingAroundTheEnd_everyValueIsVisitedOnce() {
+        //Arrange
+        RobinHoodHashTable wrapping = new RobinHoodHashTable(x -> 15,
+                AbstractHashTable.IndexingMode.MASK);
+        for (int i = 0; i < 10; i++) {
+            wrapping.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        Iterator<Integer> it = wrapping.iterator();
+        while (it.hasNext()) {
+            int value = it.next();
+            assertTrue(visited.add(value), "The value was visited twice: " + value);
+            if (value % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(10, visited.size());
+        assertEquals(5, wrapping.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 2 == 1, wrapping.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void reverseIteratorRemove_valueShiftedFromFirstToLastSlot_isStillVisited() {
+        //Arrange
+        RobinHoodHashTable wrapping = new RobinHoodHashTable(x -> x,
+                AbstractHashTable.IndexingMode.MASK);
+        wrapping.add(15);
+        wrapping.add(31);
+        wrapping.add(47);
+        wrapping.add(1000);
+        List<Integer> visited = new ArrayList<>();
+
+        //Act
+        ReverseIterator it = wrapping.reverseIterator();
+        while (it.hasPrevious()) {
+            int value = it.previous();
+            visited.add(value);
+            if (value == 15) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(4, visited.size());
+        assertEquals(Set.of(15, 31, 47, 1000), new HashSet<>(visited));
+        assertEquals(3, wrapping.size());
+        assertFalse(wrapping.contains(15));
+    }
+
+    @Test
+    void reverseIteratorRemove_clusterWrappingAroundTheEnd_everyValueIsVisitedOnce() {
+        //Arrange
+        RobinHoodHashTable wrapping = new RobinHoodHashTable(x -> 15,
+                AbstractHashTable.IndexingMode.MASK);
+        for (int i = 0; i < 10; i++) {
+            wrapping.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        PrimitiveReverseIterator it = wrapping.primitiveReverseIterator();
+        while (it.hasPrevious()) {
+            int value = it.previousInt();
+            assertTrue(visited.add(value), "The value was visited twice: " + value);
+            if (value % 2 == 0) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(10, visited.size());
+        assertEquals(5, wrapping.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 2 == 1, wrapping.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void reverseIteratorRemove_everyValueOfAWrappingCluster_tableIsEmpty() {
+        //Arrange
+        RobinHoodHashTable wrapping = new RobinHoodHashTable(x -> 14,
+                AbstractHashTable.IndexingMode.MASK);
+        for (int i = 0; i < 12; i++) {
+            wrapping.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        ReverseIterator it = wrapping.reverseIterator();
+        while (it.hasPrevious()) {
+            assertTrue(visited.add(it.previous()), "A value was visited twice");
+            it.remove();
+        }
+
+        //Assert
+        assertEquals(12, visited.size());
+        assertTrue(wrapping.empty());
+    }
+}
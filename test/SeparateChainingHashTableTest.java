@@ -1,5 +1,13 @@
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -7,7 +15,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
-class SeparateChainingHashTableTest extends HashTableTest<SeparateChainingHashTable> {
+class SeparateChainingHashTableTest extends SnapshotHashTableTest<SeparateChainingHashTable> {
 
     @Override
     protected SeparateChainingHashTable createTable() {
@@ -19,6 +27,193 @@ class SeparateChainingHashTableTest extends HashTableTest<SeparateChainingHashTa
         return new SeparateChainingHashTable(hashFunction);
     }
 
+    @Override
+    protected SeparateChainingHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new SeparateChainingHashTable(hashFunction);
+    }
+
+    @Override
+    protected SeparateChainingHashTable createTable(IntHashFunction hashFunction,
+            AbstractHashTable.IndexingMode indexingMode) {
+        return new SeparateChainingHashTable(hashFunction, indexingMode);
+    }
+
+    @Override
+    protected SeparateChainingHashTable createTable(SizingPolicy sizing) {
+        return new SeparateChainingHashTable(sizing);
+    }
+
+    @Override
+    protected int capacity(SeparateChainingHashTable table) {
+        return table.capacity();
+    }
+
+    @Override
+    protected void setIncrementalResize(SeparateChainingHashTable table, boolean incrementalResize) {
+        table.setIncrementalResize(incrementalResize);
+    }
+
+    @Override
+    protected void writeTo(SeparateChainingHashTable table, OutputStream out) throws IOException {
+        table.writeTo(out);
+    }
+
+    @Override
+    protected void writeTo(SeparateChainingHashTable table, WritableByteChannel channel) throws IOException {
+        table.writeTo(channel);
+    }
+
+    @Override
+    protected SeparateChainingHashTable readFrom(InputStream in, IntHashFunction hashFunction) throws IOException {
+        return SeparateChainingHashTable.readFrom(in, hashFunction);
+    }
+
+    @Override
+    protected SeparateChainingHashTable readFrom(ReadableByteChannel channel, IntHashFunction hashFunction)
+            throws IOException {
+        return SeparateChainingHashTable.readFrom(channel, hashFunction);
+    }
+
+    @Test
+    void fibonacciIndexing_valuesWithEqualLowBits_allValuesInHashTable() {
+        //Arrange
+        SeparateChainingHashTable fibonacciTable = new SeparateChainingHashTable(HashFunctions::absHash,
+                AbstractHashTable.IndexingMode.FIBONACCI);
+
+        //Act
+        for (int i = 0; i < 10000; i++) {
+            fibonacciTable.add(i << 10);
+        }
+
+        //Assert
+        assertEquals(10000, fibonacciTable.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(fibonacciTable.contains(i << 10), "The table should contain: " + (i << 10));
+            assertFalse(fibonacciTable.contains((i << 10) + 1), "The table should not contain: " + ((i << 10) + 1));
+        }
+    }
+
+    @Test
+    void add_manyValuesInOneBucket_bucketIsSortedAndValuesAreFound() {
+        //Arrange
+        SeparateChainingHashTable colliding = new SeparateChainingHashTable(value -> 0);
+
+        //Act
+        for (int i = 0; i < 1000; i++) {
+            colliding.add(i * 7);
+        }
+
+        //Assert
+        assertEquals(1000, colliding.size());
+        assertEquals(1, colliding.treeifiedBucketCount());
+        for (int i = 0; i < 7000; i++) {
+            assertEquals(i % 7 == 0, colliding.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void add_valuesUpToTheThreshold_bucketStaysAList() {
+        //Arrange
+        SeparateChainingHashTable colliding = new SeparateChainingHashTable(value -> 0);
+
+        //Act
+        for (int i = 0; i < SeparateChainingHashTable.TREEIFY_THRESHOLD; i++) {
+            colliding.add(i);
+        }
+
+        //Assert
+        assertEquals(0, colliding.treeifiedBucketCount());
+    }
+
+    @Test
+    void remove_sortedBucketBelowTheLowerThreshold_bucketReturnsToAList() {
+        //Arrange
+        SeparateChainingHashTable colliding = new SeparateChainingHashTable(value -> 0,
+                SizingPolicy.builder().shrinkPolicy(SizingPolicy.ShrinkPolicy.NEVER).build());
+        for (int i = 0; i < 20; i++) {
+            colliding.add(i);
+        }
+
+        //Act
+        for (int i = 0; i < 20 - SeparateChainingHashTable.UNTREEIFY_THRESHOLD; i++) {
+            colliding.remove(i);
+        }
+        int sortedBeforeLastRemoval = colliding.treeifiedBucketCount();
+        colliding.remove(19);
+
+        //Assert
+        assertEquals(1, sortedBeforeLastRemoval);
+        assertEquals(0, colliding.treeifiedBucketCount());
+        assertEquals(SeparateChainingHashTable.UNTREEIFY_THRESHOLD - 1, colliding.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i >= 14 && i < 19, colliding.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void iteratorRemove_sortedBucket_iterationVisitsEveryValue() {
+        //Arrange
+        SeparateChainingHashTable colliding = new SeparateChainingHashTable(value -> value & 1);
+        for (int i = 0; i < 100; i++) {
+            colliding.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+        Iterator<Integer> it = colliding.iterator();
+
+        //Act
+        while (it.hasNext()) {
+            int value = it.next();
+            visited.add(value);
+            if (value % 3 == 0) {
+                it.remove();
+            }
+        }
+
+        //Assert
+        assertEquals(100, visited.size());
+        assertEquals(66, colliding.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 != 0, colliding.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void reverseIterator_sortedBuckets_visitsEveryValue() {
+        //Arrange
+        SeparateChainingHashTable colliding = new SeparateChainingHashTable(value -> value & 1);
+        for (int i = 0; i < 100; i++) {
+            colliding.add(i);
+        }
+        Set<Integer> visited = new HashSet<>();
+
+        //Act
+        PrimitiveReverseIterator it = colliding.primitiveReverseIterator();
+        while (it.hasPrevious()) {
+            visited.add(it.previousInt());
+        }
+
+        //Assert
+        assertEquals(100, visited.size());
+    }
+
+    @Test
+    void incrementalResize_sortedBuckets_valuesAreFoundDuringMigration() {
+        //Arrange
+        SeparateChainingHashTable colliding = new SeparateChainingHashTable(value -> value & 3);
+        colliding.setIncrementalResize(true);
+
+        //Act
+        for (int i = 0; i < 5000; i++) {
+            colliding.add(i);
+        }
+
+        //Assert
+        assertEquals(5000, colliding.size());
+        for (int i = -100; i < 5100; i++) {
+            assertEquals(i >= 0 && i < 5000, colliding.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
     @Test
     void swap_withLinearProbing_swapsContents() {
         //Arrange
@@ -65,6 +260,4 @@ class SeparateChainingHashTableTest extends HashTableTest<SeparateChainingHashTa
         assertEquals(table1.size(), 1);
         assertEquals(table2.size(), 10);
     }
-
-
-}
\ No newline at end of file
+}
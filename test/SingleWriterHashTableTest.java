@@ -0,0 +1,92 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleWriterHashTableTest extends HashTableTest<SingleWriterHashTable> {
+    private static final int READERS = 4;
+
+    @Override
+    protected SingleWriterHashTable createTable() {
+        return new SingleWriterHashTable();
+    }
+
+    @Override
+    protected SingleWriterHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new SingleWriterHashTable(hashFunction);
+    }
+
+    @Override
+    protected SingleWriterHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new SingleWriterHashTable(hashFunction);
+    }
+
+    @Test
+    void swap_withItself_keepsTheContent() {
+        //Arrange
+        for (int i = 0; i < 100; i++) {
+            table.add(i);
+        }
+
+        //Act
+        table.swap(table);
+
+        //Assert
+        assertEquals(100, table.size());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(table.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void contains_readersDuringWritesAndResizes_seeOnlyConsistentContent() throws InterruptedException {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(-i - 1);
+        }
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicBoolean wrong = new AtomicBoolean(false);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(new Thread(() -> {
+                while (writing.get()) {
+                    for (int i = 0; i < 1000; i++) {
+                        // stable values must always be found, values never added must never be
+                        if (!table.contains(-i - 1) || table.contains(Integer.MIN_VALUE + i)) {
+                            wrong.set(true);
+                        }
+                    }
+                    int size = table.size();
+                    if (size < 1000 || size > 21000) {
+                        wrong.set(true);
+                    }
+                }
+            }));
+        }
+
+        //Act
+        readers.forEach(Thread::start);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20000; i++) {
+                table.add(i);
+            }
+            for (int i = 0; i < 20000; i++) {
+                table.remove(i);
+            }
+        }
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        //Assert
+        assertFalse(wrong.get(), "A reader saw an inconsistent state of the table");
+        assertEquals(1000, table.size());
+    }
+}
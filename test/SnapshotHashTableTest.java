@@ -0,0 +1,414 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests shared by the tables which follow a sizing policy and can be written to snapshots
+ */
+abstract class SnapshotHashTableTest<T extends AbstractHashTable> extends HashTableTest<T> {
+
+    protected abstract T createTable(IntHashFunction hashFunction, AbstractHashTable.IndexingMode indexingMode);
+
+    protected abstract T createTable(SizingPolicy sizing);
+
+    protected abstract int capacity(T table);
+
+    protected abstract void setIncrementalResize(T table, boolean incrementalResize);
+
+    protected abstract void writeTo(T table, OutputStream out) throws IOException;
+
+    protected abstract void writeTo(T table, WritableByteChannel channel) throws IOException;
+
+    protected abstract T readFrom(InputStream in, IntHashFunction hashFunction) throws IOException;
+
+    protected abstract T readFrom(ReadableByteChannel channel, IntHashFunction hashFunction) throws IOException;
+
+    @Test
+    void writeTo_readFrom_sameValuesAndHashFunction() throws IOException {
+        //Arrange
+        T source = createTable(HashFunctions.Standard.ABS, AbstractHashTable.IndexingMode.FIBONACCI);
+        Random random = new Random(5);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int value = i % 2 == 0 ? random.nextInt() : i;
+            source.add(value);
+            expected.add(value);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //Act
+        writeTo(source, out);
+        T read = readFrom(new ByteArrayInputStream(out.toByteArray()), null);
+
+        //Assert
+        assertEquals(expected.size(), read.size());
+        Set<Integer> iterated = new HashSet<>();
+        for (Integer value : read) {
+            iterated.add(value);
+        }
+        assertEquals(expected, iterated);
+        read.add(Integer.MIN_VALUE);
+        assertTrue(read.contains(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void readFrom_emptyTable_readTableIsEmpty() throws IOException {
+        //Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(table, out);
+
+        //Act
+        T read = readFrom(new ByteArrayInputStream(out.toByteArray()), null);
+
+        //Assert
+        assertTrue(read.empty());
+    }
+
+    @Test
+    void readFrom_manyValues_tableIsPresized() throws IOException {
+        //Arrange
+        for (int i = 0; i < 100000; i++) {
+            table.add(i * 7);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(table, Channels.newChannel(out));
+
+        //Act
+        T read = readFrom(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), null);
+
+        //Assert
+        assertEquals(capacity(createTable(SizingPolicy.forExpectedSize(100000))), capacity(read));
+        assertEquals(100000, read.size());
+    }
+
+    @Test
+    void readFrom_corruptedSnapshot_throwsIOException() throws IOException {
+        //Arrange
+        for (int i = 0; i < 10000; i++) {
+            table.add(i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(table, out);
+        byte[] corrupted = out.toByteArray();
+        corrupted[corrupted.length / 2] ^= 1;
+
+        //Act & Assert
+        assertThrows(IOException.class, () -> readFrom(new ByteArrayInputStream(corrupted), null));
+    }
+
+    @Test
+    void readFrom_truncatedSnapshot_throwsIOException() throws IOException {
+        //Arrange
+        for (int i = 0; i < 10000; i++) {
+            table.add(i);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(table, out);
+        byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 1);
+
+        //Act & Assert
+        assertThrows(IOException.class, () -> readFrom(new ByteArrayInputStream(truncated), null));
+    }
+
+    @Test
+    void readFrom_unregisteredHashFunction_needsTheFunction() throws IOException {
+        //Arrange
+        IntHashFunction identity = value -> value;
+        T source = createTableWithIntHash(identity);
+        source.add(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeTo(source, out);
+        byte[] snapshot = out.toByteArray();
+
+        //Act & Assert
+        assertThrows(IOException.class, () -> readFrom(new ByteArrayInputStream(snapshot), null));
+        assertTrue(readFrom(new ByteArrayInputStream(snapshot), identity).contains(42));
+    }
+
+    @Test
+    void addAll_manyValues_capacityMatchesAddingOneByOne() {
+        //Arrange
+        int[] values = new int[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i * 3;
+        }
+        T oneByOne = createTable();
+        for (int value : values) {
+            oneByOne.add(value);
+        }
+
+        //Act
+        table.addAll(values);
+
+        //Assert
+        assertEquals(capacity(oneByOne), capacity(table));
+        assertEquals(100000, table.size());
+    }
+
+    @Test
+    void addAll_duringIteration_iteratorThrowsException() {
+        //Arrange
+        table.add(1);
+        Iterator<Integer> it = table.iterator();
+
+        //Act
+        table.addAll(new int[]{2, 3});
+
+        //Assert
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void removeAll_mostValues_capacityMatchesRemovingOneByOne() {
+        //Arrange
+        T oneByOne = createTable();
+        int[] values = new int[100000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i;
+            table.add(i);
+            oneByOne.add(i);
+        }
+        int[] removed = Arrays.copyOf(values, 99000);
+        for (int value : removed) {
+            oneByOne.remove(value);
+        }
+
+        //Act
+        int count = table.removeAll(removed);
+
+        //Assert
+        assertEquals(99000, count);
+        assertEquals(capacity(oneByOne), capacity(table));
+        for (int i = 99000; i < 100000; i++) {
+            assertTrue(table.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void incrementalResize_addAndRemoveWhileMigrating_membershipIsKept() {
+        //Arrange
+        T incremental = createTable();
+        setIncrementalResize(incremental, true);
+
+        //Act
+        for (int i = 0; i < 100000; i++) {
+            incremental.add(i);
+            assertTrue(incremental.contains(i / 2), "The table should contain: " + (i / 2));
+        }
+        for (int i = 0; i < 100000; i += 2) {
+            incremental.remove(i);
+        }
+
+        //Assert
+        assertEquals(50000, incremental.size());
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(i % 2 == 1, incremental.contains(i), "Wrong membership of: " + i);
+        }
+    }
+
+    @Test
+    void incrementalResize_iterateWhileMigrating_everyValueIsVisitedOnce() {
+        //Arrange
+        T incremental = createTable();
+        setIncrementalResize(incremental, true);
+
+        //Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            // the table is iterated at every size, so also while each of its resizes is in progress
+            incremental.add(i);
+            Set<Integer> visited = new HashSet<>();
+            for (int value : incremental) {
+                assertTrue(visited.add(value), "The value was visited twice: " + value);
+            }
+            assertEquals(i + 1, visited.size());
+        }
+    }
+
+    @Test
+    void setIncrementalResize_turnedOffWhileMigrating_valuesAreKept() {
+        //Arrange
+        T incremental = createTable();
+        setIncrementalResize(incremental, true);
+        for (int i = 0; i < 1000; i++) {
+            incremental.add(i);
+        }
+
+        //Act
+        setIncrementalResize(incremental, false);
+
+        //Assert
+        assertEquals(1000, incremental.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(incremental.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void iteratorRemove_allValuesSharingABucket_tableIsEmptied() {
+        //Arrange
+        T colliding = createTableWithIntHash(x -> 0);
+        for (int i = 0; i < 10; i++) {
+            colliding.add(i);
+        }
+
+        //Act
+        Iterator<Integer> it = colliding.iterator();
+        int visited = 0;
+        while (it.hasNext()) {
+            it.next();
+            it.remove();
+            ++visited;
+        }
+
+        //Assert
+        assertEquals(10, visited);
+        assertTrue(colliding.empty());
+    }
+
+    @Test
+    void sizingPolicy_expectedSize_tableDoesNotGrowWhileFilled() {
+        //Arrange
+        T presized = createTable(SizingPolicy.forExpectedSize(1000));
+        int capacity = capacity(presized);
+
+        //Act
+        for (int i = 0; i < 1000; i++) {
+            presized.add(i);
+        }
+
+        //Assert
+        assertEquals(capacity, capacity(presized));
+        assertEquals(1000, presized.size());
+    }
+
+    @Test
+    void sizingPolicy_neverShrink_capacityIsKeptAfterRemovals() {
+        //Arrange
+        T neverShrinking = createTable(SizingPolicy.builder()
+                .shrinkPolicy(SizingPolicy.ShrinkPolicy.NEVER)
+                .build());
+        for (int i = 0; i < 1000; i++) {
+            neverShrinking.add(i);
+        }
+        int capacity = capacity(neverShrinking);
+
+        //Act
+        for (int i = 0; i < 1000; i++) {
+            neverShrinking.remove(i);
+        }
+
+        //Assert
+        assertEquals(capacity, capacity(neverShrinking));
+        assertTrue(neverShrinking.empty());
+    }
+
+    @Test
+    void sizingPolicy_perInstanceLoadFactors_otherTablesAreNotAffected() {
+        //Arrange
+        T dense = createTable(SizingPolicy.builder()
+                .maxLoadFactor(0.25)
+                .minLoadFactor(0.05)
+                .growthFactor(4)
+                .build());
+        T regular = createTable();
+
+        //Act
+        for (int i = 0; i < 100; i++) {
+            dense.add(i);
+            regular.add(i);
+        }
+
+        //Assert
+        assertEquals(1024, capacity(dense));
+        assertTrue(capacity(regular) < capacity(dense));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(dense.contains(i), "The table should contain: " + i);
+        }
+    }
+
+    @Test
+    void sizingPolicy_minLoadFactorTooCloseToMax_throwsException() {
+        //Arrange
+        SizingPolicy policy = SizingPolicy.builder()
+                .maxLoadFactor(0.5)
+                .minLoadFactor(0.3)
+                .build();
+
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> createTable(policy));
+    }
+
+    @Test
+    void sizingPolicyBuilder_growthFactorNotPowerOfTwo_throwsException() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> SizingPolicy.builder().growthFactor(3));
+    }
+
+    @Test
+    void spliterator_notSplit_reportsTheExactSize() {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+
+        //Act
+        Spliterator.OfInt spliterator = table.spliterator();
+
+        //Assert
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.DISTINCT));
+        assertEquals(1000, spliterator.estimateSize());
+    }
+
+    @Test
+    void spliterator_split_partsEstimateHalfOfTheValues() {
+        //Arrange
+        for (int i = 0; i < 1000; i++) {
+            table.add(i);
+        }
+        Spliterator.OfInt spliterator = table.spliterator();
+
+        //Act
+        Spliterator.OfInt prefix = spliterator.trySplit();
+
+        //Assert
+        assertNotNull(prefix);
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(500, spliterator.estimateSize());
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    }
+
+    @Test
+    void spliterator_tableModifiedAfterBinding_throwsException() {
+        //Arrange
+        for (int i = 0; i < 100; i++) {
+            table.add(i);
+        }
+        Spliterator.OfInt spliterator = table.spliterator();
+        spliterator.tryAdvance((int value) -> {
+        });
+
+        //Act
+        table.add(1000);
+
+        //Assert
+        assertThrows(ConcurrentModificationException.class, () -> spliterator.forEachRemaining((int value) -> {
+        }));
+    }
+}
@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SwissHashTableTest extends HashTableTest<SwissHashTable> {
+
+    @Override
+    protected SwissHashTable createTable() {
+        return new SwissHashTable();
+    }
+
+    @Override
+    protected SwissHashTable createTable(Function<Integer, Integer> hashFunction) {
+        return new SwissHashTable(hashFunction);
+    }
+
+    @Override
+    protected SwissHashTable createTableWithIntHash(IntHashFunction hashFunction) {
+        return new SwissHashTable(hashFunction);
+    }
+
+    @Test
+    void contains_valuesSharingAllHashBits_onlyAddedValuesAreFound() {
+        //Arrange
+        SwissHashTable colliding = new SwissHashTable(x -> 42);
+
+        //Act
+        for (int i = 0; i < 100; i++) {
+            colliding.add(i);
+        }
+
+        //Assert
+        for (int i = 0; i < 100; i++) {
+            assertTrue(colliding.contains(i), "The table should contain: " + i);
+            assertFalse(colliding.contains(-i - 1), "The table should not contain: " + (-i - 1));
+        }
+    }
+}